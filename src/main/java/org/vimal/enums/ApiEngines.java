@@ -0,0 +1,6 @@
+package org.vimal.enums;
+
+public enum ApiEngines {
+    REST_ASSURED,
+    JAVA_HTTP_CLIENT
+}
@@ -0,0 +1,7 @@
+package org.vimal.enums;
+
+public enum QrDecodeStages {
+    PURE_GLOBAL_HISTOGRAM,
+    HYBRID,
+    HYBRID_TRY_HARDER
+}
@@ -2,29 +2,59 @@ package org.vimal;
 
 import io.restassured.RestAssured;
 import lombok.extern.slf4j.Slf4j;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeSuite;
+import org.testng.annotations.Listeners;
+import org.testng.xml.XmlSuite;
+import org.vimal.api.AccessTokenHolder;
+import org.vimal.capture.ExchangeCapture;
 import org.vimal.dtos.RoleDto;
 import org.vimal.dtos.UserDto;
+import org.vimal.enums.Roles;
+import org.vimal.fake.FakeAuthServer;
+import org.vimal.helpers.TestUserPoolHelper.PooledTestUser;
+import org.vimal.proxy.FaultInjectionProxy;
+import org.vimal.proxy.FaultRule;
+import org.vimal.utils.LocalMailSink;
 
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Set;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 
 import static io.restassured.RestAssured.given;
 import static org.vimal.api.AdminCallsUsingGlobalAdminUser.createRoles;
 import static org.vimal.api.AdminCallsUsingGlobalAdminUser.createUsers;
-import static org.vimal.api.AuthenticationCalls.getAccessToken;
+import static org.vimal.api.ApiCallMetrics.logSummary;
 import static org.vimal.api.AuthenticationCalls.logout;
+import static org.vimal.api.EndpointLatencyRecorder.logReport;
 import static org.vimal.constants.Common.MAX_BATCH_SIZE_OF_ROLE_CREATION_AT_A_TIME;
 import static org.vimal.constants.Common.MAX_BATCH_SIZE_OF_USER_CREATION_AT_A_TIME;
+import static org.vimal.helpers.BatchPipelineHelper.assertNoBatchFailures;
+import static org.vimal.helpers.BatchPipelineHelper.processInBatches;
 import static org.vimal.helpers.CleanUpHelper.cleanUpTestRoles;
 import static org.vimal.helpers.CleanUpHelper.cleanUpTestUsers;
+import static org.vimal.helpers.CleanUpHelper.sweepOrphans;
+import static org.vimal.helpers.CleanUpJournalHelper.closeCurrentJournal;
+import static org.vimal.helpers.CleanUpJournalHelper.journalCreatedRoles;
+import static org.vimal.helpers.CleanUpJournalHelper.journalCreatedUsers;
 import static org.vimal.helpers.DtosHelper.*;
+import static org.vimal.helpers.TestUserPoolHelper.newPooledTestUser;
+import static org.vimal.helpers.TestUserPoolHelper.poll;
+import static org.vimal.helpers.TestUserPoolHelper.release;
+import static org.vimal.utils.MailReaderUtility.closeMailboxes;
+import static org.vimal.utils.MailReaderUtility.logDeliveryToReadLatencies;
+import static org.vimal.utils.QrUtility.logDecodeStageSummary;
+import static org.vimal.utils.SeedUtility.getSeed;
+import static org.vimal.utils.SeedUtility.isSeeded;
+import static org.vimal.utils.UniqueIdUtility.getRunPrefix;
 
 @Slf4j
+@Listeners(BaseTest.ReplayableSuiteCheck.class)
 public abstract class BaseTest {
     protected static final Set<UserDto> TEST_USERS = ConcurrentHashMap.newKeySet();
     protected static final Set<RoleDto> TEST_ROLES = ConcurrentHashMap.newKeySet();
@@ -32,32 +62,131 @@ public abstract class BaseTest {
     private static final String BASE_PATH = "api/v1";
     public static final String X_DEVICE_ID_HEADER = "X-Device-ID";
     public static final String DEFAULT_DEVICE_ID = "Test-Device-001";
-    public static final String TEST_EMAIL = System.getenv("TEST_EMAIL");
+    private static final String FAKE_SERVER_PORT = System.getProperty("fake.server.port");
+    public static final String TEST_EMAIL = getenvOrFakeDefault("TEST_EMAIL", FakeAuthServer.DEFAULT_TEST_EMAIL);
     public static final String TEST_EMAIL_PASSWORD = System.getenv("TEST_EMAIL_PASSWORD");
-    public static final String GLOBAL_ADMIN_USERNAME = System.getenv("GLOBAL_ADMIN_USERNAME");
-    public static final String GLOBAL_ADMIN_PASSWORD = System.getenv("GLOBAL_ADMIN_PASSWORD");
-    public static String GLOBAL_ADMIN_ACCESS_TOKEN;
+    public static final String GLOBAL_ADMIN_USERNAME = getenvOrFakeDefault("GLOBAL_ADMIN_USERNAME", FakeAuthServer.DEFAULT_GLOBAL_ADMIN_USERNAME);
+    public static final String GLOBAL_ADMIN_PASSWORD = getenvOrFakeDefault("GLOBAL_ADMIN_PASSWORD", FakeAuthServer.DEFAULT_GLOBAL_ADMIN_PASSWORD);
+    private static final String FAULT_PROXY_PORT = System.getProperty("fault.proxy.port");
+    private static final String FAULT_PROXY_RULES = System.getProperty("fault.proxy.rules");
+    private static final String LOCAL_MAIL_SINK_PORT = System.getProperty("mail.sink.port", FAKE_SERVER_PORT == null ? null : "0");
+    private static final ThreadLocal<List<PooledTestUser>> LEASED_TEST_USERS = ThreadLocal.withInitial(ArrayList::new);
+    public static final AccessTokenHolder GLOBAL_ADMIN_ACCESS_TOKEN_HOLDER = new AccessTokenHolder(
+            GLOBAL_ADMIN_USERNAME,
+            GLOBAL_ADMIN_PASSWORD
+    );
+
+    private static String getenvOrFakeDefault(String name,
+                                              String fakeDefault) {
+        String value = System.getenv(name);
+        return value == null && (FAKE_SERVER_PORT != null || ExchangeCapture.isReplaying()) ? fakeDefault : value;
+    }
 
     @BeforeSuite
-    public void setUpBeforeSuite() throws ExecutionException, InterruptedException {
+    public void setUpBeforeSuite() throws ExecutionException, InterruptedException, IOException {
+        int localMailSinkPort = 0;
+        if (LOCAL_MAIL_SINK_PORT != null) {
+            localMailSinkPort = LocalMailSink.start(Integer.parseInt(LOCAL_MAIL_SINK_PORT));
+            log.info(
+                    "Reading emails from the local mail sink listening for SMTP on port {}.",
+                    localMailSinkPort
+            );
+        }
+        String baseUrl = BASE_URL;
+        if (FAKE_SERVER_PORT != null) {
+            FakeAuthServer.start(
+                    Integer.parseInt(FAKE_SERVER_PORT),
+                    GLOBAL_ADMIN_USERNAME,
+                    GLOBAL_ADMIN_PASSWORD,
+                    localMailSinkPort
+            );
+            baseUrl = FakeAuthServer.getBaseUrl();
+            log.info("Running against the in-process fake auth server instead of '{}'.", BASE_URL);
+        }
+        if (FAULT_PROXY_PORT != null) {
+            if (FAULT_PROXY_RULES != null) {
+                FaultInjectionProxy.addRules(FaultRule.load(Path.of(FAULT_PROXY_RULES)));
+            }
+            FaultInjectionProxy.start(
+                    Integer.parseInt(FAULT_PROXY_PORT),
+                    baseUrl
+            );
+            baseUrl = FaultInjectionProxy.getBaseUrl();
+        }
+        if (isSeeded()) {
+            log.info(
+                    "Generating fixtures with seed {} under run prefix '{}'.",
+                    getSeed(),
+                    getRunPrefix()
+            );
+        } else {
+            log.info(
+                    "Generating unseeded fixtures under run prefix '{}', set -Dfixture.seed to reproduce request streams.",
+                    getRunPrefix()
+            );
+        }
         log.info(
                 "Setting RestAssured with base Url: '{}' & base path: '{}'",
-                BASE_URL,
+                baseUrl,
                 BASE_PATH
         );
-        RestAssured.baseURI = BASE_URL;
+        RestAssured.baseURI = baseUrl;
         RestAssured.basePath = BASE_PATH;
         log.info("Enabling logging of request & response if validation fails.");
         RestAssured.requestSpecification = given().header(X_DEVICE_ID_HEADER, DEFAULT_DEVICE_ID);
         RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
-        GLOBAL_ADMIN_ACCESS_TOKEN = getAccessToken(
-                GLOBAL_ADMIN_USERNAME,
-                GLOBAL_ADMIN_PASSWORD
+        GLOBAL_ADMIN_ACCESS_TOKEN_HOLDER.getAccessToken();
+        sweepOrphans();
+    }
+
+    // TestNG injects nothing into @BeforeSuite methods, so the suite is checked from a listener, which also runs
+    // before any configuration method can send a call.
+    public static final class ReplayableSuiteCheck implements ISuiteListener {
+        @Override
+        public void onStart(ISuite suite) {
+            checkCaptureIsReplayable(suite.getXmlSuite());
+        }
+    }
+
+    // Replay matches calls on their request bodies, and seeded ids come from one shared counter, so which test gets
+    // which username only repeats when the seed is fixed and the tests run one at a time in the same order.
+    private static void checkCaptureIsReplayable(XmlSuite suite) {
+        if (!ExchangeCapture.isCapturing() &&
+                !ExchangeCapture.isReplaying()) {
+            return;
+        }
+        String problem = null;
+        if (!isSeeded()) {
+            problem = "-Dfixture.seed is not set";
+        } else if (suite.getParallel()
+                .isParallel() &&
+                suite.getThreadCount() > 1) {
+            problem = "suite '" + suite.getName() + "' runs parallel=\"" + suite.getParallel() + "\" with thread-count=" + suite.getThreadCount();
+        }
+        if (problem == null) {
+            return;
+        }
+        if (ExchangeCapture.isReplaying()) {
+            throw new IllegalStateException("Cannot replay a capture into the suite because " + problem + ", replay with the recorded -Dfixture.seed and thread-count=1");
+        }
+        log.warn(
+                "Capturing while {}, the capture can be re-sent with CaptureReplayer but not replayed into the suite, which needs -Dfixture.seed and thread-count=1.",
+                problem
         );
     }
 
+    @AfterMethod(alwaysRun = true)
+    public void releaseLeasedTestUsers() {
+        List<PooledTestUser> leasedTestUsers = LEASED_TEST_USERS.get();
+        for (PooledTestUser leasedTestUser : leasedTestUsers) {
+            release(leasedTestUser);
+        }
+        leasedTestUsers.clear();
+    }
+
     @AfterSuite
     public void cleanupAfterSuite() {
+        logReport();
         log.info("Cleaning up environment after all tests.");
         if (!TEST_USERS.isEmpty()) {
             log.info("Deleting test users.");
@@ -69,13 +198,66 @@ public abstract class BaseTest {
             cleanUpTestRoles(TEST_ROLES);
             TEST_ROLES.clear();
         }
+        closeCurrentJournal();
         try {
-            logout(GLOBAL_ADMIN_ACCESS_TOKEN);
+            logout(GLOBAL_ADMIN_ACCESS_TOKEN_HOLDER.getCurrentAccessToken());
         } catch (Exception ignored) {
         }
+        logSummary();
+        logDeliveryToReadLatencies();
+        logDecodeStageSummary();
+        closeMailboxes();
+        ExchangeCapture.close();
+        FaultInjectionProxy.stop();
+        FakeAuthServer.stop();
         log.info("Cleanup completed.");
     }
 
+    protected static PooledTestUser leaseTestUser() throws ExecutionException, InterruptedException {
+        return leaseTestUser(Set.of());
+    }
+
+    protected static PooledTestUser leaseTestUser(Roles role) throws ExecutionException, InterruptedException {
+        return leaseTestUser(Set.of(role.name()));
+    }
+
+    // The pool fills lazily, a lease only creates a user when every user with those roles is leased, so the pool
+    // never grows past the number of tests holding one at once and roles nobody leases cost nothing.
+    private static PooledTestUser leaseTestUser(Set<String> roles) throws ExecutionException, InterruptedException {
+        PooledTestUser pooledTestUser = poll(roles);
+        if (pooledTestUser == null) {
+            pooledTestUser = newPooledTestUser(
+                    roles,
+                    createTestUser(roles)
+            );
+        }
+        LEASED_TEST_USERS.get()
+                .add(pooledTestUser);
+        return pooledTestUser;
+    }
+
+    protected static void trackTestUser(UserDto user) {
+        trackTestUsers(Set.of(user));
+    }
+
+    protected static void trackTestUsers(Set<UserDto> users) {
+        journalCreatedUsers(users.stream()
+                .map(UserDto::getUsername)
+                .toList());
+        TEST_USERS.addAll(users);
+    }
+
+    protected static void trackTestRole(RoleDto role) {
+        trackTestRoles(Set.of(role));
+    }
+
+    protected static void trackTestRoles(Set<RoleDto> roles) {
+        journalCreatedRoles(roles.stream()
+                .map(RoleDto::getRoleName)
+                .toList());
+        TEST_ROLES.addAll(roles);
+    }
+
     protected static UserDto createTestUser() throws ExecutionException, InterruptedException {
         return createTestUser(createRandomUserDto());
     }
@@ -94,23 +276,16 @@ public abstract class BaseTest {
     }
 
     protected static void createTestUsers(Set<UserDto> users) throws ExecutionException, InterruptedException {
-        Iterator<UserDto> iterator = users.iterator();
-        Set<UserDto> batch = new HashSet<>();
-        UserDto user;
-        while (iterator.hasNext()) {
-            batch.clear();
-            while (iterator.hasNext() &&
-                    batch.size() < MAX_BATCH_SIZE_OF_USER_CREATION_AT_A_TIME) {
-                user = iterator.next();
-                TEST_USERS.add(user);
-                batch.add(user);
-            }
-            createUsers(
-                    batch,
-                    null
-            ).then()
-                    .statusCode(200);
-        }
+        trackTestUsers(users);
+        assertNoBatchFailures(processInBatches(
+                users,
+                MAX_BATCH_SIZE_OF_USER_CREATION_AT_A_TIME,
+                batch -> createUsers(
+                        batch,
+                        null
+                ).then()
+                        .statusCode(200)
+        ));
     }
 
     protected static RoleDto createTestRole() throws ExecutionException, InterruptedException {
@@ -127,22 +302,15 @@ public abstract class BaseTest {
     }
 
     protected static void createTestRoles(Set<RoleDto> roles) throws ExecutionException, InterruptedException {
-        Iterator<RoleDto> iterator = roles.iterator();
-        Set<RoleDto> batch = new HashSet<>();
-        RoleDto role;
-        while (iterator.hasNext()) {
-            batch.clear();
-            while (iterator.hasNext() &&
-                    batch.size() < MAX_BATCH_SIZE_OF_ROLE_CREATION_AT_A_TIME) {
-                role = iterator.next();
-                TEST_ROLES.add(role);
-                batch.add(role);
-            }
-            createRoles(
-                    batch,
-                    null
-            ).then()
-                    .statusCode(200);
-        }
+        trackTestRoles(roles);
+        assertNoBatchFailures(processInBatches(
+                roles,
+                MAX_BATCH_SIZE_OF_ROLE_CREATION_AT_A_TIME,
+                batch -> createRoles(
+                        batch,
+                        null
+                ).then()
+                        .statusCode(200)
+        ));
     }
 }
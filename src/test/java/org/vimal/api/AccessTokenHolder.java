@@ -0,0 +1,115 @@
+package org.vimal.api;
+
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.vimal.api.AuthenticationCalls.login;
+import static org.vimal.api.AuthenticationCalls.refreshAccessToken;
+
+@Slf4j
+public final class AccessTokenHolder {
+    private static final long DEFAULT_EXPIRES_IN_SECONDS = 1800;
+    private static final long MAX_REFRESH_MARGIN_SECONDS = 60;
+    private final String usernameOrEmail;
+    private final String password;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile TokenState state;
+
+    private record TokenState(String accessToken,
+                              String refreshToken,
+                              long refreshAtNanos) {
+        private boolean isDueForRefresh() {
+            return System.nanoTime() - refreshAtNanos >= 0;
+        }
+    }
+
+    public AccessTokenHolder(String usernameOrEmail,
+                             String password) {
+        this.usernameOrEmail = usernameOrEmail;
+        this.password = password;
+    }
+
+    public String getAccessToken() throws ExecutionException, InterruptedException {
+        TokenState current = state;
+        if (current != null &&
+                !current.isDueForRefresh()) {
+            return current.accessToken();
+        }
+        return refresh(current == null ? null : current.accessToken());
+    }
+
+    public String refreshAfterUnauthorized(String rejectedAccessToken) throws ExecutionException, InterruptedException {
+        return refresh(rejectedAccessToken);
+    }
+
+    public String getCurrentAccessToken() {
+        TokenState current = state;
+        return current == null ? null : current.accessToken();
+    }
+
+    private String refresh(String staleAccessToken) throws ExecutionException, InterruptedException {
+        refreshLock.lockInterruptibly();
+        try {
+            TokenState current = state;
+            if (current != null &&
+                    !current.accessToken().equals(staleAccessToken) &&
+                    !current.isDueForRefresh()) {
+                return current.accessToken();
+            }
+            TokenState refreshed = null;
+            if (current != null &&
+                    current.refreshToken() != null) {
+                refreshed = useRefreshToken(current.refreshToken());
+            }
+            if (refreshed == null) {
+                refreshed = useCredentials();
+            }
+            state = refreshed;
+            return refreshed.accessToken();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private TokenState useRefreshToken(String refreshToken) throws ExecutionException, InterruptedException {
+        Response response = refreshAccessToken(refreshToken);
+        if (response.statusCode() != 200) {
+            log.info(
+                    "Refreshing access token of '{}' failed with status {}, logging in again",
+                    usernameOrEmail,
+                    response.statusCode()
+            );
+            return null;
+        }
+        return toTokenState(response.jsonPath(), refreshToken);
+    }
+
+    private TokenState useCredentials() throws ExecutionException, InterruptedException {
+        Response response = login(
+                usernameOrEmail,
+                password
+        );
+        response.then()
+                .statusCode(200);
+        return toTokenState(response.jsonPath(), null);
+    }
+
+    private static TokenState toTokenState(JsonPath jsonPath,
+                                           String previousRefreshToken) {
+        String refreshToken = jsonPath.getString("refresh_token");
+        long lifetimeSeconds = jsonPath.get("expires_in_seconds") instanceof Number expiresInSeconds ?
+                expiresInSeconds.longValue() :
+                DEFAULT_EXPIRES_IN_SECONDS;
+        long refreshMarginSeconds = Math.min(MAX_REFRESH_MARGIN_SECONDS, lifetimeSeconds / 10);
+        return new TokenState(
+                jsonPath.getString("access_token"),
+                refreshToken == null ? previousRefreshToken : refreshToken,
+                System.nanoTime() + TimeUnit.SECONDS.toNanos(lifetimeSeconds - refreshMarginSeconds)
+        );
+    }
+}
@@ -7,9 +7,11 @@ import org.vimal.dtos.UserDto;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
 import static org.vimal.api.ApiCalls.executeRequest;
+import static org.vimal.api.Common.callAsync;
 import static org.vimal.api.Common.waitForResponse;
 import static org.vimal.constants.Common.*;
 import static org.vimal.constants.SubPaths.ADMIN;
@@ -22,7 +24,17 @@ public final class AdminCalls {
     public static Response createUsers(String accessToken,
                                        Set<UserDto> users,
                                        String leniency) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(createUsersAsync(
+                accessToken,
+                users,
+                leniency
+        ));
+    }
+
+    public static CompletableFuture<Response> createUsersAsync(String accessToken,
+                                                               Set<UserDto> users,
+                                                               String leniency) {
+        return callAsync(() -> executeRequest(
                         POST,
                         ADMIN + "/create/users",
                         Map.of(AUTHORIZATION, BEARER + accessToken),
@@ -38,6 +50,18 @@ public final class AdminCalls {
                                        Set<String> usernamesOrEmails,
                                        String hard,
                                        String leniency) throws ExecutionException, InterruptedException {
+        return waitForResponse(deleteUsersAsync(
+                accessToken,
+                usernamesOrEmails,
+                hard,
+                leniency
+        ));
+    }
+
+    public static CompletableFuture<Response> deleteUsersAsync(String accessToken,
+                                                               Set<String> usernamesOrEmails,
+                                                               String hard,
+                                                               String leniency) {
         Map<String, String> params = new HashMap<>();
         if (hard != null &&
                 !hard.isBlank()) {
@@ -47,7 +71,7 @@ public final class AdminCalls {
                 !leniency.isBlank()) {
             params.put(LENIENCY, leniency);
         }
-        return waitForResponse(() -> executeRequest(
+        return callAsync(() -> executeRequest(
                         DELETE,
                         ADMIN + "/delete/users",
                         Map.of(AUTHORIZATION, BEARER + accessToken),
@@ -61,7 +85,17 @@ public final class AdminCalls {
     public static Response readUsers(String accessToken,
                                      Set<String> usernamesOrEmails,
                                      String leniency) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(readUsersAsync(
+                accessToken,
+                usernamesOrEmails,
+                leniency
+        ));
+    }
+
+    public static CompletableFuture<Response> readUsersAsync(String accessToken,
+                                                             Set<String> usernamesOrEmails,
+                                                             String leniency) {
+        return callAsync(() -> executeRequest(
                         GET,
                         ADMIN + "/read/users",
                         Map.of(AUTHORIZATION, BEARER + accessToken),
@@ -76,7 +110,17 @@ public final class AdminCalls {
     public static Response updateUsers(String accessToken,
                                        Set<UserDto> users,
                                        String leniency) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(updateUsersAsync(
+                accessToken,
+                users,
+                leniency
+        ));
+    }
+
+    public static CompletableFuture<Response> updateUsersAsync(String accessToken,
+                                                               Set<UserDto> users,
+                                                               String leniency) {
+        return callAsync(() -> executeRequest(
                         PUT,
                         ADMIN + "/update/users",
                         Map.of(AUTHORIZATION, BEARER + accessToken),
@@ -91,7 +135,17 @@ public final class AdminCalls {
     public static Response createRoles(String accessToken,
                                        Set<RoleDto> roles,
                                        String leniency) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(createRolesAsync(
+                accessToken,
+                roles,
+                leniency
+        ));
+    }
+
+    public static CompletableFuture<Response> createRolesAsync(String accessToken,
+                                                               Set<RoleDto> roles,
+                                                               String leniency) {
+        return callAsync(() -> executeRequest(
                         POST,
                         ADMIN + "/create/roles",
                         Map.of(AUTHORIZATION, BEARER + accessToken),
@@ -107,6 +161,18 @@ public final class AdminCalls {
                                        Set<String> roleNames,
                                        String force,
                                        String leniency) throws ExecutionException, InterruptedException {
+        return waitForResponse(deleteRolesAsync(
+                accessToken,
+                roleNames,
+                force,
+                leniency
+        ));
+    }
+
+    public static CompletableFuture<Response> deleteRolesAsync(String accessToken,
+                                                               Set<String> roleNames,
+                                                               String force,
+                                                               String leniency) {
         Map<String, String> params = new HashMap<>();
         if (force != null &&
                 !force.isBlank()) {
@@ -116,7 +182,7 @@ public final class AdminCalls {
                 !leniency.isBlank()) {
             params.put(LENIENCY, leniency);
         }
-        return waitForResponse(() -> executeRequest(
+        return callAsync(() -> executeRequest(
                         DELETE,
                         ADMIN + "/delete/roles",
                         Map.of(AUTHORIZATION, BEARER + accessToken),
@@ -130,7 +196,17 @@ public final class AdminCalls {
     public static Response readRoles(String accessToken,
                                      Set<String> roleNames,
                                      String leniency) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(readRolesAsync(
+                accessToken,
+                roleNames,
+                leniency
+        ));
+    }
+
+    public static CompletableFuture<Response> readRolesAsync(String accessToken,
+                                                             Set<String> roleNames,
+                                                             String leniency) {
+        return callAsync(() -> executeRequest(
                         GET,
                         ADMIN + "/read/roles",
                         Map.of(AUTHORIZATION, BEARER + accessToken),
@@ -145,7 +221,17 @@ public final class AdminCalls {
     public static Response updateRoles(String accessToken,
                                        Set<RoleDto> roles,
                                        String leniency) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(updateRolesAsync(
+                accessToken,
+                roles,
+                leniency
+        ));
+    }
+
+    public static CompletableFuture<Response> updateRolesAsync(String accessToken,
+                                                               Set<RoleDto> roles,
+                                                               String leniency) {
+        return callAsync(() -> executeRequest(
                         PUT,
                         ADMIN + "/update/roles",
                         Map.of(AUTHORIZATION, BEARER + accessToken),
@@ -160,7 +246,17 @@ public final class AdminCalls {
     public static Response readPermissions(String accessToken,
                                            Set<String> permissionNames,
                                            String leniency) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(readPermissionsAsync(
+                accessToken,
+                permissionNames,
+                leniency
+        ));
+    }
+
+    public static CompletableFuture<Response> readPermissionsAsync(String accessToken,
+                                                                   Set<String> permissionNames,
+                                                                   String leniency) {
+        return callAsync(() -> executeRequest(
                         GET,
                         ADMIN + "/read/permissions",
                         Map.of(AUTHORIZATION, BEARER + accessToken),
@@ -7,8 +7,7 @@ import org.vimal.dtos.UserDto;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 
-import static org.vimal.BaseTest.*;
-import static org.vimal.api.AuthenticationCalls.getAccessToken;
+import static org.vimal.BaseTest.GLOBAL_ADMIN_ACCESS_TOKEN_HOLDER;
 
 public final class AdminCallsUsingGlobalAdminUser {
     private AdminCallsUsingGlobalAdminUser() {
@@ -16,91 +15,59 @@ public final class AdminCallsUsingGlobalAdminUser {
 
     public static Response createUsers(Set<UserDto> users,
                                        String leniency) throws ExecutionException, InterruptedException {
-        Response response = AdminCalls.createUsers(
-                GLOBAL_ADMIN_ACCESS_TOKEN,
-                users,
-                leniency
+        return callWithGlobalAdminAccessToken(accessToken -> AdminCalls.createUsers(
+                        accessToken,
+                        users,
+                        leniency
+                )
         );
-        if (response.statusCode() == 401) {
-            GLOBAL_ADMIN_ACCESS_TOKEN = getAccessToken(
-                    GLOBAL_ADMIN_USERNAME,
-                    GLOBAL_ADMIN_PASSWORD
-            );
-            response = AdminCalls.createUsers(
-                    GLOBAL_ADMIN_ACCESS_TOKEN,
-                    users,
-                    leniency
-            );
-        }
-        return response;
     }
 
     public static Response deleteUsers(Set<String> usernamesOrEmails,
                                        String hard,
                                        String leniency) throws ExecutionException, InterruptedException {
-        Response response = AdminCalls.deleteUsers(
-                GLOBAL_ADMIN_ACCESS_TOKEN,
-                usernamesOrEmails,
-                hard,
-                leniency
+        return callWithGlobalAdminAccessToken(accessToken -> AdminCalls.deleteUsers(
+                        accessToken,
+                        usernamesOrEmails,
+                        hard,
+                        leniency
+                )
         );
-        if (response.statusCode() == 401) {
-            GLOBAL_ADMIN_ACCESS_TOKEN = getAccessToken(
-                    GLOBAL_ADMIN_USERNAME,
-                    GLOBAL_ADMIN_PASSWORD
-            );
-            response = AdminCalls.deleteUsers(
-                    GLOBAL_ADMIN_ACCESS_TOKEN,
-                    usernamesOrEmails,
-                    hard,
-                    leniency
-            );
-        }
-        return response;
     }
 
     public static Response createRoles(Set<RoleDto> roles,
                                        String leniency) throws ExecutionException, InterruptedException {
-        Response response = AdminCalls.createRoles(
-                GLOBAL_ADMIN_ACCESS_TOKEN,
-                roles,
-                leniency
+        return callWithGlobalAdminAccessToken(accessToken -> AdminCalls.createRoles(
+                        accessToken,
+                        roles,
+                        leniency
+                )
         );
-        if (response.statusCode() == 401) {
-            GLOBAL_ADMIN_ACCESS_TOKEN = getAccessToken(
-                    GLOBAL_ADMIN_USERNAME,
-                    GLOBAL_ADMIN_PASSWORD
-            );
-            response = AdminCalls.createRoles(
-                    GLOBAL_ADMIN_ACCESS_TOKEN,
-                    roles,
-                    leniency
-            );
-        }
-        return response;
     }
 
     public static Response deleteRoles(Set<String> roleNames,
                                        String force,
                                        String leniency) throws ExecutionException, InterruptedException {
-        Response response = AdminCalls.deleteRoles(
-                GLOBAL_ADMIN_ACCESS_TOKEN,
-                roleNames,
-                force,
-                leniency
+        return callWithGlobalAdminAccessToken(accessToken -> AdminCalls.deleteRoles(
+                        accessToken,
+                        roleNames,
+                        force,
+                        leniency
+                )
         );
+    }
+
+    private static Response callWithGlobalAdminAccessToken(AccessTokenCall apiCall) throws ExecutionException, InterruptedException {
+        String accessToken = GLOBAL_ADMIN_ACCESS_TOKEN_HOLDER.getAccessToken();
+        Response response = apiCall.call(accessToken);
         if (response.statusCode() == 401) {
-            GLOBAL_ADMIN_ACCESS_TOKEN = getAccessToken(
-                    GLOBAL_ADMIN_USERNAME,
-                    GLOBAL_ADMIN_PASSWORD
-            );
-            response = AdminCalls.deleteRoles(
-                    GLOBAL_ADMIN_ACCESS_TOKEN,
-                    roleNames,
-                    force,
-                    leniency
-            );
+            response = apiCall.call(GLOBAL_ADMIN_ACCESS_TOKEN_HOLDER.refreshAfterUnauthorized(accessToken));
         }
         return response;
     }
+
+    @FunctionalInterface
+    private interface AccessTokenCall {
+        Response call(String accessToken) throws ExecutionException, InterruptedException;
+    }
 }
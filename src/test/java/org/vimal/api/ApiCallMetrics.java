@@ -0,0 +1,77 @@
+package org.vimal.api;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+public final class ApiCallMetrics {
+    private ApiCallMetrics() {
+    }
+
+    private static final LongAdder CALLS = new LongAdder();
+    private static final LongAdder TOTAL_QUEUE_WAIT_NANOS = new LongAdder();
+    private static final LongAccumulator MAX_QUEUE_WAIT_NANOS = new LongAccumulator(Long::max, 0);
+    private static final LongAdder TOTAL_EXECUTION_NANOS = new LongAdder();
+    private static final LongAccumulator MAX_EXECUTION_NANOS = new LongAccumulator(Long::max, 0);
+    private static final LongAdder CANCELLED_CALLS = new LongAdder();
+
+    static void record(long queueWaitNanos,
+                       long executionNanos) {
+        CALLS.increment();
+        TOTAL_QUEUE_WAIT_NANOS.add(queueWaitNanos);
+        MAX_QUEUE_WAIT_NANOS.accumulate(queueWaitNanos);
+        TOTAL_EXECUTION_NANOS.add(executionNanos);
+        MAX_EXECUTION_NANOS.accumulate(executionNanos);
+    }
+
+    static void recordCancellation() {
+        CANCELLED_CALLS.increment();
+    }
+
+    public static long getCalls() {
+        return CALLS.sum();
+    }
+
+    public static long getTotalQueueWaitNanos() {
+        return TOTAL_QUEUE_WAIT_NANOS.sum();
+    }
+
+    public static long getMaxQueueWaitNanos() {
+        return MAX_QUEUE_WAIT_NANOS.get();
+    }
+
+    public static long getTotalExecutionNanos() {
+        return TOTAL_EXECUTION_NANOS.sum();
+    }
+
+    public static long getMaxExecutionNanos() {
+        return MAX_EXECUTION_NANOS.get();
+    }
+
+    public static long getCancelledCalls() {
+        return CANCELLED_CALLS.sum();
+    }
+
+    public static void logSummary() {
+        long calls = getCalls();
+        if (calls == 0) {
+            return;
+        }
+        log.info(
+                "Api calls: {}, cancelled in flight: {}, queue wait avg/max: {}/{} ms, execution avg/max: {}/{} ms",
+                calls,
+                getCancelledCalls(),
+                toMillis(getTotalQueueWaitNanos() / calls),
+                toMillis(getMaxQueueWaitNanos()),
+                toMillis(getTotalExecutionNanos() / calls),
+                toMillis(getMaxExecutionNanos())
+        );
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
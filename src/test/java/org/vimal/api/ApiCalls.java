@@ -1,19 +1,36 @@
 package org.vimal.api;
 
+import io.restassured.RestAssured;
+import io.restassured.config.RestAssuredConfig;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
+import org.vimal.capture.ExchangeCapture;
+import org.vimal.enums.ApiEngines;
 import org.vimal.enums.RequestMethods;
 
 import java.io.File;
 import java.util.Map;
 
 import static io.restassured.RestAssured.given;
+import static org.vimal.api.Common.remainingTimeoutMillis;
 
 public final class ApiCalls {
     private ApiCalls() {
     }
 
+    private static final String API_ENGINE_PROPERTY = "api.engine";
+    private static volatile ApiEngines engine = ApiEngines.valueOf(System.getProperty(API_ENGINE_PROPERTY, ApiEngines.REST_ASSURED.name())
+            .toUpperCase());
+
+    public static ApiEngines getEngine() {
+        return engine;
+    }
+
+    public static void setEngine(ApiEngines apiEngine) {
+        engine = apiEngine;
+    }
+
     public static Response executeRequest(RequestMethods method,
                                           String endpoint,
                                           Map<String, String> headers) {
@@ -59,7 +76,86 @@ public final class ApiCalls {
                                           Map<String, String> params,
                                           Map<String, String> pathParams,
                                           Object body) {
+        long startedAt = System.nanoTime();
+        int statusCode = 0;
+        try {
+            Response response = ExchangeCapture.isReplaying() ? ExchangeCapture.replay(
+                    method,
+                    endpoint,
+                    headers,
+                    params,
+                    pathParams,
+                    body
+            ) : executeRequestOnEngine(
+                    method,
+                    endpoint,
+                    headers,
+                    params,
+                    pathParams,
+                    body
+            );
+            statusCode = response.statusCode();
+            if (ExchangeCapture.isCapturing()) {
+                ExchangeCapture.capture(
+                        method,
+                        endpoint,
+                        headers,
+                        params,
+                        pathParams,
+                        body,
+                        response,
+                        startedAt,
+                        System.nanoTime() - startedAt
+                );
+            }
+            return response;
+        } finally {
+            EndpointLatencyRecorder.record(
+                    method,
+                    endpoint,
+                    statusCode,
+                    System.nanoTime() - startedAt
+            );
+        }
+    }
+
+    private static Response executeRequestOnEngine(RequestMethods method,
+                                                   String endpoint,
+                                                   Map<String, String> headers,
+                                                   Map<String, String> params,
+                                                   Map<String, String> pathParams,
+                                                   Object body) {
+        return switch (engine) {
+            case REST_ASSURED -> executeRestAssuredRequest(
+                    method,
+                    endpoint,
+                    headers,
+                    params,
+                    pathParams,
+                    body
+            );
+            case JAVA_HTTP_CLIENT -> JavaHttpClientEngine.executeRequest(
+                    method,
+                    endpoint,
+                    headers,
+                    params,
+                    pathParams,
+                    body
+            );
+        };
+    }
+
+    private static Response executeRestAssuredRequest(RequestMethods method,
+                                                      String endpoint,
+                                                      Map<String, String> headers,
+                                                      Map<String, String> params,
+                                                      Map<String, String> pathParams,
+                                                      Object body) {
         RequestSpecification spec = given();
+        long remainingTimeoutMillis = remainingTimeoutMillis();
+        if (remainingTimeoutMillis > 0) {
+            spec.config(withTimeout(remainingTimeoutMillis));
+        }
         if (headers != null) {
             headers.forEach(spec::header);
         }
@@ -75,6 +171,15 @@ public final class ApiCalls {
         return executeMethod(method, spec, endpoint);
     }
 
+    private static RestAssuredConfig withTimeout(long timeoutMillis) {
+        int timeout = (int) Math.min(timeoutMillis, Integer.MAX_VALUE);
+        RestAssuredConfig config = RestAssured.config();
+        return config.httpClient(config.getHttpClientConfig()
+                .setParam("http.connection.timeout", timeout)
+                .setParam("http.socket.timeout", timeout)
+                .setParam("http.conn-manager.timeout", (long) timeout));
+    }
+
     private static void processBody(RequestSpecification spec,
                                     Object body) {
         if (body instanceof File) {
@@ -5,9 +5,11 @@ import io.restassured.response.Response;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
 import static org.vimal.api.ApiCalls.executeRequest;
+import static org.vimal.api.Common.callAsync;
 import static org.vimal.api.Common.waitForResponse;
 import static org.vimal.constants.Common.AUTHORIZATION;
 import static org.vimal.constants.Common.BEARER;
@@ -20,7 +22,15 @@ public final class AuthenticationCalls {
 
     public static Response login(String usernameOrEmail,
                                  String password) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(loginAsync(
+                usernameOrEmail,
+                password
+        ));
+    }
+
+    public static CompletableFuture<Response> loginAsync(String usernameOrEmail,
+                                                         String password) {
+        return callAsync(() -> executeRequest(
                         POST,
                         AUTH + "/login",
                         null,
@@ -33,7 +43,11 @@ public final class AuthenticationCalls {
     }
 
     public static Response logout(String accessToken) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(logoutAsync(accessToken));
+    }
+
+    public static CompletableFuture<Response> logoutAsync(String accessToken) {
+        return callAsync(() -> executeRequest(
                         POST,
                         AUTH + "/logout",
                         Map.of(AUTHORIZATION, BEARER + accessToken)
@@ -43,7 +57,15 @@ public final class AuthenticationCalls {
 
     public static Response logoutFromDevices(String accessToken,
                                              Set<String> deviceIds) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(logoutFromDevicesAsync(
+                accessToken,
+                deviceIds
+        ));
+    }
+
+    public static CompletableFuture<Response> logoutFromDevicesAsync(String accessToken,
+                                                                     Set<String> deviceIds) {
+        return callAsync(() -> executeRequest(
                         POST,
                         AUTH + "/logout/fromDevices",
                         Map.of(AUTHORIZATION, BEARER + accessToken),
@@ -55,7 +77,11 @@ public final class AuthenticationCalls {
     }
 
     public static Response logoutAllDevices(String accessToken) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(logoutAllDevicesAsync(accessToken));
+    }
+
+    public static CompletableFuture<Response> logoutAllDevicesAsync(String accessToken) {
+        return callAsync(() -> executeRequest(
                         POST,
                         AUTH + "/logout/allDevices",
                         Map.of(AUTHORIZATION, BEARER + accessToken)
@@ -64,7 +90,11 @@ public final class AuthenticationCalls {
     }
 
     public static Response refreshAccessToken(String refreshToken) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(refreshAccessTokenAsync(refreshToken));
+    }
+
+    public static CompletableFuture<Response> refreshAccessTokenAsync(String refreshToken) {
+        return callAsync(() -> executeRequest(
                         POST,
                         AUTH + "/refresh/accessToken",
                         null,
@@ -74,7 +104,11 @@ public final class AuthenticationCalls {
     }
 
     public static Response revokeAccessToken(String accessToken) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(revokeAccessTokenAsync(accessToken));
+    }
+
+    public static CompletableFuture<Response> revokeAccessTokenAsync(String accessToken) {
+        return callAsync(() -> executeRequest(
                         POST,
                         AUTH + "/revoke/accessToken",
                         Map.of(AUTHORIZATION, BEARER + accessToken)
@@ -83,7 +117,11 @@ public final class AuthenticationCalls {
     }
 
     public static Response revokeRefreshToken(String refreshToken) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(revokeRefreshTokenAsync(refreshToken));
+    }
+
+    public static CompletableFuture<Response> revokeRefreshTokenAsync(String refreshToken) {
+        return callAsync(() -> executeRequest(
                         POST,
                         AUTH + "/revoke/refreshToken",
                         null,
@@ -95,7 +133,17 @@ public final class AuthenticationCalls {
     public static Response requestToToggleMfa(String accessToken,
                                               String type,
                                               String toggle) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(requestToToggleMfaAsync(
+                accessToken,
+                type,
+                toggle
+        ));
+    }
+
+    public static CompletableFuture<Response> requestToToggleMfaAsync(String accessToken,
+                                                                      String type,
+                                                                      String toggle) {
+        return callAsync(() -> executeRequest(
                         POST,
                         AUTH + "/mfa/requestTo/toggle",
                         Map.of(AUTHORIZATION, BEARER + accessToken),
@@ -111,7 +159,19 @@ public final class AuthenticationCalls {
                                            String type,
                                            String toggle,
                                            String otpTotp) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(verifyToggleMfaAsync(
+                accessToken,
+                type,
+                toggle,
+                otpTotp
+        ));
+    }
+
+    public static CompletableFuture<Response> verifyToggleMfaAsync(String accessToken,
+                                                                   String type,
+                                                                   String toggle,
+                                                                   String otpTotp) {
+        return callAsync(() -> executeRequest(
                         POST,
                         AUTH + "/mfa/verifyTo/toggle",
                         Map.of(AUTHORIZATION, BEARER + accessToken),
@@ -127,7 +187,17 @@ public final class AuthenticationCalls {
     public static Response verifyMfaToLogin(String type,
                                             String stateToken,
                                             String otpTotp) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(verifyMfaToLoginAsync(
+                type,
+                stateToken,
+                otpTotp
+        ));
+    }
+
+    public static CompletableFuture<Response> verifyMfaToLoginAsync(String type,
+                                                                    String stateToken,
+                                                                    String otpTotp) {
+        return callAsync(() -> executeRequest(
                         POST,
                         AUTH + "/mfa/verifyTo/login",
                         null,
@@ -2,10 +2,7 @@ package org.vimal.api;
 
 import io.restassured.response.Response;
 
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.*;
 import java.util.function.Supplier;
 
 public final class Common {
@@ -13,24 +10,133 @@ public final class Common {
     }
 
     private static final long DEFAULT_TIMEOUT_SECONDS = 30;
+    private static final String API_CALL_EXECUTOR_PROPERTY = "api.call.executor";
+    private static final ThreadLocal<Long> DEADLINE_NANOS = new ThreadLocal<>();
+    private static volatile Executor apiCallExecutor = buildApiCallExecutor(System.getProperty(API_CALL_EXECUTOR_PROPERTY, "virtual"));
+
+    private static Executor buildApiCallExecutor(String type) {
+        return switch (type) {
+            case "virtual" -> Executors.newVirtualThreadPerTaskExecutor();
+            case "common" -> ForkJoinPool.commonPool();
+            default -> Executors.newFixedThreadPool(
+                    Integer.parseInt(type),
+                    Thread.ofPlatform()
+                            .name("api-call-", 0)
+                            .daemon(true)
+                            .factory()
+            );
+        };
+    }
+
+    public static Executor getApiCallExecutor() {
+        return apiCallExecutor;
+    }
+
+    public static void setApiCallExecutor(Executor executor) {
+        apiCallExecutor = executor;
+    }
 
     public static Response waitForResponse(Supplier<Response> apiCall) throws ExecutionException, InterruptedException {
-        return waitForResponse(
+        return waitForResponse(callAsync(apiCall));
+    }
+
+    public static Response waitForResponse(CompletableFuture<Response> apiCall) throws ExecutionException, InterruptedException {
+        try {
+            return apiCall.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof TimeoutException) {
+                throw new AssertionError("API call timed out after " + DEFAULT_TIMEOUT_SECONDS + " seconds", ex.getCause());
+            }
+            throw ex;
+        } catch (InterruptedException ex) {
+            apiCall.cancel(true);
+            throw ex;
+        }
+    }
+
+    public static CompletableFuture<Response> callAsync(Supplier<Response> apiCall) {
+        return callAsync(
                 apiCall,
                 DEFAULT_TIMEOUT_SECONDS
         );
     }
 
-    private static Response waitForResponse(Supplier<Response> apiCall,
-                                            long timeOutSeconds) throws ExecutionException, InterruptedException {
-        try {
-            return CompletableFuture.supplyAsync(apiCall)
-                    .get(
-                            timeOutSeconds,
-                            TimeUnit.SECONDS
-                    );
-        } catch (TimeoutException ex) {
-            throw new AssertionError("API call timed out after " + timeOutSeconds + " seconds", ex);
+    private static CompletableFuture<Response> callAsync(Supplier<Response> apiCall,
+                                                         long timeOutSeconds) {
+        ApiCallTask task = new ApiCallTask(
+                apiCall,
+                TimeUnit.SECONDS.toNanos(timeOutSeconds)
+        );
+        CompletableFuture<Response> future = CompletableFuture.supplyAsync(
+                        task,
+                        apiCallExecutor
+                )
+                .orTimeout(
+                        timeOutSeconds,
+                        TimeUnit.SECONDS
+                );
+        future.whenComplete((response, ex) -> {
+            if (ex instanceof TimeoutException ||
+                    ex instanceof CancellationException) {
+                task.cancel();
+            }
+        });
+        return future;
+    }
+
+    static long remainingTimeoutMillis() {
+        Long deadlineNanos = DEADLINE_NANOS.get();
+        if (deadlineNanos == null) {
+            return -1;
+        }
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+    }
+
+    private static final class ApiCallTask implements Supplier<Response> {
+        private final Supplier<Response> apiCall;
+        private final long submittedAt;
+        private final long deadlineNanos;
+        private Thread runner;
+        private boolean cancelled;
+
+        private ApiCallTask(Supplier<Response> apiCall,
+                            long timeOutNanos) {
+            this.apiCall = apiCall;
+            this.submittedAt = System.nanoTime();
+            this.deadlineNanos = submittedAt + timeOutNanos;
+        }
+
+        @Override
+        public Response get() {
+            long startedAt = System.nanoTime();
+            synchronized (this) {
+                if (cancelled) {
+                    throw new CancellationException("API call cancelled before it started");
+                }
+                runner = Thread.currentThread();
+            }
+            DEADLINE_NANOS.set(deadlineNanos);
+            try {
+                return apiCall.get();
+            } finally {
+                DEADLINE_NANOS.remove();
+                synchronized (this) {
+                    runner = null;
+                }
+                Thread.interrupted();
+                ApiCallMetrics.record(
+                        startedAt - submittedAt,
+                        System.nanoTime() - startedAt
+                );
+            }
+        }
+
+        private synchronized void cancel() {
+            cancelled = true;
+            if (runner != null) {
+                runner.interrupt();
+                ApiCallMetrics.recordCancellation();
+            }
         }
     }
 }
@@ -0,0 +1,96 @@
+package org.vimal.api;
+
+import lombok.extern.slf4j.Slf4j;
+import org.vimal.enums.RequestMethods;
+import org.vimal.utils.LatencyHistogram;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public final class EndpointLatencyRecorder {
+    private EndpointLatencyRecorder() {
+    }
+
+    private static final Path DEFAULT_REPORT_FILE = Path.of("target", "latency-report.csv");
+    private static final Map<EndpointKey, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+    private static final long STARTED_AT_NANOS = System.nanoTime();
+
+    public record EndpointKey(RequestMethods method,
+                              String endpoint,
+                              int statusCode) {
+    }
+
+    static void record(RequestMethods method,
+                       String endpoint,
+                       int statusCode,
+                       long elapsedNanos) {
+        HISTOGRAMS.computeIfAbsent(
+                        new EndpointKey(method, endpoint, statusCode),
+                        key -> new LatencyHistogram()
+                )
+                .record(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+    }
+
+    public static Map<EndpointKey, LatencyHistogram> getHistograms() {
+        return Map.copyOf(HISTOGRAMS);
+    }
+
+    public static void logReport() {
+        logReport(DEFAULT_REPORT_FILE);
+    }
+
+    public static void logReport(Path reportFile) {
+        if (HISTOGRAMS.isEmpty()) {
+            return;
+        }
+        double elapsedSeconds = (System.nanoTime() - STARTED_AT_NANOS) / 1_000_000_000.0;
+        List<Map.Entry<EndpointKey, LatencyHistogram>> entries = HISTOGRAMS.entrySet()
+                .stream()
+                .sorted(Comparator.comparing((Map.Entry<EndpointKey, LatencyHistogram> entry) -> entry.getKey().endpoint())
+                        .thenComparing(entry -> entry.getKey().method())
+                        .thenComparingInt(entry -> entry.getKey().statusCode()))
+                .toList();
+        log.info(String.format(Locale.ROOT, "%-7s %-45s %6s %8s %10s %10s %10s %10s %10s %10s", "METHOD", "ENDPOINT", "STATUS", "COUNT", "P50_MS", "P90_MS", "P99_MS", "P99.9_MS", "MAX_MS", "REQ/S"));
+        try {
+            Files.createDirectories(reportFile.toAbsolutePath()
+                    .getParent());
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(reportFile))) {
+                writer.println("method,endpoint,status,count,p50_ms,p90_ms,p99_ms,p99_9_ms,max_ms,throughput_per_second");
+                for (Map.Entry<EndpointKey, LatencyHistogram> entry : entries) {
+                    EndpointKey key = entry.getKey();
+                    LatencyHistogram histogram = entry.getValue();
+                    Object[] row = {
+                            key.method(),
+                            key.endpoint(),
+                            key.statusCode(),
+                            histogram.getTotalCount(),
+                            toMillis(histogram.getValueAtPercentile(50)),
+                            toMillis(histogram.getValueAtPercentile(90)),
+                            toMillis(histogram.getValueAtPercentile(99)),
+                            toMillis(histogram.getValueAtPercentile(99.9)),
+                            toMillis(histogram.getMax()),
+                            histogram.getTotalCount() / elapsedSeconds
+                    };
+                    log.info(String.format(Locale.ROOT, "%-7s %-45s %6d %8d %10.3f %10.3f %10.3f %10.3f %10.3f %10.2f", row));
+                    writer.println(String.format(Locale.ROOT, "%s,%s,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.2f", row));
+                }
+            }
+            log.info("Latency report written to '{}'", reportFile.toAbsolutePath());
+        } catch (IOException ex) {
+            log.warn("Could not write latency report to '{}'", reportFile, ex);
+        }
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+}
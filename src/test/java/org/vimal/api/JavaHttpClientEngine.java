@@ -0,0 +1,157 @@
+package org.vimal.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.RestAssured;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.SpecificationQuerier;
+import org.vimal.enums.RequestMethods;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.vimal.api.Common.remainingTimeoutMillis;
+
+public final class JavaHttpClientEngine {
+    private JavaHttpClientEngine() {
+    }
+
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public static Response executeRequest(RequestMethods method,
+                                          String endpoint,
+                                          Map<String, String> headers,
+                                          Map<String, String> params,
+                                          Map<String, String> pathParams,
+                                          Object body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(buildUri(endpoint, params, pathParams));
+        if (RestAssured.requestSpecification != null) {
+            for (Header header : SpecificationQuerier.query(RestAssured.requestSpecification)
+                    .getHeaders()) {
+                builder.setHeader(header.getName(), header.getValue());
+            }
+        }
+        if (headers != null) {
+            headers.forEach(builder::setHeader);
+        }
+        long remainingTimeoutMillis = remainingTimeoutMillis();
+        if (remainingTimeoutMillis > 0) {
+            builder.timeout(Duration.ofMillis(remainingTimeoutMillis));
+        }
+        try {
+            builder.method(method.name(), processBody(builder, body));
+            return toResponse(HTTP_CLIENT.send(
+                    builder.build(),
+                    HttpResponse.BodyHandlers.ofByteArray()
+            ));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("API call interrupted", ex);
+        }
+    }
+
+    private static URI buildUri(String endpoint,
+                                Map<String, String> params,
+                                Map<String, String> pathParams) {
+        StringBuilder uri = new StringBuilder(RestAssured.baseURI);
+        appendPath(uri, RestAssured.basePath);
+        if (pathParams != null) {
+            for (Map.Entry<String, String> pathParam : pathParams.entrySet()) {
+                endpoint = endpoint.replace("{" + pathParam.getKey() + "}", encode(pathParam.getValue()));
+            }
+        }
+        appendPath(uri, endpoint);
+        if (params != null &&
+                !params.isEmpty()) {
+            char separator = '?';
+            for (Map.Entry<String, String> param : params.entrySet()) {
+                uri.append(separator)
+                        .append(encode(param.getKey()))
+                        .append('=')
+                        .append(encode(param.getValue()));
+                separator = '&';
+            }
+        }
+        return URI.create(uri.toString());
+    }
+
+    private static void appendPath(StringBuilder uri,
+                                   String path) {
+        if (path == null ||
+                path.isEmpty()) {
+            return;
+        }
+        if (uri.charAt(uri.length() - 1) == '/') {
+            uri.setLength(uri.length() - 1);
+        }
+        if (path.charAt(0) != '/') {
+            uri.append('/');
+        }
+        uri.append(path);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, UTF_8)
+                .replace("+", "%20");
+    }
+
+    private static HttpRequest.BodyPublisher processBody(HttpRequest.Builder builder,
+                                                         Object body) throws IOException {
+        if (body == null) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        if (body instanceof File file) {
+            String boundary = UUID.randomUUID().toString();
+            builder.setHeader("Content-Type", "multipart/form-data; boundary=" + boundary);
+            return HttpRequest.BodyPublishers.concat(
+                    HttpRequest.BodyPublishers.ofString("--" + boundary + "\r\n" +
+                            "Content-Disposition: form-data; name=\"file\"; filename=\"" + file.getName() + "\"\r\n" +
+                            "Content-Type: application/octet-stream\r\n\r\n"),
+                    HttpRequest.BodyPublishers.ofFile(file.toPath()),
+                    HttpRequest.BodyPublishers.ofString("\r\n--" + boundary + "--\r\n")
+            );
+        }
+        builder.setHeader("Content-Type", "application/json; charset=UTF-8");
+        return HttpRequest.BodyPublishers.ofByteArray(OBJECT_MAPPER.writeValueAsBytes(body));
+    }
+
+    private static Response toResponse(HttpResponse<byte[]> response) {
+        List<Header> headers = new ArrayList<>();
+        response.headers()
+                .map()
+                .forEach((name, values) -> {
+                    if (!name.startsWith(":")) {
+                        values.forEach(value -> headers.add(new Header(name, value)));
+                    }
+                });
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(response.statusCode())
+                .setStatusLine((response.version() == HttpClient.Version.HTTP_2 ? "HTTP/2 " : "HTTP/1.1 ") + response.statusCode())
+                .setHeaders(new Headers(headers))
+                .setBody(response.body());
+        response.headers()
+                .firstValue("Content-Type")
+                .ifPresent(builder::setContentType);
+        return builder.build();
+    }
+}
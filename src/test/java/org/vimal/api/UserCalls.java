@@ -4,9 +4,11 @@ import io.restassured.response.Response;
 import org.vimal.dtos.UserDto;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
 import static org.vimal.api.ApiCalls.executeRequest;
+import static org.vimal.api.Common.callAsync;
 import static org.vimal.api.Common.waitForResponse;
 import static org.vimal.constants.Common.AUTHORIZATION;
 import static org.vimal.constants.Common.BEARER;
@@ -18,7 +20,11 @@ public final class UserCalls {
     }
 
     public static Response register(UserDto user) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(registerAsync(user));
+    }
+
+    public static CompletableFuture<Response> registerAsync(UserDto user) {
+        return callAsync(() -> executeRequest(
                         POST,
                         USER + "/register",
                         null,
@@ -30,7 +36,11 @@ public final class UserCalls {
     }
 
     public static Response getSelfDetails(String accessToken) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(getSelfDetailsAsync(accessToken));
+    }
+
+    public static CompletableFuture<Response> getSelfDetailsAsync(String accessToken) {
+        return callAsync(() -> executeRequest(
                         GET,
                         USER + "/getSelfDetails",
                         Map.of(AUTHORIZATION, BEARER + accessToken)
@@ -39,7 +49,11 @@ public final class UserCalls {
     }
 
     public static Response verifyEmail(String emailVerificationToken) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(verifyEmailAsync(emailVerificationToken));
+    }
+
+    public static CompletableFuture<Response> verifyEmailAsync(String emailVerificationToken) {
+        return callAsync(() -> executeRequest(
                         POST,
                         USER + "/verifyEmail",
                         null,
@@ -49,7 +63,11 @@ public final class UserCalls {
     }
 
     public static Response resendEmailVerificationLink(String usernameOrEmail) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(resendEmailVerificationLinkAsync(usernameOrEmail));
+    }
+
+    public static CompletableFuture<Response> resendEmailVerificationLinkAsync(String usernameOrEmail) {
+        return callAsync(() -> executeRequest(
                         POST,
                         USER + "/resend/emailVerification/link",
                         null,
@@ -59,7 +77,11 @@ public final class UserCalls {
     }
 
     public static Response forgotPassword(String usernameOrEmail) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(forgotPasswordAsync(usernameOrEmail));
+    }
+
+    public static CompletableFuture<Response> forgotPasswordAsync(String usernameOrEmail) {
+        return callAsync(() -> executeRequest(
                         POST,
                         USER + "/forgot/password",
                         null,
@@ -69,7 +91,11 @@ public final class UserCalls {
     }
 
     public static Response resetPassword(Map<String, String> body) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(resetPasswordAsync(body));
+    }
+
+    public static CompletableFuture<Response> resetPasswordAsync(Map<String, String> body) {
+        return callAsync(() -> executeRequest(
                         POST,
                         USER + "/reset/password",
                         null,
@@ -82,7 +108,15 @@ public final class UserCalls {
 
     public static Response changePassword(String accessToken,
                                           Map<String, String> body) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(changePasswordAsync(
+                accessToken,
+                body
+        ));
+    }
+
+    public static CompletableFuture<Response> changePasswordAsync(String accessToken,
+                                                                  Map<String, String> body) {
+        return callAsync(() -> executeRequest(
                         POST,
                         USER + "/change/password",
                         Map.of(AUTHORIZATION, BEARER + accessToken),
@@ -95,7 +129,15 @@ public final class UserCalls {
 
     public static Response verifyChangePassword(String accessToken,
                                                 Map<String, String> body) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(verifyChangePasswordAsync(
+                accessToken,
+                body
+        ));
+    }
+
+    public static CompletableFuture<Response> verifyChangePasswordAsync(String accessToken,
+                                                                        Map<String, String> body) {
+        return callAsync(() -> executeRequest(
                         POST,
                         USER + "/verify/change/password",
                         Map.of(AUTHORIZATION, BEARER + accessToken),
@@ -108,7 +150,15 @@ public final class UserCalls {
 
     public static Response emailChangeRequest(String accessToken,
                                               String newEmail) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(emailChangeRequestAsync(
+                accessToken,
+                newEmail
+        ));
+    }
+
+    public static CompletableFuture<Response> emailChangeRequestAsync(String accessToken,
+                                                                      String newEmail) {
+        return callAsync(() -> executeRequest(
                         POST,
                         USER + "/email/change/request",
                         Map.of(AUTHORIZATION, BEARER + accessToken),
@@ -121,7 +171,19 @@ public final class UserCalls {
                                              String newEmailOtp,
                                              String oldEmailOtp,
                                              String password) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(verifyEmailChangeAsync(
+                accessToken,
+                newEmailOtp,
+                oldEmailOtp,
+                password
+        ));
+    }
+
+    public static CompletableFuture<Response> verifyEmailChangeAsync(String accessToken,
+                                                                     String newEmailOtp,
+                                                                     String oldEmailOtp,
+                                                                     String password) {
+        return callAsync(() -> executeRequest(
                         POST,
                         USER + "/verify/email/change",
                         Map.of(AUTHORIZATION, BEARER + accessToken),
@@ -136,7 +198,15 @@ public final class UserCalls {
 
     public static Response deleteAccount(String accessToken,
                                          String password) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(deleteAccountAsync(
+                accessToken,
+                password
+        ));
+    }
+
+    public static CompletableFuture<Response> deleteAccountAsync(String accessToken,
+                                                                 String password) {
+        return callAsync(() -> executeRequest(
                         DELETE,
                         USER + "/delete/account",
                         Map.of(AUTHORIZATION, BEARER + accessToken),
@@ -148,7 +218,17 @@ public final class UserCalls {
     public static Response verifyDeleteAccount(String accessToken,
                                                String otpTotp,
                                                String method) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(verifyDeleteAccountAsync(
+                accessToken,
+                otpTotp,
+                method
+        ));
+    }
+
+    public static CompletableFuture<Response> verifyDeleteAccountAsync(String accessToken,
+                                                                       String otpTotp,
+                                                                       String method) {
+        return callAsync(() -> executeRequest(
                         DELETE,
                         USER + "/verify/delete/account",
                         Map.of(AUTHORIZATION, BEARER + accessToken),
@@ -162,7 +242,15 @@ public final class UserCalls {
 
     public static Response updateDetails(String accessToken,
                                          Map<String, String> body) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(updateDetailsAsync(
+                accessToken,
+                body
+        ));
+    }
+
+    public static CompletableFuture<Response> updateDetailsAsync(String accessToken,
+                                                                 Map<String, String> body) {
+        return callAsync(() -> executeRequest(
                         PUT,
                         USER + "/update/details",
                         Map.of(AUTHORIZATION, BEARER + accessToken),
@@ -174,7 +262,11 @@ public final class UserCalls {
     }
 
     public static Response getActiveDevices(String accessToken) throws ExecutionException, InterruptedException {
-        return waitForResponse(() -> executeRequest(
+        return waitForResponse(getActiveDevicesAsync(accessToken));
+    }
+
+    public static CompletableFuture<Response> getActiveDevicesAsync(String accessToken) {
+        return callAsync(() -> executeRequest(
                         GET,
                         USER + "/active/devices",
                         Map.of(AUTHORIZATION, BEARER + accessToken)
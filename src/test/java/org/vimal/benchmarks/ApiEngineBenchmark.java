@@ -0,0 +1,75 @@
+package org.vimal.benchmarks;
+
+import lombok.extern.slf4j.Slf4j;
+import org.testng.annotations.Test;
+import org.vimal.BaseTest;
+import org.vimal.dtos.UserDto;
+import org.vimal.enums.ApiEngines;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.vimal.api.ApiCalls.getEngine;
+import static org.vimal.api.ApiCalls.setEngine;
+import static org.vimal.api.AuthenticationCalls.getAccessToken;
+import static org.vimal.api.UserCalls.getSelfDetails;
+
+@Slf4j
+public class ApiEngineBenchmark extends BaseTest {
+    private static final int WARM_UP_REQUESTS = 200;
+    private static final int MEASURED_REQUESTS = 2000;
+    private static final int CONCURRENCY = 32;
+
+    @Test
+    public void test_Throughput_Of_Get_Self_Details_Rest_Assured_Vs_Java_Http_Client() throws ExecutionException, InterruptedException {
+        UserDto user = createTestUser();
+        String accessToken = getAccessToken(
+                user.getUsername(),
+                user.getPassword()
+        );
+        ApiEngines previousEngine = getEngine();
+        try {
+            for (ApiEngines engine : ApiEngines.values()) {
+                setEngine(engine);
+                sendGetSelfDetails(accessToken, WARM_UP_REQUESTS);
+                long startedAt = System.nanoTime();
+                sendGetSelfDetails(accessToken, MEASURED_REQUESTS);
+                double elapsedSeconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+                log.info(
+                        "Engine {}: {} requests with concurrency {} in {} s, throughput {} req/s",
+                        engine,
+                        MEASURED_REQUESTS,
+                        CONCURRENCY,
+                        String.format("%.3f", elapsedSeconds),
+                        String.format("%.1f", MEASURED_REQUESTS / elapsedSeconds)
+                );
+            }
+        } finally {
+            setEngine(previousEngine);
+        }
+    }
+
+    private static void sendGetSelfDetails(String accessToken,
+                                           int requests) throws ExecutionException, InterruptedException {
+        Semaphore permits = new Semaphore(CONCURRENCY);
+        List<Future<?>> futures = new ArrayList<>(requests);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                permits.acquire();
+                futures.add(executor.submit(() -> {
+                    try {
+                        getSelfDetails(accessToken).then()
+                                .statusCode(200);
+                        return null;
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.vimal.benchmarks;
+
+final class BenchmarkHelper {
+    private BenchmarkHelper() {
+    }
+
+    @FunctionalInterface
+    interface Iteration<E extends Exception> {
+        void run(int iteration) throws E;
+    }
+
+    // The warm-up iterations let the JIT compile the code under test before the clock starts, so the average covers
+    // steady state only. Each iteration gets its index, warm-up and measured runs both count from 0.
+    static <E extends Exception> double averageNanos(int warmUpIterations,
+                                                     int measuredIterations,
+                                                     Iteration<E> iteration) throws E {
+        for (int i = 0; i < warmUpIterations; i++) {
+            iteration.run(i);
+        }
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < measuredIterations; i++) {
+            iteration.run(i);
+        }
+        return (System.nanoTime() - startedAt) / (double) measuredIterations;
+    }
+}
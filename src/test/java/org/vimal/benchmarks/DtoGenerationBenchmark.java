@@ -0,0 +1,94 @@
+package org.vimal.benchmarks;
+
+import lombok.extern.slf4j.Slf4j;
+import org.testng.annotations.Test;
+import org.vimal.dtos.UserDto;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.testng.Assert.assertEquals;
+import static org.vimal.helpers.DtosHelper.createRandomUserDtos;
+import static org.vimal.utils.DateTimeUtility.getCurrentFormattedLocalTimeStamp;
+import static org.vimal.utils.RandomStringUtility.generateRandomStringAlphaNumeric;
+import static org.vimal.utils.UniqueIdUtility.nextUniqueId;
+
+@Slf4j
+public class DtoGenerationBenchmark {
+    private static final int USERS = 1_000_000;
+    private static final int IDS_PER_THREAD = 2_000_000;
+
+    @Test
+    public void test_Generation_Rate_Of_Timestamp_Random_Vs_Striped_Counter_Ids() throws InterruptedException {
+        createUsingTimestampAndRandom(USERS / 10);
+        createRandomUserDtos(USERS / 10);
+        long startedAt = System.nanoTime();
+        Set<UserDto> timestampUsers = createUsingTimestampAndRandom(USERS);
+        double timestampMillis = (System.nanoTime() - startedAt) / 1_000_000.0;
+        startedAt = System.nanoTime();
+        Set<UserDto> counterUsers = createRandomUserDtos(USERS);
+        double counterMillis = (System.nanoTime() - startedAt) / 1_000_000.0;
+        assertEquals(distinctUsernames(counterUsers), USERS);
+        log.info(
+                "{} users: timestamp + random {} ms ({} distinct usernames), striped counter ids {} ms, speedup x{}",
+                USERS,
+                String.format("%.0f", timestampMillis),
+                distinctUsernames(timestampUsers),
+                String.format("%.0f", counterMillis),
+                String.format("%.1f", timestampMillis / counterMillis)
+        );
+        int threads = Runtime.getRuntime()
+                .availableProcessors();
+        Set<String> ids = ConcurrentHashMap.newKeySet(threads * IDS_PER_THREAD);
+        startedAt = System.nanoTime();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int thread = 0; thread < threads; thread++) {
+                executor.execute(() -> {
+                    String[] generated = new String[IDS_PER_THREAD];
+                    for (int i = 0; i < IDS_PER_THREAD; i++) {
+                        generated[i] = nextUniqueId();
+                    }
+                    for (String id : generated) {
+                        ids.add(id);
+                    }
+                });
+            }
+        }
+        double idMillis = (System.nanoTime() - startedAt) / 1_000_000.0;
+        assertEquals(ids.size(), threads * IDS_PER_THREAD);
+        log.info(
+                "{} threads generated {} unique ids in {} ms including the uniqueness check",
+                threads,
+                ids.size(),
+                String.format("%.0f", idMillis)
+        );
+    }
+
+    private static Set<UserDto> createUsingTimestampAndRandom(int count) {
+        Set<UserDto> users = new HashSet<>();
+        String randomString;
+        for (int i = 0; i < count; i++) {
+            randomString = getCurrentFormattedLocalTimeStamp() + "_" + generateRandomStringAlphaNumeric();
+            users.add(UserDto.builder()
+                    .username("AutoTestUser_" + randomString)
+                    .email("user_" + randomString + "@example.com")
+                    .password("Password@1_" + randomString)
+                    .firstName("AutoTestUser")
+                    .emailVerified(true)
+                    .accountEnabled(true)
+                    .build());
+        }
+        return users;
+    }
+
+    private static int distinctUsernames(Set<UserDto> users) {
+        Set<String> usernames = HashSet.newHashSet(users.size());
+        for (UserDto user : users) {
+            usernames.add(user.getUsername());
+        }
+        return usernames.size();
+    }
+}
@@ -0,0 +1,176 @@
+package org.vimal.benchmarks;
+
+import jakarta.mail.*;
+import jakarta.mail.internet.MimeBodyPart;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.Jsoup;
+import org.testng.annotations.Test;
+import org.vimal.utils.MimeTextScanner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Random;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.testng.Assert.assertEquals;
+import static org.vimal.benchmarks.BenchmarkHelper.averageNanos;
+
+@Slf4j
+public class MailBodyExtractionBenchmark {
+    private static final int WARM_UP_ITERATIONS = 200;
+    private static final int MEASURED_ITERATIONS = 1000;
+    private static final Pattern UUID_PATTERN = Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[1-5][0-9a-fA-F]{3}-[89abAB][0-9a-fA-F]{3}-[0-9a-fA-F]{12}");
+    private static final Pattern OTP_PATTERN = Pattern.compile("\\b\\d{6}\\b");
+    private static final Session SESSION = Session.getInstance(new Properties());
+
+    @Test
+    public void test_Extraction_Time_Of_Jsoup_Dom_Vs_Streaming_Scan() throws Exception {
+        String token = UUID.randomUUID()
+                .toString();
+        String otp = "482913";
+        byte[][] templates = {
+                buildMail("Email verification", linkTemplate(token), false),
+                buildMail("Email verification", linkTemplate(token), true),
+                buildMail("Login OTP", otpTemplate(otp), true)
+        };
+        String[] names = {"verification link", "verification link + attachment", "OTP + attachment"};
+        for (int i = 0; i < templates.length; i++) {
+            byte[] template = templates[i];
+            String[] expected = extractUsingJsoupDom(parse(template));
+            assertEquals(MimeTextScanner.findFirstMatches(parse(template), UUID_PATTERN, OTP_PATTERN), expected);
+            double jsoupMicros = averageNanos(WARM_UP_ITERATIONS, MEASURED_ITERATIONS, ignored -> extractUsingJsoupDom(parse(template))) / 1_000;
+            double streamingMicros = averageNanos(WARM_UP_ITERATIONS, MEASURED_ITERATIONS, ignored -> MimeTextScanner.findFirstMatches(parse(template), UUID_PATTERN, OTP_PATTERN)) / 1_000;
+            log.info(
+                    "Template '{}' ({} bytes): Jsoup DOM {} us, streaming scan {} us, speedup x{}",
+                    names[i],
+                    template.length,
+                    String.format(Locale.ROOT, "%.1f", jsoupMicros),
+                    String.format(Locale.ROOT, "%.1f", streamingMicros),
+                    String.format(Locale.ROOT, "%.1f", jsoupMicros / streamingMicros)
+            );
+        }
+    }
+
+    private static String[] extractUsingJsoupDom(Message message) throws MessagingException, IOException {
+        String content = null;
+        Multipart multipart = (Multipart) message.getContent();
+        BodyPart bodyPart;
+        for (int i = 0; i < multipart.getCount() && content == null; i++) {
+            bodyPart = multipart.getBodyPart(i);
+            if (bodyPart.isMimeType("multipart/*")) {
+                bodyPart = ((Multipart) bodyPart.getContent()).getBodyPart(0);
+            }
+            if (bodyPart.isMimeType("text/html")) {
+                content = Jsoup.parse(bodyPart.getContent()
+                                .toString())
+                        .text();
+            }
+        }
+        if (content == null) {
+            throw new IllegalStateException("No html part");
+        }
+        Matcher uuidMatcher = UUID_PATTERN.matcher(content);
+        Matcher otpMatcher = OTP_PATTERN.matcher(content);
+        return new String[]{
+                uuidMatcher.find() ? uuidMatcher.group() : null,
+                otpMatcher.find() ? otpMatcher.group() : null
+        };
+    }
+
+    private static MimeMessage parse(byte[] mail) throws MessagingException {
+        return new MimeMessage(SESSION, new ByteArrayInputStream(mail));
+    }
+
+    private static byte[] buildMail(String subject,
+                                    String html,
+                                    boolean withAttachment) throws MessagingException, IOException {
+        MimeMessage message = new MimeMessage(SESSION);
+        message.setFrom("no-reply@example.com");
+        message.setRecipients(Message.RecipientType.TO, "test+benchmark@example.com");
+        message.setSubject(subject);
+        MimeMultipart related = new MimeMultipart("related");
+        MimeBodyPart htmlPart = new MimeBodyPart();
+        htmlPart.setContent(html, "text/html; charset=UTF-8");
+        related.addBodyPart(htmlPart);
+        MimeBodyPart logo = new MimeBodyPart();
+        logo.setContent(randomBytes(8 * 1024), "image/png");
+        logo.setContentID("<logo>");
+        logo.setDisposition(Part.INLINE);
+        related.addBodyPart(logo);
+        MimeMultipart mixed = new MimeMultipart("mixed");
+        MimeBodyPart relatedPart = new MimeBodyPart();
+        relatedPart.setContent(related);
+        mixed.addBodyPart(relatedPart);
+        if (withAttachment) {
+            MimeBodyPart attachment = new MimeBodyPart();
+            attachment.setContent(randomBytes(256 * 1024), "application/pdf");
+            attachment.setFileName("terms.pdf");
+            attachment.setDisposition(Part.ATTACHMENT);
+            mixed.addBodyPart(attachment);
+        }
+        message.setContent(mixed);
+        message.saveChanges();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        message.writeTo(out);
+        return out.toByteArray();
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static String linkTemplate(String token) {
+        return page("""
+                <h1 style="font-size:22px;color:#111827;">Verify your email address</h1>
+                <p style="font-size:15px;line-height:24px;">Thanks for signing up! Please confirm that this is your email address by clicking the button below.</p>
+                <table role="presentation" cellpadding="0" cellspacing="0"><tr><td style="border-radius:6px;background:#2563eb;">
+                <a href="https://example.com/verify?token=%s" style="display:inline-block;padding:12px 24px;color:#ffffff;text-decoration:none;">Verify email</a>
+                </td></tr></table>
+                <p style="font-size:13px;color:#6b7280;">Or paste this token into the app: <strong>%s</strong></p>
+                """.formatted(token, token));
+    }
+
+    private static String otpTemplate(String otp) {
+        return page("""
+                <h1 style="font-size:22px;color:#111827;">Your one&#8209;time code</h1>
+                <p style="font-size:15px;line-height:24px;">Use the code below to finish signing in. It expires in 10&nbsp;minutes.</p>
+                <table role="presentation" cellpadding="0" cellspacing="0"><tr>
+                <td style="font-size:32px;letter-spacing:8px;font-family:monospace;padding:16px 24px;background:#f3f4f6;border-radius:6px;">%s</td>
+                </tr></table>
+                <p style="font-size:13px;color:#6b7280;">If you didn&#39;t try to sign in, you can ignore this email &amp; your account stays safe.</p>
+                """.formatted(otp));
+    }
+
+    private static String page(String body) {
+        StringBuilder footer = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            footer.append("<tr><td style=\"font-size:11px;color:#9ca3af;padding:2px 0;\">You are receiving this email because an account was registered with this address. Support ticket reference #")
+                    .append(1000 + i)
+                    .append(". <a href=\"https://example.com/unsubscribe\" style=\"color:#9ca3af;\">Unsubscribe</a></td></tr>\n");
+        }
+        return """
+                <!DOCTYPE html>
+                <html lang="en"><head><meta charset="UTF-8"><title>Notification</title>
+                <style type="text/css">
+                body{margin:0;padding:0;background:#f9fafb;} table{border-collapse:collapse;} .btn > a{color:#fff;}
+                @media only screen and (max-width:600px){ .container{width:100%% !important;} }
+                </style></head>
+                <body><!-- preheader: do not reply 123456 -->
+                <table role="presentation" width="100%%" class="container"><tr><td align="center">
+                <img src="cid:logo" alt="Logo" width="120" height="40">
+                %s
+                </td></tr>
+                %s
+                </table></body></html>
+                """.formatted(body, footer);
+    }
+}
@@ -0,0 +1,91 @@
+package org.vimal.benchmarks;
+
+import com.google.zxing.*;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.annotations.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.vimal.benchmarks.BenchmarkHelper.averageNanos;
+import static org.vimal.utils.QrUtility.extractSecretFromByteArrayOfQrCode;
+import static org.vimal.utils.QrUtility.logDecodeStageSummary;
+
+@Slf4j
+public class QrDecodeBenchmark {
+    private static final int WARM_UP_ITERATIONS = 50;
+    private static final int MEASURED_ITERATIONS = 300;
+    private static final String SECRET = "JBSWY3DPEHPK3PXPJBSWY3DPEHPK3PXP";
+    private static final String TOTP_URL = "otpauth://totp/Auth%20Service:AutoTestUser_20261018?secret=" + SECRET + "&issuer=Auth%20Service&algorithm=SHA1&digits=6&period=30";
+
+    @Test
+    public void test_Decode_Time_Of_Try_Harder_Vs_Staged_Decoding() throws Exception {
+        byte[] cleanQrCode = cleanQrCode();
+        byte[] noisyQrCode = noisyQrCode();
+        for (Map.Entry<String, byte[]> qrCode : Map.of(
+                "clean server png", cleanQrCode,
+                "qr code inside a screenshot", noisyQrCode
+        ).entrySet()) {
+            assertEquals(extractSecretFromByteArrayOfQrCode(qrCode.getValue()), SECRET);
+            double tryHarderMicros = averageNanos(WARM_UP_ITERATIONS, MEASURED_ITERATIONS, ignored -> decodeUsingTryHarder(qrCode.getValue())) / 1_000;
+            double stagedMicros = averageNanos(WARM_UP_ITERATIONS, MEASURED_ITERATIONS, ignored -> extractSecretFromByteArrayOfQrCode(qrCode.getValue())) / 1_000;
+            log.info(
+                    "QR '{}' ({} bytes): ImageIO + hybrid + try harder {} us, staged {} us, speedup x{}",
+                    qrCode.getKey(),
+                    qrCode.getValue().length,
+                    String.format(Locale.ROOT, "%.1f", tryHarderMicros),
+                    String.format(Locale.ROOT, "%.1f", stagedMicros),
+                    String.format(Locale.ROOT, "%.1f", tryHarderMicros / stagedMicros)
+            );
+        }
+        logDecodeStageSummary();
+    }
+
+    private static String decodeUsingTryHarder(byte[] qrCode) throws IOException, NotFoundException {
+        Map<DecodeHintType, Object> hints = new EnumMap<>(DecodeHintType.class);
+        hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+        BufferedImage bufferedImage = ImageIO.read(new ByteArrayInputStream(qrCode));
+        return new MultiFormatReader().decode(
+                        new BinaryBitmap(new HybridBinarizer(new BufferedImageLuminanceSource(bufferedImage))),
+                        hints
+                )
+                .getText();
+    }
+
+    private static BitMatrix qrMatrix() throws WriterException {
+        return new QRCodeWriter().encode(TOTP_URL, BarcodeFormat.QR_CODE, 300, 300);
+    }
+
+    private static byte[] cleanQrCode() throws WriterException, IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MatrixToImageWriter.writeToStream(qrMatrix(), "PNG", out);
+        return out.toByteArray();
+    }
+
+    private static byte[] noisyQrCode() throws WriterException, IOException {
+        BufferedImage screenshot = new BufferedImage(640, 480, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = screenshot.createGraphics();
+        graphics.setPaint(new GradientPaint(0, 0, new Color(235, 235, 240), 640, 480, new Color(150, 150, 165)));
+        graphics.fillRect(0, 0, 640, 480);
+        graphics.setColor(Color.DARK_GRAY);
+        graphics.drawString("Scan this code with your authenticator app", 20, 30);
+        graphics.drawImage(MatrixToImageWriter.toBufferedImage(qrMatrix()), 170, 90, null);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(screenshot, "PNG", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,87 @@
+package org.vimal.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.annotations.Test;
+import org.vimal.dtos.UserDto;
+
+import java.util.*;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.vimal.benchmarks.BenchmarkHelper.averageNanos;
+import static org.vimal.enums.Roles.ROLE_MANAGE_USERS;
+import static org.vimal.helpers.DtosHelper.createRandomUserDto;
+import static org.vimal.helpers.ResponseValidatorHelper.validateResponseOfUsersCreationOrRead;
+
+@Slf4j
+public class ResponseValidationBenchmark {
+    private static final int WARM_UP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 20;
+    private static final String PATH_PREFIX = "found_users.";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Test
+    public void test_Validation_Time_Of_Gpath_Find_Vs_Single_Pass_Index() throws JsonProcessingException {
+        for (int batchSize : new int[]{34, 100}) {
+            Set<UserDto> users = new HashSet<>();
+            for (int i = 0; i < batchSize; i++) {
+                users.add(createRandomUserDto(Set.of(ROLE_MANAGE_USERS.name())));
+            }
+            Response response = buildReadUsersResponse(users);
+            UserDto reader = createRandomUserDto();
+            double gpathMillis = averageNanos(WARM_UP_ITERATIONS, MEASURED_ITERATIONS, ignored -> validateUsingGpathFind(response, users)) / 1_000_000;
+            double singlePassMillis = averageNanos(WARM_UP_ITERATIONS, MEASURED_ITERATIONS, ignored -> validateResponseOfUsersCreationOrRead(
+                    response,
+                    reader,
+                    users,
+                    200,
+                    PATH_PREFIX
+            )) / 1_000_000;
+            log.info(
+                    "Batch size {}: GPath find {} ms, single pass index {} ms, speedup x{}",
+                    batchSize,
+                    String.format(Locale.ROOT, "%.3f", gpathMillis),
+                    String.format(Locale.ROOT, "%.3f", singlePassMillis),
+                    String.format(Locale.ROOT, "%.1f", gpathMillis / singlePassMillis)
+            );
+        }
+    }
+
+    private static Response buildReadUsersResponse(Set<UserDto> users) throws JsonProcessingException {
+        List<Map<String, Object>> records = new ArrayList<>();
+        for (UserDto user : users) {
+            Map<String, Object> record = new HashMap<>();
+            record.put("username", user.getUsername());
+            record.put("email", user.getEmail());
+            record.put("firstName", user.getFirstName());
+            record.put("middleName", user.getMiddleName());
+            record.put("lastName", user.getLastName());
+            record.put("roles", user.getRoles());
+            records.add(record);
+        }
+        return new ResponseBuilder()
+                .setStatusCode(200)
+                .setStatusLine("HTTP/1.1 200")
+                .setContentType("application/json")
+                .setBody(OBJECT_MAPPER.writeValueAsBytes(Map.of("found_users", records)))
+                .build();
+    }
+
+    private static void validateUsingGpathFind(Response response,
+                                               Set<UserDto> users) {
+        String findPath;
+        for (UserDto user : users) {
+            findPath = PATH_PREFIX + "find { it.username == '" + user.getUsername() + "' }.";
+            response.then()
+                    .body(findPath + "email", equalTo(user.getEmail()))
+                    .body(findPath + "firstName", equalTo(user.getFirstName()))
+                    .body(findPath + "middleName", equalTo(user.getMiddleName()))
+                    .body(findPath + "lastName", equalTo(user.getLastName()))
+                    .body(findPath + "roles", containsInAnyOrder(user.getRoles().toArray()));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.vimal.benchmarks;
+
+import com.eatthepath.otp.TimeBasedOneTimePasswordGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Base32;
+import org.testng.annotations.Test;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.security.InvalidKeyException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+
+import static org.testng.Assert.assertEquals;
+import static org.vimal.benchmarks.BenchmarkHelper.averageNanos;
+import static org.vimal.utils.TotpUtility.generateTotp;
+import static org.vimal.utils.TotpUtility.getTimeStepMillis;
+
+@Slf4j
+public class TotpBenchmark {
+    private static final int WARM_UP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 200_000;
+    private static final String SECRET = "JBSWY3DPEHPK3PXPJBSWY3DPEHPK3PXP";
+    private static final TimeBasedOneTimePasswordGenerator TOTP_GENERATOR = new TimeBasedOneTimePasswordGenerator(Duration.ofMillis(getTimeStepMillis()));
+
+    @Test
+    public void test_Generation_Time_Of_Decode_Per_Call_Vs_Cached_Key() throws InvalidKeyException {
+        Instant start = Instant.parse("2026-01-01T00:00:00Z");
+        Instant timestamp;
+        for (int step = 0; step < 1_000; step++) {
+            timestamp = start.plusSeconds(30L * step + step % 30);
+            assertEquals(generateTotp(SECRET, timestamp), generateUsingDecodePerCall(timestamp));
+        }
+        double decodePerCallNanos = averageNanos(WARM_UP_ITERATIONS, MEASURED_ITERATIONS, i -> generateUsingDecodePerCall(start.plusMillis(i)));
+        double cachedNanos = averageNanos(WARM_UP_ITERATIONS, MEASURED_ITERATIONS, i -> generateTotp(SECRET, start.plusMillis(i)));
+        log.info(
+                "Totp generation: decode per call {} ns, cached key & window codes {} ns, speedup x{}",
+                String.format(Locale.ROOT, "%.0f", decodePerCallNanos),
+                String.format(Locale.ROOT, "%.0f", cachedNanos),
+                String.format(Locale.ROOT, "%.1f", decodePerCallNanos / cachedNanos)
+        );
+    }
+
+    private static String generateUsingDecodePerCall(Instant timestamp) throws InvalidKeyException {
+        return TOTP_GENERATOR.generateOneTimePasswordString(
+                new SecretKeySpec(
+                        new Base32().decode(SECRET),
+                        TOTP_GENERATOR.getAlgorithm()
+                ),
+                timestamp
+        );
+    }
+}
@@ -0,0 +1,63 @@
+package org.vimal.capture;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+import static org.vimal.capture.CaptureLogWriter.*;
+
+public record CaptureLog(long startedAtEpochMillis,
+                         String runPrefix,
+                         List<CapturedExchange> exchanges) {
+    public static CaptureLog read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            long size = channel.size();
+            if (size < FILE_HEADER_LENGTH) {
+                throw new IOException("'" + file + "' is not a capture log");
+            }
+            MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, 0, FILE_HEADER_LENGTH);
+            if (chunk.getLong(0) != MAGIC) {
+                throw new IOException("'" + file + "' is not a capture log");
+            }
+            long startedAtEpochMillis = chunk.getLong(8);
+            long chunkSize = chunk.getInt(16);
+            if (chunkSize <= FILE_HEADER_LENGTH ||
+                    chunkSize % 8 != 0) {
+                throw new IOException("Capture log '" + file + "' has an invalid chunk size " + chunkSize);
+            }
+            byte[] runPrefix = new byte[Math.min(chunk.getInt(20), MAX_RUN_PREFIX_LENGTH)];
+            chunk.get(24, runPrefix);
+            List<CapturedExchange> exchanges = new ArrayList<>();
+            long chunkIndex = -1;
+            long position = FILE_HEADER_LENGTH;
+            while (position + RECORD_HEADER_LENGTH <= size) {
+                if (position / chunkSize != chunkIndex) {
+                    chunkIndex = position / chunkSize;
+                    chunk = channel.map(FileChannel.MapMode.READ_ONLY, chunkIndex * chunkSize, Math.min(chunkSize, size - chunkIndex * chunkSize));
+                }
+                int offset = (int) (position % chunkSize);
+                int length = chunk.getInt(offset);
+                if (length < RECORD_HEADER_LENGTH ||
+                        offset + length > chunk.limit()) {
+                    break;
+                }
+                if (chunk.getInt(offset + 4) == EXCHANGE_RECORD) {
+                    exchanges.add(CapturedExchange.decode(chunk.slice(offset + RECORD_HEADER_LENGTH, length - RECORD_HEADER_LENGTH)));
+                }
+                position += align(length);
+            }
+            exchanges.sort(Comparator.comparingLong(CapturedExchange::startedAtNanos));
+            return new CaptureLog(
+                    startedAtEpochMillis,
+                    runPrefix.length == 0 ? null : new String(runPrefix, UTF_8),
+                    exchanges
+            );
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package org.vimal.capture;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.*;
+
+@Slf4j
+public final class CaptureLogWriter implements AutoCloseable {
+    static final long MAGIC = 0x4150_4943_4150_0002L;
+    static final int FILE_HEADER_LENGTH = 64;
+    static final int MAX_RUN_PREFIX_LENGTH = FILE_HEADER_LENGTH - 24;
+    static final int RECORD_HEADER_LENGTH = 8;
+    static final int EXCHANGE_RECORD = 1;
+    static final int PADDING_RECORD = 2;
+    static final int DEFAULT_CHUNK_SIZE = 64 << 20;
+    private static final VarHandle INT_VIEW = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private final Path file;
+    private final FileChannel channel;
+    private final long chunkSize;
+    private final Map<Long, MappedByteBuffer> chunks = new ConcurrentHashMap<>();
+    private final AtomicLong position = new AtomicLong(FILE_HEADER_LENGTH);
+    private final AtomicLong inFlight = new AtomicLong();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final long baseNanos = System.nanoTime();
+    private volatile boolean closed;
+
+    public CaptureLogWriter(Path file,
+                            String runPrefix) throws IOException {
+        this(file, runPrefix, DEFAULT_CHUNK_SIZE);
+    }
+
+    public CaptureLogWriter(Path file,
+                            String runPrefix,
+                            int chunkSize) throws IOException {
+        if (chunkSize <= FILE_HEADER_LENGTH ||
+                chunkSize % 8 != 0) {
+            throw new IllegalArgumentException("Chunk size " + chunkSize + " must be a multiple of 8 larger than " + FILE_HEADER_LENGTH);
+        }
+        byte[] prefix = runPrefix == null ? new byte[0] : runPrefix.getBytes(UTF_8);
+        if (prefix.length > MAX_RUN_PREFIX_LENGTH) {
+            throw new IllegalArgumentException("Run prefix '" + runPrefix + "' is longer than " + MAX_RUN_PREFIX_LENGTH + " bytes");
+        }
+        Path parent = file.toAbsolutePath()
+                .getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.file = file;
+        this.chunkSize = chunkSize;
+        this.channel = FileChannel.open(file, CREATE, TRUNCATE_EXISTING, READ, WRITE);
+        MappedByteBuffer first = chunk(0);
+        first.putLong(0, MAGIC);
+        first.putLong(8, System.currentTimeMillis());
+        first.putInt(16, chunkSize);
+        first.putInt(20, prefix.length);
+        first.put(24, prefix);
+    }
+
+    static long align(long length) {
+        return (length + 7) & ~7L;
+    }
+
+    public long getBaseNanos() {
+        return baseNanos;
+    }
+
+    public void append(CapturedExchange exchange) {
+        inFlight.incrementAndGet();
+        try {
+            if (closed) {
+                dropped.increment();
+                return;
+            }
+            byte[] payload = exchange.encode();
+            int length = RECORD_HEADER_LENGTH + payload.length;
+            long alignedLength = align(length);
+            if (alignedLength > chunkSize - FILE_HEADER_LENGTH) {
+                dropped.increment();
+                log.warn(
+                        "Dropping a captured {} {} exchange of {} bytes as it exceeds the capture log chunk size",
+                        exchange.method(),
+                        exchange.endpoint(),
+                        length
+                );
+                return;
+            }
+            long start = reserve(alignedLength);
+            MappedByteBuffer chunk = chunk(start / chunkSize);
+            int offset = (int) (start % chunkSize);
+            chunk.putInt(offset + 4, EXCHANGE_RECORD);
+            chunk.put(offset + RECORD_HEADER_LENGTH, payload);
+            INT_VIEW.setRelease(chunk, offset, length);
+            written.increment();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    // A record that does not fit in the rest of the chunk moves the position to the next chunk boundary first, so
+    // the padding record written by the winning thread covers exactly the skipped tail and no gap is left behind.
+    private long reserve(long alignedLength) {
+        long start;
+        long chunkEnd;
+        while (true) {
+            start = position.get();
+            chunkEnd = (start / chunkSize + 1) * chunkSize;
+            if (start + alignedLength <= chunkEnd) {
+                if (position.compareAndSet(start, start + alignedLength)) {
+                    return start;
+                }
+            } else if (position.compareAndSet(start, chunkEnd)) {
+                MappedByteBuffer chunk = chunk(start / chunkSize);
+                int offset = (int) (start % chunkSize);
+                chunk.putInt(offset + 4, PADDING_RECORD);
+                INT_VIEW.setRelease(chunk, offset, (int) (chunkEnd - start));
+            }
+        }
+    }
+
+    private MappedByteBuffer chunk(long index) {
+        return chunks.computeIfAbsent(index, key -> {
+            try {
+                return channel.map(FileChannel.MapMode.READ_WRITE, key * chunkSize, chunkSize);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not map chunk " + key + " of capture log '" + file + "'", ex);
+            }
+        });
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        while (inFlight.get() > 0) {
+            Thread.onSpinWait();
+        }
+        for (MappedByteBuffer chunk : chunks.values()) {
+            chunk.force();
+        }
+        long length = position.get();
+        channel.truncate(length);
+        channel.close();
+        log.info(
+                "Captured {} exchange(s) to '{}' ({} KB, {} dropped)",
+                written.sum(),
+                file,
+                length / 1024,
+                dropped.sum()
+        );
+    }
+}
@@ -0,0 +1,146 @@
+package org.vimal.capture;
+
+import io.restassured.http.Header;
+import org.vimal.enums.RequestMethods;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public record CapturedExchange(long startedAtNanos,
+                               long durationNanos,
+                               RequestMethods method,
+                               String endpoint,
+                               Map<String, String> headers,
+                               Map<String, String> params,
+                               Map<String, String> pathParams,
+                               byte bodyKind,
+                               byte[] body,
+                               int statusCode,
+                               String contentType,
+                               List<Header> responseHeaders,
+                               byte[] responseBody) {
+    public static final byte NO_BODY = 0;
+    public static final byte JSON_BODY = 1;
+    public static final byte FILE_BODY = 2;
+
+    byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + (body == null ? 0 : body.length) + (responseBody == null ? 0 : responseBody.length));
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(startedAtNanos);
+            out.writeLong(durationNanos);
+            out.writeInt(statusCode);
+            writeString(out, method.name());
+            writeString(out, endpoint);
+            writeMap(out, headers);
+            writeMap(out, params);
+            writeMap(out, pathParams);
+            out.writeByte(bodyKind);
+            writeBytes(out, body);
+            writeString(out, contentType);
+            out.writeInt(responseHeaders.size());
+            for (Header header : responseHeaders) {
+                writeString(out, header.getName());
+                writeString(out, header.getValue());
+            }
+            writeBytes(out, responseBody);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    static CapturedExchange decode(ByteBuffer in) {
+        long startedAtNanos = in.getLong();
+        long durationNanos = in.getLong();
+        int statusCode = in.getInt();
+        RequestMethods method = RequestMethods.valueOf(readString(in));
+        String endpoint = readString(in);
+        Map<String, String> headers = readMap(in);
+        Map<String, String> params = readMap(in);
+        Map<String, String> pathParams = readMap(in);
+        byte bodyKind = in.get();
+        byte[] body = readBytes(in);
+        String contentType = readString(in);
+        int responseHeaderCount = in.getInt();
+        List<Header> responseHeaders = new ArrayList<>(responseHeaderCount);
+        for (int i = 0; i < responseHeaderCount; i++) {
+            responseHeaders.add(new Header(readString(in), readString(in)));
+        }
+        return new CapturedExchange(
+                startedAtNanos,
+                durationNanos,
+                method,
+                endpoint,
+                headers,
+                params,
+                pathParams,
+                bodyKind,
+                body,
+                statusCode,
+                contentType,
+                responseHeaders,
+                readBytes(in)
+        );
+    }
+
+    private static void writeString(DataOutputStream out,
+                                    String value) throws IOException {
+        writeBytes(out, value == null ? null : value.getBytes(UTF_8));
+    }
+
+    private static void writeBytes(DataOutputStream out,
+                                   byte[] value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(value.length);
+        out.write(value);
+    }
+
+    private static void writeMap(DataOutputStream out,
+                                 Map<String, String> map) throws IOException {
+        if (map == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(map.size());
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            writeString(out, entry.getKey());
+            writeString(out, entry.getValue());
+        }
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = readBytes(in);
+        return bytes == null ? null : new String(bytes, UTF_8);
+    }
+
+    private static byte[] readBytes(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return bytes;
+    }
+
+    private static Map<String, String> readMap(ByteBuffer in) {
+        int size = in.getInt();
+        if (size < 0) {
+            return null;
+        }
+        Map<String, String> map = LinkedHashMap.newLinkedHashMap(size);
+        for (int i = 0; i < size; i++) {
+            map.put(readString(in), readString(in));
+        }
+        return map;
+    }
+}
@@ -0,0 +1,285 @@
+package org.vimal.capture;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import lombok.extern.slf4j.Slf4j;
+import org.vimal.enums.RequestMethods;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.vimal.utils.UniqueIdUtility.getRunPrefix;
+
+@Slf4j
+public final class ExchangeCapture {
+    private ExchangeCapture() {
+    }
+
+    private static final String CAPTURE_FILE_PROPERTY = "api.capture.file";
+    private static final String REPLAY_FILE_PROPERTY = "api.replay.file";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final CaptureLogWriter WRITER = openWriter(System.getProperty(CAPTURE_FILE_PROPERTY));
+    private static final Map<String, Queue<CapturedExchange>> REPLAY_QUEUES = loadReplayQueues(System.getProperty(REPLAY_FILE_PROPERTY));
+    private static final LongAdder REPLAYED = new LongAdder();
+    private static final LongAdder UNMATCHED = new LongAdder();
+
+    private static CaptureLogWriter openWriter(String captureFile) {
+        if (captureFile == null ||
+                captureFile.isBlank()) {
+            return null;
+        }
+        try {
+            log.info(
+                    "Capturing API exchanges to '{}'",
+                    captureFile
+            );
+            return new CaptureLogWriter(
+                    Path.of(captureFile),
+                    getRunPrefix()
+            );
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not open capture log '" + captureFile + "'", ex);
+        }
+    }
+
+    private static Map<String, Queue<CapturedExchange>> loadReplayQueues(String replayFile) {
+        if (replayFile == null ||
+                replayFile.isBlank()) {
+            return null;
+        }
+        CaptureLog captureLog;
+        try {
+            captureLog = CaptureLog.read(Path.of(replayFile));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read capture log '" + replayFile + "'", ex);
+        }
+        if (captureLog.runPrefix() != null &&
+                !captureLog.runPrefix()
+                        .equals(getRunPrefix())) {
+            throw new IllegalStateException("Capture log '" + replayFile + "' was recorded under run prefix '" + captureLog.runPrefix() + "', replay it with -Dfixture.run.prefix=" + captureLog.runPrefix() + " and the -Dfixture.seed it was recorded with");
+        }
+        List<CapturedExchange> exchanges = captureLog.exchanges();
+        Map<String, Queue<CapturedExchange>> queues = new ConcurrentHashMap<>();
+        for (CapturedExchange exchange : exchanges) {
+            queues.computeIfAbsent(
+                            replayKey(
+                                    exchange.method(),
+                                    exchange.endpoint(),
+                                    exchange.headers(),
+                                    exchange.params(),
+                                    exchange.pathParams(),
+                                    exchange.bodyKind(),
+                                    exchange.body()
+                            ),
+                            key -> new ConcurrentLinkedQueue<>()
+                    )
+                    .add(exchange);
+        }
+        log.info(
+                "Serving API calls from {} captured exchange(s) in '{}' instead of the server",
+                exchanges.size(),
+                replayFile
+        );
+        return queues;
+    }
+
+    public static boolean isCapturing() {
+        return WRITER != null;
+    }
+
+    public static boolean isReplaying() {
+        return REPLAY_QUEUES != null;
+    }
+
+    public static void capture(RequestMethods method,
+                               String endpoint,
+                               Map<String, String> headers,
+                               Map<String, String> params,
+                               Map<String, String> pathParams,
+                               Object body,
+                               Response response,
+                               long startedAtNanos,
+                               long durationNanos) {
+        String contentType = response.getContentType();
+        WRITER.append(new CapturedExchange(
+                startedAtNanos - WRITER.getBaseNanos(),
+                durationNanos,
+                method,
+                endpoint,
+                headers,
+                params,
+                pathParams,
+                bodyKind(body),
+                encodeBody(body),
+                response.statusCode(),
+                contentType == null || contentType.isEmpty() ? null : contentType,
+                response.getHeaders()
+                        .asList(),
+                response.asByteArray()
+        ));
+    }
+
+    public static Response replay(RequestMethods method,
+                                  String endpoint,
+                                  Map<String, String> headers,
+                                  Map<String, String> params,
+                                  Map<String, String> pathParams,
+                                  Object body) {
+        Queue<CapturedExchange> queue = REPLAY_QUEUES.get(replayKey(
+                method,
+                endpoint,
+                headers,
+                params,
+                pathParams,
+                bodyKind(body),
+                encodeBody(body)
+        ));
+        CapturedExchange exchange = queue == null ? null : queue.poll();
+        if (exchange == null) {
+            UNMATCHED.increment();
+            throw new IllegalStateException("No captured exchange left for " + method + " " + endpoint + " with the given headers, params and body; record and replay with the same -Dfixture.seed and thread-count=1");
+        }
+        REPLAYED.increment();
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(exchange.statusCode())
+                .setStatusLine("HTTP/1.1 " + exchange.statusCode())
+                .setHeaders(new Headers(exchange.responseHeaders()))
+                .setBody(exchange.responseBody() == null ? new byte[0] : exchange.responseBody());
+        if (exchange.contentType() != null) {
+            builder.setContentType(exchange.contentType());
+        }
+        return builder.build();
+    }
+
+    public static byte bodyKind(Object body) {
+        if (body == null) {
+            return CapturedExchange.NO_BODY;
+        }
+        return body instanceof File ? CapturedExchange.FILE_BODY : CapturedExchange.JSON_BODY;
+    }
+
+    public static byte[] encodeBody(Object body) {
+        if (body == null) {
+            return null;
+        }
+        if (body instanceof File file) {
+            return file.getPath()
+                    .getBytes(UTF_8);
+        }
+        try {
+            return OBJECT_MAPPER.writeValueAsBytes(body);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Could not serialize request body of type " + body.getClass()
+                    .getName(), ex);
+        }
+    }
+
+    private static String replayKey(RequestMethods method,
+                                    String endpoint,
+                                    Map<String, String> headers,
+                                    Map<String, String> params,
+                                    Map<String, String> pathParams,
+                                    byte bodyKind,
+                                    byte[] body) {
+        StringBuilder key = new StringBuilder(method.name()).append(' ')
+                .append(endpoint);
+        appendSorted(key, '{', pathParams);
+        appendSorted(key, '?', params);
+        appendSorted(key, '#', headers);
+        if (bodyKind == CapturedExchange.JSON_BODY) {
+            key.append('\n');
+            appendCanonical(key, readTree(body));
+        } else if (body != null) {
+            key.append('\n')
+                    .append(new String(body, UTF_8));
+        }
+        return key.toString();
+    }
+
+    private static JsonNode readTree(byte[] body) {
+        try {
+            return OBJECT_MAPPER.readTree(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not parse captured request body", ex);
+        }
+    }
+
+    private static void appendCanonical(StringBuilder key,
+                                        JsonNode node) {
+        if (node.isObject()) {
+            key.append('{');
+            new TreeMap<>(node.properties()
+                    .stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue))).forEach((name, value) -> {
+                key.append(name)
+                        .append(':');
+                appendCanonical(key, value);
+                key.append(',');
+            });
+            key.append('}');
+        } else if (node.isArray()) {
+            List<String> elements = new ArrayList<>(node.size());
+            for (JsonNode element : node) {
+                StringBuilder elementKey = new StringBuilder();
+                appendCanonical(elementKey, element);
+                elements.add(elementKey.toString());
+            }
+            Collections.sort(elements);
+            key.append('[')
+                    .append(String.join(",", elements))
+                    .append(']');
+        } else {
+            key.append(node);
+        }
+    }
+
+    private static void appendSorted(StringBuilder key,
+                                     char marker,
+                                     Map<String, String> values) {
+        if (values == null ||
+                values.isEmpty()) {
+            return;
+        }
+        key.append(marker);
+        new TreeMap<>(values).forEach((name, value) -> key.append(name)
+                .append('=')
+                .append(value)
+                .append('&'));
+    }
+
+    public static synchronized void close() {
+        if (WRITER != null) {
+            try {
+                WRITER.close();
+            } catch (IOException ex) {
+                log.warn(
+                        "Failed to close capture log: {}",
+                        ex.getMessage()
+                );
+            }
+        }
+        if (REPLAY_QUEUES != null) {
+            log.info(
+                    "Replayed {} captured exchange(s), {} call(s) unmatched, {} captured exchange(s) left unused",
+                    REPLAYED.sum(),
+                    UNMATCHED.sum(),
+                    REPLAY_QUEUES.values()
+                            .stream()
+                            .mapToInt(Queue::size)
+                            .sum()
+            );
+        }
+    }
+}
@@ -0,0 +1,646 @@
+package org.vimal.fake;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.vimal.dtos.RoleDto;
+import org.vimal.dtos.UserDto;
+import org.vimal.fake.FakeState.FakeRole;
+import org.vimal.fake.FakeState.FakeUser;
+
+import java.util.*;
+
+import static org.vimal.constants.Common.*;
+import static org.vimal.enums.Roles.*;
+import static org.vimal.fake.FakeApiException.badRequest;
+import static org.vimal.fake.FakeApiException.forbidden;
+import static org.vimal.fake.FakeResponse.message;
+import static org.vimal.fake.FakeResponse.ok;
+import static org.vimal.fake.FakeState.canManageRole;
+import static org.vimal.fake.FakeState.hasAnyRole;
+import static org.vimal.fake.FakeValidation.*;
+
+final class AdminEndpoints {
+    private AdminEndpoints() {
+    }
+
+    private static final Set<String> CAN_MANAGE_USERS = Set.of(
+            ROLE_SUPER_ADMIN.name(),
+            ROLE_ADMIN.name(),
+            ROLE_MANAGE_USERS.name()
+    );
+    private static final Set<String> CAN_MANAGE_ROLES = Set.of(
+            ROLE_SUPER_ADMIN.name(),
+            ROLE_ADMIN.name(),
+            ROLE_MANAGE_ROLES.name()
+    );
+    private static final Set<String> CAN_READ_PERMISSIONS = Set.of(
+            ROLE_SUPER_ADMIN.name(),
+            ROLE_ADMIN.name(),
+            ROLE_MANAGE_PERMISSIONS.name()
+    );
+    private static final TypeReference<List<UserDto>> USERS = new TypeReference<>() {
+    };
+    private static final TypeReference<List<RoleDto>> ROLES = new TypeReference<>() {
+    };
+    private static final TypeReference<List<String>> NAMES = new TypeReference<>() {
+    };
+
+    static void register(Map<String, FakeEndpoint> endpoints,
+                         FakeState state) {
+        endpoints.put("POST /admin/create/users", request -> createUsers(state, request));
+        endpoints.put("DELETE /admin/delete/users", request -> deleteUsers(state, request));
+        endpoints.put("GET /admin/read/users", request -> readUsers(state, request));
+        endpoints.put("PUT /admin/update/users", request -> updateUsers(state, request));
+        endpoints.put("POST /admin/create/roles", request -> createRoles(state, request));
+        endpoints.put("DELETE /admin/delete/roles", request -> deleteRoles(state, request));
+        endpoints.put("GET /admin/read/roles", request -> readRoles(state, request));
+        endpoints.put("PUT /admin/update/roles", request -> updateRoles(state, request));
+        endpoints.put("GET /admin/read/permissions", request -> readPermissions(state, request));
+    }
+
+    private static FakeResponse createUsers(FakeState state,
+                                            FakeRequest request) {
+        FakeUser creator = requireAnyRole(state, request, CAN_MANAGE_USERS);
+        List<UserDto> dtos = requireBatch(request.body(USERS), MAX_BATCH_SIZE_OF_USER_CREATION_AT_A_TIME, "create", "users");
+        boolean lenient = isEnabled(request.param(LENIENCY));
+        List<String> invalidInputs = new ArrayList<>();
+        for (UserDto dto : dtos) {
+            validateNewUser(dto, invalidInputs);
+        }
+        if (!invalidInputs.isEmpty()) {
+            throw badRequest("invalid_inputs", invalidInputs);
+        }
+        Set<String> missingRoles = new TreeSet<>();
+        Set<String> notAllowedToAssignRoles = new TreeSet<>();
+        collectRoleViolations(state, creator, dtos, missingRoles, notAllowedToAssignRoles);
+        if (!missingRoles.isEmpty()) {
+            throw badRequest("missing_roles", missingRoles);
+        }
+        if (!notAllowedToAssignRoles.isEmpty()) {
+            throw badRequest("not_allowed_to_assign_roles", notAllowedToAssignRoles);
+        }
+        Set<String> takenUsernames = new TreeSet<>();
+        Set<String> takenEmails = new TreeSet<>();
+        Set<String> batchUsernames = new HashSet<>();
+        Set<String> batchEmails = new HashSet<>();
+        List<UserDto> creatable = new ArrayList<>(dtos.size());
+        for (UserDto dto : dtos) {
+            boolean usernameTaken = state.isUsernameTaken(dto.getUsername()) ||
+                    !batchUsernames.add(dto.getUsername());
+            boolean emailTaken = state.isEmailTaken(dto.getEmail()) ||
+                    !batchEmails.add(dto.getEmail()
+                            .toLowerCase(Locale.ROOT));
+            if (usernameTaken) {
+                takenUsernames.add(dto.getUsername());
+            }
+            if (emailTaken) {
+                takenEmails.add(dto.getEmail());
+            }
+            if (!usernameTaken &&
+                    !emailTaken) {
+                creatable.add(dto);
+            }
+        }
+        if (!lenient &&
+                (!takenUsernames.isEmpty() || !takenEmails.isEmpty())) {
+            Map<String, Set<String>> conflicts = new LinkedHashMap<>();
+            conflicts.put("already_taken_usernames", takenUsernames);
+            conflicts.put("already_taken_emails", takenEmails);
+            throw badRequest(conflicts);
+        }
+        List<Map<String, Object>> createdUsers = new ArrayList<>(creatable.size());
+        for (UserDto dto : creatable) {
+            createdUsers.add(state.addUser(dto, creator.username)
+                    .toRecord());
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("created_users", createdUsers);
+        if (lenient) {
+            body.put("already_taken_usernames", takenUsernames);
+            body.put("already_taken_emails", takenEmails);
+        }
+        return ok(body);
+    }
+
+    private static FakeResponse deleteUsers(FakeState state,
+                                            FakeRequest request) {
+        FakeUser deleter = requireAnyRole(state, request, CAN_MANAGE_USERS);
+        List<String> identifiers = requireBatch(request.body(NAMES), MAX_BATCH_SIZE_OF_USER_DELETION_AT_A_TIME, "delete", "users");
+        boolean hard = isEnabled(request.param(HARD));
+        boolean lenient = isEnabled(request.param(LENIENCY));
+        validateIdentifiers(identifiers);
+        Set<String> notFound = new TreeSet<>();
+        Set<String> notAllowedRoles = new TreeSet<>();
+        Set<FakeUser> users = new LinkedHashSet<>();
+        FakeUser user;
+        for (String identifier : identifiers) {
+            user = state.findUser(identifier);
+            if (user == null ||
+                    (!hard && user.accountDeleted)) {
+                notFound.add(identifier);
+                continue;
+            }
+            for (String role : user.roles) {
+                if (!canManageRole(deleter, role)) {
+                    notAllowedRoles.add(role);
+                }
+            }
+            users.add(user);
+        }
+        if (!notAllowedRoles.isEmpty()) {
+            throw badRequest("not_allowed_to_delete_users_having_roles", notAllowedRoles);
+        }
+        if (!lenient &&
+                !notFound.isEmpty()) {
+            throw badRequest("users_not_found", notFound);
+        }
+        if (users.contains(deleter)) {
+            throw badRequest("Cannot delete yourself");
+        }
+        for (FakeUser deleted : users) {
+            if (hard) {
+                state.removeUser(deleted);
+            } else {
+                state.softDeleteUser(deleted);
+            }
+        }
+        return message("Users deleted successfully");
+    }
+
+    private static FakeResponse readUsers(FakeState state,
+                                          FakeRequest request) {
+        requireAnyRole(state, request, CAN_MANAGE_USERS);
+        List<String> identifiers = requireBatch(request.body(NAMES), MAX_BATCH_SIZE_OF_USER_READ_AT_A_TIME, "read", "users");
+        boolean lenient = isEnabled(request.param(LENIENCY));
+        validateIdentifiers(identifiers);
+        List<Map<String, Object>> foundUsers = new ArrayList<>(identifiers.size());
+        Set<String> notFound = new TreeSet<>();
+        Set<FakeUser> seen = new HashSet<>();
+        FakeUser user;
+        for (String identifier : identifiers) {
+            user = state.findUser(identifier);
+            if (user == null) {
+                notFound.add(identifier);
+            } else if (seen.add(user)) {
+                foundUsers.add(user.toRecord());
+            }
+        }
+        if (!lenient &&
+                !notFound.isEmpty()) {
+            throw badRequest("users_not_found", notFound);
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("found_users", foundUsers);
+        if (lenient) {
+            body.put("users_not_found", notFound);
+        }
+        return ok(body);
+    }
+
+    private static FakeResponse updateUsers(FakeState state,
+                                            FakeRequest request) {
+        FakeUser updater = requireAnyRole(state, request, CAN_MANAGE_USERS);
+        List<UserDto> dtos = requireBatch(request.body(USERS), MAX_BATCH_SIZE_OF_USER_UPDATE_AT_A_TIME, "update", "users");
+        boolean lenient = isEnabled(request.param(LENIENCY));
+        List<String> invalidInputs = new ArrayList<>();
+        for (UserDto dto : dtos) {
+            validateUserUpdate(dto, invalidInputs);
+        }
+        if (!invalidInputs.isEmpty()) {
+            throw badRequest("invalid_inputs", invalidInputs);
+        }
+        Set<String> missingRoles = new TreeSet<>();
+        Set<String> notAllowedToAssignRoles = new TreeSet<>();
+        collectRoleViolations(state, updater, dtos, missingRoles, notAllowedToAssignRoles);
+        if (!missingRoles.isEmpty()) {
+            throw badRequest("missing_roles", missingRoles);
+        }
+        if (!notAllowedToAssignRoles.isEmpty()) {
+            throw badRequest("not_allowed_to_assign_roles", notAllowedToAssignRoles);
+        }
+        Set<String> notFound = new TreeSet<>();
+        Set<String> higherOrEqualRoles = new TreeSet<>();
+        Map<UserDto, FakeUser> targets = new LinkedHashMap<>();
+        FakeUser user;
+        for (UserDto dto : dtos) {
+            user = state.findUser(dto.getOldUsername());
+            if (user == null ||
+                    user.accountDeleted) {
+                notFound.add(dto.getOldUsername());
+                continue;
+            }
+            for (String role : user.roles) {
+                if (!canManageRole(updater, role)) {
+                    higherOrEqualRoles.add(role);
+                }
+            }
+            targets.put(dto, user);
+        }
+        if (!higherOrEqualRoles.isEmpty()) {
+            throw badRequest("cannot_update_users_having_roles_higher_or_equal_than_updater", higherOrEqualRoles);
+        }
+        if (!lenient &&
+                !notFound.isEmpty()) {
+            throw badRequest("users_not_found", notFound);
+        }
+        rejectConflictingUpdates(state, targets);
+        List<Map<String, Object>> updatedUsers = new ArrayList<>(targets.size());
+        UserDto dto;
+        for (Map.Entry<UserDto, FakeUser> target : targets.entrySet()) {
+            dto = target.getKey();
+            user = target.getValue();
+            if (dto.getUsername() != null &&
+                    !dto.getUsername()
+                            .equals(user.username)) {
+                state.renameUser(user, dto.getUsername());
+            }
+            if (dto.getEmail() != null &&
+                    !dto.getEmail()
+                            .equalsIgnoreCase(user.email)) {
+                state.changeEmail(user, dto.getEmail());
+            }
+            if (dto.getPassword() != null &&
+                    !dto.getPassword()
+                            .equals(user.password)) {
+                user.password = dto.getPassword();
+                state.revokeSessions(user);
+            }
+            if (dto.getFirstName() != null) {
+                user.firstName = dto.getFirstName();
+            }
+            if (dto.getMiddleName() != null) {
+                user.middleName = dto.getMiddleName();
+            }
+            if (dto.getLastName() != null) {
+                user.lastName = dto.getLastName();
+            }
+            if (dto.getRoles() != null) {
+                user.roles.clear();
+                user.roles.addAll(dto.getRoles());
+            }
+            user.emailVerified = dto.isEmailVerified();
+            user.accountLocked = dto.isAccountLocked();
+            user.accountEnabled = dto.isAccountEnabled();
+            if (user.accountLocked ||
+                    !user.accountEnabled) {
+                state.revokeSessions(user);
+            }
+            user.updatedBy = updater.username;
+            updatedUsers.add(user.toRecord());
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("updated_users", updatedUsers);
+        if (lenient) {
+            body.put("users_not_found", notFound);
+        }
+        return ok(body);
+    }
+
+    private static void rejectConflictingUpdates(FakeState state,
+                                                 Map<UserDto, FakeUser> targets) {
+        Set<String> takenUsernames = new TreeSet<>();
+        Set<String> takenEmails = new TreeSet<>();
+        Set<String> batchUsernames = new HashSet<>();
+        Set<String> batchEmails = new HashSet<>();
+        FakeUser owner;
+        for (Map.Entry<UserDto, FakeUser> target : targets.entrySet()) {
+            String username = target.getKey()
+                    .getUsername();
+            String email = target.getKey()
+                    .getEmail();
+            if (username != null) {
+                owner = state.findUser(username);
+                if ((owner != null && owner != target.getValue()) ||
+                        !batchUsernames.add(username)) {
+                    takenUsernames.add(username);
+                }
+            }
+            if (email != null) {
+                owner = state.findUser(email);
+                if ((owner != null && owner != target.getValue()) ||
+                        !batchEmails.add(email.toLowerCase(Locale.ROOT))) {
+                    takenEmails.add(email);
+                }
+            }
+        }
+        if (!takenUsernames.isEmpty() ||
+                !takenEmails.isEmpty()) {
+            Map<String, Set<String>> conflicts = new LinkedHashMap<>();
+            conflicts.put("already_taken_usernames", takenUsernames);
+            conflicts.put("already_taken_emails", takenEmails);
+            throw badRequest(conflicts);
+        }
+    }
+
+    private static void collectRoleViolations(FakeState state,
+                                              FakeUser actor,
+                                              List<UserDto> dtos,
+                                              Set<String> missingRoles,
+                                              Set<String> notAllowedToAssignRoles) {
+        for (UserDto dto : dtos) {
+            if (dto.getRoles() == null) {
+                continue;
+            }
+            for (String role : dto.getRoles()) {
+                if (state.role(role) == null) {
+                    missingRoles.add(role);
+                } else if (!canManageRole(actor, role)) {
+                    notAllowedToAssignRoles.add(role);
+                }
+            }
+        }
+    }
+
+    private static FakeResponse createRoles(FakeState state,
+                                            FakeRequest request) {
+        FakeUser creator = requireAnyRole(state, request, CAN_MANAGE_ROLES);
+        List<RoleDto> dtos = requireBatch(request.body(ROLES), MAX_BATCH_SIZE_OF_ROLE_CREATION_AT_A_TIME, "create", "roles");
+        boolean lenient = isEnabled(request.param(LENIENCY));
+        validateRoles(dtos);
+        rejectMissingPermissions(state, dtos);
+        Set<String> takenRoleNames = new TreeSet<>();
+        Set<String> batchRoleNames = new HashSet<>();
+        List<RoleDto> creatable = new ArrayList<>(dtos.size());
+        for (RoleDto dto : dtos) {
+            if (state.role(dto.getRoleName()) != null ||
+                    !batchRoleNames.add(dto.getRoleName())) {
+                takenRoleNames.add(dto.getRoleName());
+            } else {
+                creatable.add(dto);
+            }
+        }
+        if (!lenient &&
+                !takenRoleNames.isEmpty()) {
+            throw badRequest("already_taken_role_names", takenRoleNames);
+        }
+        List<Map<String, Object>> createdRoles = new ArrayList<>(creatable.size());
+        FakeRole role;
+        for (RoleDto dto : creatable) {
+            role = new FakeRole(dto.getRoleName());
+            role.description = dto.getDescription();
+            if (dto.getPermissions() != null) {
+                role.permissions.addAll(dto.getPermissions());
+            }
+            role.createdBy = creator.username;
+            state.addRole(role);
+            createdRoles.add(role.toRecord());
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("created_roles", createdRoles);
+        if (lenient) {
+            body.put("already_taken_role_names", takenRoleNames);
+        }
+        return ok(body);
+    }
+
+    private static FakeResponse deleteRoles(FakeState state,
+                                            FakeRequest request) {
+        requireAnyRole(state, request, CAN_MANAGE_ROLES);
+        List<String> roleNames = requireBatch(request.body(NAMES), MAX_BATCH_SIZE_OF_ROLE_DELETION_AT_A_TIME, "delete", "roles");
+        boolean force = isEnabled(request.param(FORCE));
+        boolean lenient = isEnabled(request.param(LENIENCY));
+        List<String> invalidInputs = new ArrayList<>();
+        for (String roleName : roleNames) {
+            if (!isValidRoleOrPermissionName(roleName)) {
+                invalidInputs.add("Invalid role name: '" + roleName + "'");
+            }
+        }
+        if (!invalidInputs.isEmpty()) {
+            throw badRequest("invalid_inputs", invalidInputs);
+        }
+        Set<String> systemRoles = new TreeSet<>();
+        Set<String> notFound = new TreeSet<>();
+        Set<String> deletable = new LinkedHashSet<>();
+        FakeRole role;
+        for (String roleName : roleNames) {
+            role = state.role(roleName);
+            if (role == null) {
+                notFound.add(roleName);
+            } else if (role.systemRole) {
+                systemRoles.add(roleName);
+            } else {
+                deletable.add(roleName);
+            }
+        }
+        if (!systemRoles.isEmpty()) {
+            throw badRequest("system_roles_cannot_be_deleted", systemRoles);
+        }
+        if (!lenient &&
+                !notFound.isEmpty()) {
+            throw badRequest("roles_not_found", notFound);
+        }
+        if (!force) {
+            Set<String> assignedRoles = new TreeSet<>();
+            for (FakeUser user : state.users()) {
+                for (String roleName : user.roles) {
+                    if (deletable.contains(roleName)) {
+                        assignedRoles.add(roleName);
+                    }
+                }
+            }
+            if (!assignedRoles.isEmpty()) {
+                throw badRequest("roles_assigned_to_users", assignedRoles);
+            }
+        }
+        for (String roleName : deletable) {
+            state.removeRole(roleName);
+        }
+        return message("Roles deleted successfully");
+    }
+
+    private static FakeResponse readRoles(FakeState state,
+                                          FakeRequest request) {
+        requireAnyRole(state, request, CAN_MANAGE_ROLES);
+        List<String> roleNames = request.body(NAMES);
+        Set<String> invalidRoleNames = new TreeSet<>();
+        for (String roleName : roleNames) {
+            if (!isValidRoleOrPermissionName(roleName)) {
+                invalidRoleNames.add(String.valueOf(roleName));
+            }
+        }
+        if (!invalidRoleNames.isEmpty()) {
+            throw badRequest("invalid_role_names", invalidRoleNames);
+        }
+        List<Map<String, Object>> foundRoles = new ArrayList<>(roleNames.size());
+        Set<String> notFound = new TreeSet<>();
+        Set<String> seen = new HashSet<>();
+        FakeRole role;
+        for (String roleName : roleNames) {
+            role = state.role(roleName);
+            if (role == null) {
+                notFound.add(roleName);
+            } else if (seen.add(roleName)) {
+                foundRoles.add(role.toRecord());
+            }
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("found_roles", foundRoles);
+        body.put("roles_not_found", notFound);
+        return ok(body);
+    }
+
+    private static FakeResponse updateRoles(FakeState state,
+                                            FakeRequest request) {
+        FakeUser updater = requireAnyRole(state, request, CAN_MANAGE_ROLES);
+        List<RoleDto> dtos = requireBatch(request.body(ROLES), MAX_BATCH_SIZE_OF_ROLE_CREATION_AT_A_TIME, "update", "roles");
+        boolean lenient = isEnabled(request.param(LENIENCY));
+        validateRoles(dtos);
+        rejectMissingPermissions(state, dtos);
+        Set<String> systemRoles = new TreeSet<>();
+        Set<String> notFound = new TreeSet<>();
+        Map<RoleDto, FakeRole> targets = new LinkedHashMap<>();
+        FakeRole role;
+        for (RoleDto dto : dtos) {
+            role = state.role(dto.getRoleName());
+            if (role == null) {
+                notFound.add(dto.getRoleName());
+            } else if (role.systemRole) {
+                systemRoles.add(dto.getRoleName());
+            } else {
+                targets.put(dto, role);
+            }
+        }
+        if (!systemRoles.isEmpty()) {
+            throw badRequest("system_roles_cannot_be_updated", systemRoles);
+        }
+        if (!lenient &&
+                !notFound.isEmpty()) {
+            throw badRequest("roles_not_found", notFound);
+        }
+        List<Map<String, Object>> updatedRoles = new ArrayList<>(targets.size());
+        for (Map.Entry<RoleDto, FakeRole> target : targets.entrySet()) {
+            role = target.getValue();
+            if (target.getKey()
+                    .getDescription() != null) {
+                role.description = target.getKey()
+                        .getDescription();
+            }
+            if (target.getKey()
+                    .getPermissions() != null) {
+                role.permissions.clear();
+                role.permissions.addAll(target.getKey()
+                        .getPermissions());
+            }
+            role.updatedBy = updater.username;
+            updatedRoles.add(role.toRecord());
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("updated_roles", updatedRoles);
+        if (lenient) {
+            body.put("roles_not_found", notFound);
+        }
+        return ok(body);
+    }
+
+    private static FakeResponse readPermissions(FakeState state,
+                                                FakeRequest request) {
+        requireAnyRole(state, request, CAN_READ_PERMISSIONS);
+        List<String> permissionNames = request.body(NAMES);
+        Set<String> invalidPermissionNames = new TreeSet<>();
+        for (String permissionName : permissionNames) {
+            if (!isValidRoleOrPermissionName(permissionName)) {
+                invalidPermissionNames.add(String.valueOf(permissionName));
+            }
+        }
+        if (!invalidPermissionNames.isEmpty()) {
+            throw badRequest("invalid_permission_names", invalidPermissionNames);
+        }
+        List<Map<String, Object>> foundPermissions = new ArrayList<>(permissionNames.size());
+        Set<String> notFound = new TreeSet<>();
+        Set<String> seen = new HashSet<>();
+        String description;
+        for (String permissionName : permissionNames) {
+            description = state.permissionDescription(permissionName);
+            if (description == null) {
+                notFound.add(permissionName);
+            } else if (seen.add(permissionName)) {
+                Map<String, Object> record = new LinkedHashMap<>();
+                record.put("permissionName", permissionName);
+                record.put("description", description);
+                foundPermissions.add(record);
+            }
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("found_permissions", foundPermissions);
+        body.put("permissions_not_found", notFound);
+        return ok(body);
+    }
+
+    private static void validateRoles(List<RoleDto> dtos) {
+        List<String> invalidInputs = new ArrayList<>();
+        for (RoleDto dto : dtos) {
+            if (!isValidRoleOrPermissionName(dto.getRoleName())) {
+                invalidInputs.add("Invalid role name: '" + dto.getRoleName() + "'");
+            }
+            if (!isValidDescription(dto.getDescription())) {
+                invalidInputs.add("Description of role '" + dto.getRoleName() + "' exceeds " + MAX_DESCRIPTION_LENGTH + " characters");
+            }
+            if (dto.getPermissions() != null) {
+                for (String permission : dto.getPermissions()) {
+                    if (!isValidRoleOrPermissionName(permission)) {
+                        invalidInputs.add("Invalid permission name: '" + permission + "'");
+                    }
+                }
+            }
+        }
+        if (!invalidInputs.isEmpty()) {
+            throw badRequest("invalid_inputs", invalidInputs);
+        }
+    }
+
+    private static void rejectMissingPermissions(FakeState state,
+                                                 List<RoleDto> dtos) {
+        Set<String> missingPermissions = new TreeSet<>();
+        for (RoleDto dto : dtos) {
+            if (dto.getPermissions() == null) {
+                continue;
+            }
+            for (String permission : dto.getPermissions()) {
+                if (state.permissionDescription(permission) == null) {
+                    missingPermissions.add(permission);
+                }
+            }
+        }
+        if (!missingPermissions.isEmpty()) {
+            throw badRequest("missing_permissions", missingPermissions);
+        }
+    }
+
+    private static void validateIdentifiers(List<String> identifiers) {
+        List<String> invalidInputs = new ArrayList<>();
+        for (String identifier : identifiers) {
+            if (!isValidUsernameOrEmail(identifier)) {
+                invalidInputs.add("Invalid username or email: '" + identifier + "'");
+            }
+        }
+        if (!invalidInputs.isEmpty()) {
+            throw badRequest("invalid_inputs", invalidInputs);
+        }
+    }
+
+    private static FakeUser requireAnyRole(FakeState state,
+                                           FakeRequest request,
+                                           Set<String> allowedRoles) {
+        FakeUser user = state.authenticate(request).user;
+        if (!hasAnyRole(user, allowedRoles)) {
+            throw forbidden();
+        }
+        return user;
+    }
+
+    private static <T> List<T> requireBatch(List<T> batch,
+                                            int maxBatchSize,
+                                            String action,
+                                            String entities) {
+        if (batch.isEmpty()) {
+            throw badRequest("No " + entities + " to " + action);
+        }
+        if (batch.size() > maxBatchSize) {
+            throw badRequest("Cannot " + action + " more than " + maxBatchSize + " " + entities + " at a time");
+        }
+        return batch;
+    }
+
+    private static boolean isEnabled(String toggle) {
+        return ENABLE.equalsIgnoreCase(toggle);
+    }
+}
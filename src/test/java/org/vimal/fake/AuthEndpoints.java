@@ -0,0 +1,243 @@
+package org.vimal.fake;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.qrcode.QRCodeWriter;
+import org.vimal.fake.FakeState.FakeUser;
+import org.vimal.fake.FakeState.Session;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.vimal.constants.Common.AUTHENTICATOR_APP_MFA;
+import static org.vimal.constants.Common.DISABLE;
+import static org.vimal.constants.Common.EMAIL_MFA;
+import static org.vimal.constants.Common.ENABLE;
+import static org.vimal.fake.FakeApiException.badRequest;
+import static org.vimal.fake.FakeApiException.unauthorized;
+import static org.vimal.fake.FakeResponse.message;
+import static org.vimal.fake.FakeResponse.ok;
+import static org.vimal.fake.FakeValidation.isValidOtp;
+import static org.vimal.fake.FakeValidation.isValidPassword;
+import static org.vimal.fake.FakeValidation.isValidUsernameOrEmail;
+
+final class AuthEndpoints {
+    private AuthEndpoints() {
+    }
+
+    private static final String ISSUER = "FakeAuthServer";
+    private static final int QR_CODE_SIZE = 300;
+    private static final String MFA_TOGGLE = "mfa_toggle";
+
+    static void register(Map<String, FakeEndpoint> endpoints,
+                         FakeState state) {
+        endpoints.put("POST /auth/login", request -> login(state, request));
+        endpoints.put("POST /auth/logout", request -> {
+            state.revokeSession(state.authenticate(request));
+            return message("Logout successful");
+        });
+        endpoints.put("POST /auth/logout/fromDevices", request -> {
+            Session session = state.authenticate(request);
+            state.revokeSessions(
+                    session.user,
+                    Set.copyOf(request.body(new TypeReference<List<String>>() {
+                    }))
+            );
+            return message("Logout from devices successful");
+        });
+        endpoints.put("POST /auth/logout/allDevices", request -> {
+            state.revokeSessions(state.authenticate(request).user);
+            return message("Logout from all devices successful");
+        });
+        endpoints.put("POST /auth/refresh/accessToken", request -> ok(state.refreshAccessToken(
+                request.param("refreshToken"),
+                request.deviceId()
+        )));
+        endpoints.put("POST /auth/revoke/accessToken", request -> {
+            state.revokeAccessToken(state.authenticate(request));
+            return message("Access token revoked successfully");
+        });
+        endpoints.put("POST /auth/revoke/refreshToken", request -> {
+            state.revokeRefreshToken(request.param("refreshToken"));
+            return message("Refresh token revoked successfully");
+        });
+        endpoints.put("POST /auth/mfa/requestTo/toggle", request -> requestToToggleMfa(state, request));
+        endpoints.put("POST /auth/mfa/verifyTo/toggle", request -> verifyToToggleMfa(state, request));
+        endpoints.put("POST /auth/mfa/verifyTo/login", request -> verifyMfaToLogin(state, request));
+    }
+
+    private static FakeResponse login(FakeState state,
+                                      FakeRequest request) {
+        String usernameOrEmail = request.param("usernameOrEmail");
+        String password = request.param("password");
+        if (!isValidUsernameOrEmail(usernameOrEmail) ||
+                !isValidPassword(password)) {
+            throw unauthorized("Invalid credentials");
+        }
+        FakeUser user = state.findUser(usernameOrEmail);
+        if (user == null) {
+            throw unauthorized("Invalid credentials");
+        }
+        if (user.accountDeleted) {
+            throw unauthorized("Bad credentials");
+        }
+        long now = System.currentTimeMillis();
+        if (user.accountLocked ||
+                user.lockedUntilMillis > now) {
+            throw unauthorized("Account is temporarily locked");
+        }
+        if (!user.password.equals(password)) {
+            if (++user.failedLoginAttempts >= FakeState.MAX_FAILED_LOGIN_ATTEMPTS) {
+                user.failedLoginAttempts = 0;
+                user.lockedUntilMillis = now + FakeState.LOCKOUT_MILLIS;
+            }
+            throw unauthorized("Bad credentials");
+        }
+        if (!user.accountEnabled) {
+            throw unauthorized("Account is disabled");
+        }
+        user.failedLoginAttempts = 0;
+        if (!user.hasMfa()) {
+            return ok(state.issueTokens(user, request.deviceId()));
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("message", "Mfa is enabled, please verify to login");
+        body.put("state_token", state.issueStateToken(user));
+        body.put("mfa_methods", user.mfaMethods());
+        return ok(body);
+    }
+
+    private static FakeResponse verifyMfaToLogin(FakeState state,
+                                                 FakeRequest request) {
+        String type = requireMfaType(request.param("type"));
+        String otpTotp = request.param("otpTotp");
+        if (!isValidOtp(otpTotp)) {
+            throw badRequest("Invalid Otp/Totp");
+        }
+        String stateToken = request.param("stateToken");
+        FakeUser user = state.pendingLogin(stateToken);
+        if (!user.mfaMethods()
+                .contains(type)) {
+            throw badRequest("Mfa is not enabled");
+        }
+        if (!state.verifySecondFactor(user, type, otpTotp, stateToken)) {
+            throw badRequest("Invalid Otp/Totp");
+        }
+        state.completePendingLogin(stateToken);
+        return ok(state.issueTokens(user, request.deviceId()));
+    }
+
+    private static FakeResponse requestToToggleMfa(FakeState state,
+                                                   FakeRequest request) throws IOException, WriterException {
+        FakeUser user = state.authenticate(request).user;
+        String type = requireMfaType(request.param("type"));
+        boolean enable = requireToggle(request.param("toggle"));
+        boolean enabled = user.mfaMethods()
+                .contains(type);
+        if (enable &&
+                enabled) {
+            throw badRequest("Mfa is already enabled");
+        }
+        if (!enable &&
+                !enabled) {
+            throw badRequest("Mfa is already disabled");
+        }
+        if (type.equals(EMAIL_MFA)) {
+            if (!user.emailVerified) {
+                throw badRequest("Email is not verified");
+            }
+            state.sendEmailOtp(user, MFA_TOGGLE, "Otp to " + (enable ? "enable" : "disable") + " email Mfa");
+            return message("Otp sent to your email. Please check your email to " + (enable ? "enable" : "disable") + " email Mfa");
+        }
+        if (!enable) {
+            return message("Please verify using your authenticator app to disable authenticator app Mfa");
+        }
+        user.pendingAuthenticatorAppSecret = FakeState.newAuthenticatorAppSecret();
+        return new FakeResponse(
+                200,
+                "image/png",
+                qrCode(user, user.pendingAuthenticatorAppSecret)
+        );
+    }
+
+    private static FakeResponse verifyToToggleMfa(FakeState state,
+                                                  FakeRequest request) {
+        FakeUser user = state.authenticate(request).user;
+        String type = requireMfaType(request.param("type"));
+        boolean enable = requireToggle(request.param("toggle"));
+        boolean enabled = user.mfaMethods()
+                .contains(type);
+        if (enable &&
+                enabled) {
+            throw badRequest("Mfa is already enabled");
+        }
+        if (!enable &&
+                !enabled) {
+            throw badRequest("Mfa is already disabled");
+        }
+        String otpTotp = request.param("otpTotp");
+        if (!isValidOtp(otpTotp)) {
+            throw badRequest("Invalid Otp/Totp");
+        }
+        if (type.equals(EMAIL_MFA)) {
+            if (!state.verifyEmailOtp(user, MFA_TOGGLE, otpTotp)) {
+                throw badRequest("Invalid Otp/Totp");
+            }
+            user.emailMfaEnabled = enable;
+            return message("Email Mfa " + (enable ? "enabled" : "disabled") + " successfully");
+        }
+        if (!state.verifyTotp(user, enable ? user.pendingAuthenticatorAppSecret : user.authenticatorAppSecret, otpTotp)) {
+            throw badRequest("Invalid Otp/Totp");
+        }
+        user.authenticatorAppSecret = enable ? user.pendingAuthenticatorAppSecret : null;
+        user.pendingAuthenticatorAppSecret = null;
+        return message("Authenticator app Mfa " + (enable ? "enabled" : "disabled") + " successfully");
+    }
+
+    static boolean isMfaType(String type) {
+        return AUTHENTICATOR_APP_MFA.equals(type) ||
+                EMAIL_MFA.equals(type);
+    }
+
+    static String requireMfaType(String type) {
+        if (!isMfaType(type)) {
+            throw badRequest("Unsupported Mfa type: '" + type + "'");
+        }
+        return type;
+    }
+
+    private static boolean requireToggle(String toggle) {
+        if (ENABLE.equalsIgnoreCase(toggle)) {
+            return true;
+        }
+        if (DISABLE.equalsIgnoreCase(toggle)) {
+            return false;
+        }
+        throw badRequest("Invalid toggle: '" + toggle + "'");
+    }
+
+    private static byte[] qrCode(FakeUser user,
+                                 String secret) throws WriterException, IOException {
+        String totpUrl = "otpauth://totp/" + ISSUER + ":" + URLEncoder.encode(user.username, UTF_8) + "?secret=" + secret + "&issuer=" + ISSUER;
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        MatrixToImageWriter.writeToStream(
+                new QRCodeWriter().encode(
+                        totpUrl,
+                        BarcodeFormat.QR_CODE,
+                        QR_CODE_SIZE,
+                        QR_CODE_SIZE
+                ),
+                "PNG",
+                png
+        );
+        return png.toByteArray();
+    }
+}
@@ -0,0 +1,64 @@
+package org.vimal.fake;
+
+import java.io.Serial;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+final class FakeApiException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+    private final int statusCode;
+    private final transient Map<String, Object> body;
+
+    private FakeApiException(int statusCode,
+                             Map<String, Object> body) {
+        super(String.valueOf(body.get("message")), null, false, false);
+        this.statusCode = statusCode;
+        this.body = body;
+    }
+
+    static FakeApiException badRequest(String message) {
+        return withMessage(400, "Bad Request", message);
+    }
+
+    static FakeApiException badRequest(String field,
+                                       Collection<?> values) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", "Bad Request");
+        body.put(field, values);
+        return new FakeApiException(400, body);
+    }
+
+    static FakeApiException badRequest(Map<String, ? extends Collection<?>> fields) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", "Bad Request");
+        body.putAll(fields);
+        return new FakeApiException(400, body);
+    }
+
+    static FakeApiException unauthorized(String message) {
+        return withMessage(401, "Unauthorized", message);
+    }
+
+    static FakeApiException forbidden() {
+        return withMessage(403, "Forbidden", "Access Denied");
+    }
+
+    static FakeApiException notFound(String message) {
+        return withMessage(404, "Not Found", message);
+    }
+
+    private static FakeApiException withMessage(int statusCode,
+                                                String error,
+                                                String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", error);
+        body.put("message", message);
+        return new FakeApiException(statusCode, body);
+    }
+
+    FakeResponse toResponse() {
+        return FakeResponse.json(statusCode, body);
+    }
+}
@@ -0,0 +1,187 @@
+package org.vimal.fake;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.vimal.fake.FakeApiException.notFound;
+
+@Slf4j
+public final class FakeAuthServer implements AutoCloseable {
+    public static final String DEFAULT_GLOBAL_ADMIN_USERNAME = "Fake_Global_Admin";
+    public static final String DEFAULT_GLOBAL_ADMIN_PASSWORD = "Fake_Global_Admin@1";
+    public static final String DEFAULT_TEST_EMAIL = "fake.inbox@example.com";
+    static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private static final String BASE_PATH = "/api/v1";
+    private static final int BACKLOG = 1024;
+    private static volatile FakeAuthServer current;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final FakeState state;
+    private final Map<String, FakeEndpoint> endpoints = new HashMap<>();
+
+    private FakeAuthServer(int port,
+                           String globalAdminUsername,
+                           String globalAdminPassword,
+                           int smtpPort) throws IOException {
+        this.state = new FakeState(new FakeMailer(smtpPort));
+        this.state.seedGlobalAdmin(
+                globalAdminUsername,
+                globalAdminPassword
+        );
+        AuthEndpoints.register(endpoints, state);
+        UserEndpoints.register(endpoints, state);
+        AdminEndpoints.register(endpoints, state);
+        this.executor = Executors.newCachedThreadPool(Thread.ofPlatform()
+                .name("fake-auth-server-", 0)
+                .daemon(true)
+                .factory());
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        this.server.setExecutor(executor);
+        this.server.createContext(BASE_PATH, this::handle);
+        this.server.start();
+    }
+
+    public static synchronized int start(int port,
+                                         String globalAdminUsername,
+                                         String globalAdminPassword,
+                                         int smtpPort) throws IOException {
+        if (current == null) {
+            current = new FakeAuthServer(
+                    port,
+                    globalAdminUsername,
+                    globalAdminPassword,
+                    smtpPort
+            );
+            log.info(
+                    "Fake auth server listening on '{}' with global admin '{}'{}",
+                    getBaseUrl(),
+                    globalAdminUsername,
+                    smtpPort > 0 ? " & mailing to SMTP port " + smtpPort : ""
+            );
+        }
+        return current.server.getAddress()
+                .getPort();
+    }
+
+    public static synchronized void stop() {
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+    }
+
+    public static boolean isRunning() {
+        return current != null;
+    }
+
+    public static String getBaseUrl() {
+        FakeAuthServer server = current;
+        if (server == null) {
+            throw new IllegalStateException("Fake auth server is not running");
+        }
+        return "http://127.0.0.1:" + server.server.getAddress()
+                .getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        FakeResponse response;
+        try {
+            FakeRequest request = readRequest(exchange);
+            FakeEndpoint endpoint = endpoints.get(request.method() + " " + request.path());
+            if (endpoint == null) {
+                throw notFound("No endpoint for " + request.method() + " " + BASE_PATH + request.path());
+            }
+            state.lock()
+                    .lock();
+            try {
+                response = endpoint.handle(request);
+            } finally {
+                state.lock()
+                        .unlock();
+            }
+        } catch (FakeApiException ex) {
+            response = ex.toResponse();
+        } catch (Exception ex) {
+            log.warn("Fake auth server failed to handle {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), ex);
+            response = FakeResponse.json(
+                    500,
+                    Map.of(
+                            "error", "Internal Server Error",
+                            "message", String.valueOf(ex.getMessage())
+                    )
+            );
+        }
+        try (exchange) {
+            exchange.getResponseHeaders()
+                    .set("Content-Type", response.contentType());
+            exchange.sendResponseHeaders(response.statusCode(), response.body().length == 0 ? -1 : response.body().length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response.body());
+            }
+        }
+    }
+
+    private static FakeRequest readRequest(HttpExchange exchange) throws IOException {
+        byte[] body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = in.readAllBytes();
+        }
+        String path = exchange.getRequestURI()
+                .getPath()
+                .substring(BASE_PATH.length());
+        if (path.length() > 1 &&
+                path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        return new FakeRequest(
+                exchange.getRequestMethod(),
+                path,
+                exchange.getRequestHeaders(),
+                parseQuery(exchange.getRequestURI()
+                        .getRawQuery()),
+                body
+        );
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null ||
+                rawQuery.isEmpty()) {
+            return params;
+        }
+        int separator;
+        for (String pair : rawQuery.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            separator = pair.indexOf('=');
+            if (separator < 0) {
+                params.put(URLDecoder.decode(pair, UTF_8), "");
+            } else {
+                params.put(URLDecoder.decode(pair.substring(0, separator), UTF_8), URLDecoder.decode(pair.substring(separator + 1), UTF_8));
+            }
+        }
+        return params;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+}
@@ -0,0 +1,6 @@
+package org.vimal.fake;
+
+@FunctionalInterface
+interface FakeEndpoint {
+    FakeResponse handle(FakeRequest request) throws Exception;
+}
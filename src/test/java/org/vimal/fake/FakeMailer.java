@@ -0,0 +1,57 @@
+package org.vimal.fake;
+
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Date;
+import java.util.Properties;
+
+@Slf4j
+final class FakeMailer {
+    private static final String SENDER = "no-reply@fake-auth-server.local";
+    private final Session session;
+
+    FakeMailer(int smtpPort) {
+        if (smtpPort <= 0) {
+            this.session = null;
+            return;
+        }
+        Properties properties = new Properties();
+        properties.put("mail.smtp.host", "127.0.0.1");
+        properties.put("mail.smtp.port", Integer.toString(smtpPort));
+        this.session = Session.getInstance(properties);
+    }
+
+    void send(String recipient,
+              String subject,
+              String text) {
+        if (session == null) {
+            log.debug(
+                    "Dropping mail '{}' for '{}' as the fake auth server has no SMTP port, set -Dmail.sink.port to read it",
+                    subject,
+                    recipient
+            );
+            return;
+        }
+        Thread.ofPlatform()
+                .daemon(true)
+                .name("fake-auth-server-mail")
+                .start(() -> {
+                    try {
+                        MimeMessage message = new MimeMessage(session);
+                        message.setFrom(SENDER);
+                        message.setRecipients(Message.RecipientType.TO, recipient);
+                        message.setSubject(subject);
+                        message.setSentDate(new Date());
+                        message.setText(text, "UTF-8");
+                        Transport.send(message);
+                    } catch (MessagingException ex) {
+                        log.warn("Fake auth server could not send mail '{}' to '{}': {}", subject, recipient, ex.getMessage());
+                    }
+                });
+    }
+}
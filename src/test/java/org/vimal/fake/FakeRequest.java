@@ -0,0 +1,58 @@
+package org.vimal.fake;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.sun.net.httpserver.Headers;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.vimal.BaseTest.X_DEVICE_ID_HEADER;
+import static org.vimal.constants.Common.BEARER;
+import static org.vimal.fake.FakeApiException.badRequest;
+import static org.vimal.fake.FakeAuthServer.OBJECT_MAPPER;
+
+record FakeRequest(String method,
+                   String path,
+                   Headers headers,
+                   Map<String, String> params,
+                   byte[] body) {
+    String header(String name) {
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.getLast();
+    }
+
+    String param(String name) {
+        return params.get(name);
+    }
+
+    String deviceId() {
+        return header(X_DEVICE_ID_HEADER);
+    }
+
+    String bearerToken() {
+        String authorization = header("Authorization");
+        if (authorization == null ||
+                !authorization.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            return null;
+        }
+        return authorization.substring(BEARER.length())
+                .strip();
+    }
+
+    <T> T body(TypeReference<T> type) {
+        if (body.length == 0) {
+            throw badRequest("Request body is required");
+        }
+        T value;
+        try {
+            value = OBJECT_MAPPER.readValue(body, type);
+        } catch (IOException ex) {
+            throw badRequest("Malformed request body");
+        }
+        if (value == null) {
+            throw badRequest("Request body is required");
+        }
+        return value;
+    }
+}
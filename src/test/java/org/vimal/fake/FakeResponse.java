@@ -0,0 +1,34 @@
+package org.vimal.fake;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import java.util.Map;
+
+import static org.vimal.fake.FakeAuthServer.OBJECT_MAPPER;
+
+record FakeResponse(int statusCode,
+                    String contentType,
+                    byte[] body) {
+    private static final String APPLICATION_JSON = "application/json";
+
+    static FakeResponse ok(Map<String, ?> body) {
+        return json(200, body);
+    }
+
+    static FakeResponse message(String message) {
+        return ok(Map.of("message", message));
+    }
+
+    static FakeResponse json(int statusCode,
+                             Map<String, ?> body) {
+        try {
+            return new FakeResponse(
+                    statusCode,
+                    APPLICATION_JSON,
+                    OBJECT_MAPPER.writeValueAsBytes(body)
+            );
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize fake response", ex);
+        }
+    }
+}
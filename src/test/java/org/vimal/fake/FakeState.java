@@ -0,0 +1,546 @@
+package org.vimal.fake;
+
+import org.apache.commons.codec.binary.Base32;
+import org.vimal.dtos.UserDto;
+import org.vimal.enums.Permissions;
+import org.vimal.enums.Roles;
+
+import java.security.InvalidKeyException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.vimal.constants.Common.AUTHENTICATOR_APP_MFA;
+import static org.vimal.constants.Common.EMAIL_MFA;
+import static org.vimal.enums.Roles.ROLE_ADMIN;
+import static org.vimal.enums.Roles.ROLE_SUPER_ADMIN;
+import static org.vimal.fake.FakeApiException.badRequest;
+import static org.vimal.fake.FakeApiException.unauthorized;
+import static org.vimal.fake.FakeValidation.isValidUuid;
+import static org.vimal.utils.TotpUtility.generateTotp;
+import static org.vimal.utils.TotpUtility.getTimeStepMillis;
+
+final class FakeState {
+    static final long ACCESS_TOKEN_TTL_SECONDS = 1800;
+    static final int MAX_FAILED_LOGIN_ATTEMPTS = 5;
+    static final long LOCKOUT_MILLIS = 900_000;
+    static final String SELF = "SELF";
+    private static final long STATE_TOKEN_TTL_MILLIS = 300_000;
+    private static final int AUTHENTICATOR_APP_SECRET_BYTES = 20;
+    private static final int ACCESS_TOKEN_BYTES = 32;
+    private static final int OTP_MODULUS = 1_000_000;
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    private static final Base32 BASE32 = new Base32();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final FakeMailer mailer;
+    private final Map<String, FakeUser> usersByUsername = new HashMap<>();
+    private final Map<String, FakeUser> usersByEmail = new HashMap<>();
+    private final Map<String, FakeRole> roles = new HashMap<>();
+    private final Map<String, String> permissions = new LinkedHashMap<>();
+    private final Map<String, Session> sessionsByAccessToken = new HashMap<>();
+    private final Map<String, Session> sessionsByRefreshToken = new HashMap<>();
+    private final Map<String, PendingLogin> pendingLogins = new HashMap<>();
+    private final Map<String, FakeUser> emailVerificationTokens = new HashMap<>();
+    private long nextUserId = 1;
+
+    FakeState(FakeMailer mailer) {
+        this.mailer = mailer;
+        for (Roles role : Roles.values()) {
+            FakeRole systemRole = new FakeRole(role.name());
+            systemRole.description = "System role " + role.name();
+            systemRole.systemRole = true;
+            systemRole.createdBy = "SYSTEM";
+            roles.put(role.name(), systemRole);
+        }
+        for (Permissions permission : Permissions.values()) {
+            permissions.put(permission.name(), "System permission " + permission.name());
+        }
+    }
+
+    ReentrantLock lock() {
+        return lock;
+    }
+
+    FakeMailer mailer() {
+        return mailer;
+    }
+
+    void seedGlobalAdmin(String username,
+                         String password) {
+        FakeUser globalAdmin = addUser(
+                UserDto.builder()
+                        .username(username)
+                        .password(password)
+                        .email(username.toLowerCase(Locale.ROOT) + "@fake-auth-server.local")
+                        .firstName("Global")
+                        .lastName("Admin")
+                        .roles(Set.of(ROLE_SUPER_ADMIN.name()))
+                        .emailVerified(true)
+                        .accountEnabled(true)
+                        .build(),
+                "SYSTEM"
+        );
+        globalAdmin.globalAdmin = true;
+    }
+
+    FakeUser findUser(String usernameOrEmail) {
+        if (usernameOrEmail == null) {
+            return null;
+        }
+        return usernameOrEmail.indexOf('@') >= 0 ?
+                usersByEmail.get(usernameOrEmail.toLowerCase(Locale.ROOT)) :
+                usersByUsername.get(usernameOrEmail);
+    }
+
+    boolean isUsernameTaken(String username) {
+        return usersByUsername.containsKey(username);
+    }
+
+    boolean isEmailTaken(String email) {
+        return usersByEmail.containsKey(email.toLowerCase(Locale.ROOT));
+    }
+
+    FakeUser addUser(UserDto dto,
+                     String createdBy) {
+        FakeUser user = new FakeUser(nextUserId++);
+        user.username = dto.getUsername();
+        user.password = dto.getPassword();
+        user.email = dto.getEmail();
+        user.firstName = dto.getFirstName();
+        user.middleName = dto.getMiddleName();
+        user.lastName = dto.getLastName();
+        if (dto.getRoles() != null) {
+            user.roles.addAll(dto.getRoles());
+        }
+        user.emailVerified = dto.isEmailVerified();
+        user.accountLocked = dto.isAccountLocked();
+        user.accountEnabled = dto.isAccountEnabled();
+        user.createdBy = createdBy;
+        usersByUsername.put(user.username, user);
+        usersByEmail.put(user.email.toLowerCase(Locale.ROOT), user);
+        return user;
+    }
+
+    void renameUser(FakeUser user,
+                    String username) {
+        usersByUsername.remove(user.username);
+        user.username = username;
+        usersByUsername.put(username, user);
+    }
+
+    void changeEmail(FakeUser user,
+                     String email) {
+        usersByEmail.remove(user.email.toLowerCase(Locale.ROOT));
+        user.email = email;
+        usersByEmail.put(email.toLowerCase(Locale.ROOT), user);
+    }
+
+    void removeUser(FakeUser user) {
+        revokeSessions(user);
+        usersByUsername.remove(user.username);
+        usersByEmail.remove(user.email.toLowerCase(Locale.ROOT));
+    }
+
+    void softDeleteUser(FakeUser user) {
+        revokeSessions(user);
+        user.accountDeleted = true;
+    }
+
+    Collection<FakeUser> users() {
+        return usersByUsername.values();
+    }
+
+    FakeRole role(String roleName) {
+        return roles.get(roleName);
+    }
+
+    void addRole(FakeRole role) {
+        roles.put(role.roleName, role);
+    }
+
+    void removeRole(String roleName) {
+        roles.remove(roleName);
+        for (FakeUser user : usersByUsername.values()) {
+            user.roles.remove(roleName);
+        }
+    }
+
+    String permissionDescription(String permissionName) {
+        return permissions.get(permissionName);
+    }
+
+    static boolean hasAnyRole(FakeUser user,
+                              Set<String> allowedRoles) {
+        if (user.globalAdmin) {
+            return true;
+        }
+        for (String role : user.roles) {
+            if (allowedRoles.contains(role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean canManageRole(FakeUser actor,
+                                 String role) {
+        return rank(role) < authorityRank(actor);
+    }
+
+    private static int authorityRank(FakeUser actor) {
+        if (actor.globalAdmin) {
+            return Integer.MAX_VALUE;
+        }
+        int rank = 1;
+        for (String role : actor.roles) {
+            rank = Math.max(rank, rank(role));
+        }
+        return rank;
+    }
+
+    private static int rank(String role) {
+        if (ROLE_SUPER_ADMIN.name()
+                .equals(role)) {
+            return 3;
+        }
+        if (ROLE_ADMIN.name()
+                .equals(role)) {
+            return 2;
+        }
+        return 0;
+    }
+
+    Map<String, Object> issueTokens(FakeUser user,
+                                    String deviceId) {
+        requireDeviceId(deviceId);
+        Session session = new Session(
+                user,
+                deviceId,
+                UUID.randomUUID()
+                        .toString()
+        );
+        user.sessions.add(session);
+        sessionsByRefreshToken.put(session.refreshToken, session);
+        Map<String, Object> tokens = newAccessToken(session);
+        tokens.put("refresh_token", session.refreshToken);
+        return tokens;
+    }
+
+    Map<String, Object> refreshAccessToken(String refreshToken,
+                                           String deviceId) {
+        Session session = sessionByRefreshToken(refreshToken);
+        if (!session.deviceId.equals(deviceId)) {
+            throw badRequest("Invalid refresh token");
+        }
+        if (session.accessToken != null) {
+            sessionsByAccessToken.remove(session.accessToken);
+        }
+        Map<String, Object> tokens = newAccessToken(session);
+        tokens.put("refresh_token", session.refreshToken);
+        return tokens;
+    }
+
+    private Map<String, Object> newAccessToken(Session session) {
+        byte[] bytes = new byte[ACCESS_TOKEN_BYTES];
+        SECURE_RANDOM.nextBytes(bytes);
+        session.accessToken = Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(bytes);
+        session.accessTokenExpiresAtMillis = System.currentTimeMillis() + ACCESS_TOKEN_TTL_SECONDS * 1000;
+        sessionsByAccessToken.put(session.accessToken, session);
+        Map<String, Object> tokens = new LinkedHashMap<>();
+        tokens.put("access_token", session.accessToken);
+        tokens.put("expires_in_seconds", ACCESS_TOKEN_TTL_SECONDS);
+        tokens.put("token_type", "Bearer");
+        return tokens;
+    }
+
+    Session authenticate(FakeRequest request) {
+        String accessToken = request.bearerToken();
+        Session session = accessToken == null ? null : sessionsByAccessToken.get(accessToken);
+        if (session == null ||
+                !session.deviceId.equals(request.deviceId())) {
+            throw unauthorized("Invalid token");
+        }
+        if (session.accessTokenExpiresAtMillis <= System.currentTimeMillis()) {
+            sessionsByAccessToken.remove(accessToken);
+            session.accessToken = null;
+            throw unauthorized("Invalid token");
+        }
+        return session;
+    }
+
+    void revokeAccessToken(Session session) {
+        if (session.accessToken != null) {
+            sessionsByAccessToken.remove(session.accessToken);
+            session.accessToken = null;
+        }
+    }
+
+    void revokeRefreshToken(String refreshToken) {
+        revokeSession(sessionByRefreshToken(refreshToken));
+    }
+
+    private Session sessionByRefreshToken(String refreshToken) {
+        Session session = isValidUuid(refreshToken) ? sessionsByRefreshToken.get(refreshToken) : null;
+        if (session == null) {
+            throw badRequest("Invalid refresh token");
+        }
+        return session;
+    }
+
+    void revokeSession(Session session) {
+        revokeAccessToken(session);
+        sessionsByRefreshToken.remove(session.refreshToken);
+        session.user.sessions.remove(session);
+    }
+
+    void revokeSessions(FakeUser user) {
+        revokeSessions(user, null);
+    }
+
+    void revokeSessions(FakeUser user,
+                        Set<String> deviceIds) {
+        Iterator<Session> iterator = user.sessions.iterator();
+        Session session;
+        while (iterator.hasNext()) {
+            session = iterator.next();
+            if (deviceIds == null ||
+                    deviceIds.contains(session.deviceId)) {
+                revokeAccessToken(session);
+                sessionsByRefreshToken.remove(session.refreshToken);
+                iterator.remove();
+            }
+        }
+    }
+
+    String issueStateToken(FakeUser user) {
+        long now = System.currentTimeMillis();
+        pendingLogins.values()
+                .removeIf(pendingLogin -> pendingLogin.expiresAtMillis() <= now);
+        String stateToken = UUID.randomUUID()
+                .toString();
+        pendingLogins.put(stateToken, new PendingLogin(user, now + STATE_TOKEN_TTL_MILLIS));
+        if (user.emailMfaEnabled) {
+            sendEmailOtp(user, stateToken, "Otp for login using email Mfa");
+        }
+        return stateToken;
+    }
+
+    FakeUser pendingLogin(String stateToken) {
+        PendingLogin pendingLogin = isValidUuid(stateToken) ? pendingLogins.get(stateToken) : null;
+        if (pendingLogin == null ||
+                pendingLogin.expiresAtMillis() <= System.currentTimeMillis() ||
+                pendingLogin.user().accountDeleted) {
+            throw badRequest("Invalid state token");
+        }
+        return pendingLogin.user();
+    }
+
+    void completePendingLogin(String stateToken) {
+        pendingLogins.remove(stateToken);
+    }
+
+    String issueEmailVerificationToken(FakeUser user) {
+        String token = UUID.randomUUID()
+                .toString();
+        emailVerificationTokens.put(token, user);
+        return token;
+    }
+
+    FakeUser consumeEmailVerificationToken(String token) {
+        FakeUser user = isValidUuid(token) ? emailVerificationTokens.remove(token) : null;
+        if (user == null ||
+                user.accountDeleted) {
+            throw badRequest("Invalid email verification token");
+        }
+        emailVerificationTokens.values()
+                .removeIf(pendingUser -> pendingUser == user);
+        return user;
+    }
+
+    static String newAuthenticatorAppSecret() {
+        byte[] secret = new byte[AUTHENTICATOR_APP_SECRET_BYTES];
+        SECURE_RANDOM.nextBytes(secret);
+        return BASE32.encodeToString(secret)
+                .replace("=", "");
+    }
+
+    static String newOtp() {
+        return String.format(Locale.ROOT, "%06d", SECURE_RANDOM.nextInt(OTP_MODULUS));
+    }
+
+    boolean verifyTotp(FakeUser user,
+                       String base32Secret,
+                       String code) {
+        if (base32Secret == null) {
+            return false;
+        }
+        long timeStepMillis = getTimeStepMillis();
+        long timeStep = System.currentTimeMillis() / timeStepMillis;
+        try {
+            for (long candidate = timeStep; candidate >= timeStep - 1 && candidate > user.lastUsedTotpTimeStep; candidate--) {
+                if (generateTotp(base32Secret, Instant.ofEpochMilli(candidate * timeStepMillis)).equals(code)) {
+                    user.lastUsedTotpTimeStep = candidate;
+                    return true;
+                }
+            }
+        } catch (InvalidKeyException ex) {
+            throw new IllegalStateException("Stored authenticator app secret is not a valid key", ex);
+        }
+        return false;
+    }
+
+    void sendEmailOtp(FakeUser user,
+                      String purpose,
+                      String subject) {
+        String otp = newOtp();
+        user.emailOtps.put(purpose, otp);
+        mailer.send(
+                user.email,
+                subject,
+                "Your Otp is " + otp + ". Do not share it with anyone."
+        );
+    }
+
+    boolean verifyEmailOtp(FakeUser user,
+                           String purpose,
+                           String code) {
+        String otp = user.emailOtps.get(purpose);
+        if (otp == null ||
+                !otp.equals(code)) {
+            return false;
+        }
+        user.emailOtps.remove(purpose);
+        return true;
+    }
+
+    boolean verifySecondFactor(FakeUser user,
+                               String method,
+                               String code,
+                               String emailOtpPurpose) {
+        return switch (method) {
+            case AUTHENTICATOR_APP_MFA -> verifyTotp(user, user.authenticatorAppSecret, code);
+            case EMAIL_MFA -> verifyEmailOtp(user, emailOtpPurpose, code);
+            default -> false;
+        };
+    }
+
+    static final class FakeUser {
+        final long id;
+        final Set<String> roles = new TreeSet<>();
+        final Map<String, String> emailOtps = new HashMap<>();
+        final Set<Session> sessions = new LinkedHashSet<>();
+        String username;
+        String password;
+        String email;
+        String firstName;
+        String middleName;
+        String lastName;
+        String createdBy;
+        String updatedBy;
+        boolean emailVerified;
+        boolean accountLocked;
+        boolean accountEnabled;
+        boolean accountDeleted;
+        boolean globalAdmin;
+        int failedLoginAttempts;
+        long lockedUntilMillis;
+        String authenticatorAppSecret;
+        String pendingAuthenticatorAppSecret;
+        boolean emailMfaEnabled;
+        long lastUsedTotpTimeStep = Long.MIN_VALUE;
+        String pendingNewEmail;
+
+        private FakeUser(long id) {
+            this.id = id;
+        }
+
+        List<String> mfaMethods() {
+            List<String> methods = new ArrayList<>(2);
+            if (authenticatorAppSecret != null) {
+                methods.add(AUTHENTICATOR_APP_MFA);
+            }
+            if (emailMfaEnabled) {
+                methods.add(EMAIL_MFA);
+            }
+            return methods;
+        }
+
+        boolean hasMfa() {
+            return authenticatorAppSecret != null ||
+                    emailMfaEnabled;
+        }
+
+        Map<String, Object> toRecord() {
+            Map<String, Object> record = new LinkedHashMap<>();
+            record.put("id", id);
+            record.put("username", username);
+            record.put("email", email);
+            record.put("firstName", firstName);
+            record.put("middleName", middleName);
+            record.put("lastName", lastName);
+            record.put("roles", new ArrayList<>(roles));
+            record.put("mfaMethods", mfaMethods());
+            record.put("emailVerified", emailVerified);
+            record.put("accountLocked", accountLocked);
+            record.put("accountEnabled", accountEnabled);
+            record.put("accountDeleted", accountDeleted);
+            record.put("createdBy", createdBy);
+            record.put("updatedBy", updatedBy);
+            return record;
+        }
+    }
+
+    static final class FakeRole {
+        final String roleName;
+        final Set<String> permissions = new TreeSet<>();
+        String description;
+        boolean systemRole;
+        String createdBy;
+        String updatedBy;
+
+        FakeRole(String roleName) {
+            this.roleName = roleName;
+        }
+
+        Map<String, Object> toRecord() {
+            Map<String, Object> record = new LinkedHashMap<>();
+            record.put("roleName", roleName);
+            record.put("description", description);
+            record.put("permissions", new ArrayList<>(permissions));
+            record.put("systemRole", systemRole);
+            record.put("createdBy", createdBy);
+            record.put("updatedBy", updatedBy);
+            return record;
+        }
+    }
+
+    static final class Session {
+        final FakeUser user;
+        final String deviceId;
+        final String refreshToken;
+        String accessToken;
+        long accessTokenExpiresAtMillis;
+
+        private Session(FakeUser user,
+                        String deviceId,
+                        String refreshToken) {
+            this.user = user;
+            this.deviceId = deviceId;
+            this.refreshToken = refreshToken;
+        }
+    }
+
+    private record PendingLogin(FakeUser user,
+                                long expiresAtMillis) {
+    }
+
+    static void requireDeviceId(String deviceId) {
+        if (deviceId == null ||
+                deviceId.isBlank()) {
+            throw badRequest("Missing X-Device-ID header");
+        }
+    }
+}
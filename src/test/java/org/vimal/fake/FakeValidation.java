@@ -0,0 +1,157 @@
+package org.vimal.fake;
+
+import org.vimal.dtos.UserDto;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+final class FakeValidation {
+    private FakeValidation() {
+    }
+
+    private static final Pattern USERNAME_PATTERN = Pattern.compile("[A-Za-z0-9_-]{3,100}");
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("(?=[^@]{1,64}@)[A-Za-z0-9!#$%&'*+/=?^_`{|}~-]+(?:\\.[A-Za-z0-9!#$%&'*+/=?^_`{|}~-]+)*@(?:[A-Za-z0-9](?:[A-Za-z0-9-]{0,61}[A-Za-z0-9])?\\.)+[A-Za-z]{2,63}");
+    private static final Pattern NAME_PATTERN = Pattern.compile("[A-Za-z]+(?: [A-Za-z]+)*");
+    private static final Pattern ROLE_OR_PERMISSION_NAME_PATTERN = Pattern.compile("[A-Za-z0-9_]{1,100}");
+    private static final Pattern OTP_PATTERN = Pattern.compile("[0-9]{6}");
+    private static final Pattern UUID_PATTERN = Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[1-5][0-9a-fA-F]{3}-[89abAB][0-9a-fA-F]{3}-[0-9a-fA-F]{12}");
+    private static final int MAX_EMAIL_LENGTH = 254;
+    private static final int MIN_PASSWORD_LENGTH = 8;
+    private static final int MAX_PASSWORD_LENGTH = 255;
+    private static final int MAX_NAME_LENGTH = 50;
+    static final int MAX_DESCRIPTION_LENGTH = 255;
+
+    static boolean isValidUsername(String username) {
+        return username != null &&
+                USERNAME_PATTERN.matcher(username)
+                        .matches();
+    }
+
+    static boolean isValidEmail(String email) {
+        return email != null &&
+                email.length() <= MAX_EMAIL_LENGTH &&
+                EMAIL_PATTERN.matcher(email)
+                        .matches();
+    }
+
+    static boolean isValidUsernameOrEmail(String usernameOrEmail) {
+        return usernameOrEmail != null &&
+                (usernameOrEmail.indexOf('@') >= 0 ? isValidEmail(usernameOrEmail) : isValidUsername(usernameOrEmail));
+    }
+
+    static boolean isValidPassword(String password) {
+        if (password == null ||
+                password.length() < MIN_PASSWORD_LENGTH ||
+                password.length() > MAX_PASSWORD_LENGTH) {
+            return false;
+        }
+        boolean lower = false;
+        boolean upper = false;
+        boolean digit = false;
+        boolean special = false;
+        char c;
+        for (int i = 0; i < password.length(); i++) {
+            c = password.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                lower = true;
+            } else if (c >= 'A' && c <= 'Z') {
+                upper = true;
+            } else if (c >= '0' && c <= '9') {
+                digit = true;
+            } else if (!Character.isWhitespace(c)) {
+                special = true;
+            }
+        }
+        return lower && upper && digit && special;
+    }
+
+    static boolean isValidName(String name) {
+        return name != null &&
+                name.length() <= MAX_NAME_LENGTH &&
+                NAME_PATTERN.matcher(name)
+                        .matches();
+    }
+
+    static boolean isValidRoleOrPermissionName(String name) {
+        return name != null &&
+                ROLE_OR_PERMISSION_NAME_PATTERN.matcher(name)
+                        .matches();
+    }
+
+    static boolean isValidOtp(String otp) {
+        return otp != null &&
+                OTP_PATTERN.matcher(otp)
+                        .matches();
+    }
+
+    static boolean isValidUuid(String uuid) {
+        return uuid != null &&
+                UUID_PATTERN.matcher(uuid)
+                        .matches();
+    }
+
+    static boolean isValidDescription(String description) {
+        return description == null ||
+                description.length() <= MAX_DESCRIPTION_LENGTH;
+    }
+
+    static void validateNewUser(UserDto user,
+                                List<String> invalidInputs) {
+        if (!isValidUsername(user.getUsername())) {
+            invalidInputs.add("Invalid username: '" + user.getUsername() + "'");
+        }
+        if (!isValidEmail(user.getEmail())) {
+            invalidInputs.add("Invalid email: '" + user.getEmail() + "'");
+        }
+        if (!isValidPassword(user.getPassword())) {
+            invalidInputs.add("Invalid password for user: '" + user.getUsername() + "'");
+        }
+        if (!isValidName(user.getFirstName())) {
+            invalidInputs.add("Invalid first name: '" + user.getFirstName() + "'");
+        }
+        validateOptionalNames(user, invalidInputs);
+    }
+
+    static void validateUserUpdate(UserDto user,
+                                   List<String> invalidInputs) {
+        if (!isValidUsername(user.getOldUsername())) {
+            invalidInputs.add("Invalid old username: '" + user.getOldUsername() + "'");
+        }
+        if (user.getUsername() != null &&
+                !isValidUsername(user.getUsername())) {
+            invalidInputs.add("Invalid username: '" + user.getUsername() + "'");
+        }
+        if (user.getEmail() != null &&
+                !isValidEmail(user.getEmail())) {
+            invalidInputs.add("Invalid email: '" + user.getEmail() + "'");
+        }
+        if (user.getPassword() != null &&
+                !isValidPassword(user.getPassword())) {
+            invalidInputs.add("Invalid password for user: '" + user.getOldUsername() + "'");
+        }
+        if (user.getFirstName() != null &&
+                !isValidName(user.getFirstName())) {
+            invalidInputs.add("Invalid first name: '" + user.getFirstName() + "'");
+        }
+        validateOptionalNames(user, invalidInputs);
+    }
+
+    private static void validateOptionalNames(UserDto user,
+                                              List<String> invalidInputs) {
+        if (user.getMiddleName() != null &&
+                !isValidName(user.getMiddleName())) {
+            invalidInputs.add("Invalid middle name: '" + user.getMiddleName() + "'");
+        }
+        if (user.getLastName() != null &&
+                !isValidName(user.getLastName())) {
+            invalidInputs.add("Invalid last name: '" + user.getLastName() + "'");
+        }
+        if (user.getRoles() != null) {
+            for (String role : user.getRoles()) {
+                if (!isValidRoleOrPermissionName(role)) {
+                    invalidInputs.add("Invalid role name: '" + role + "'");
+                }
+            }
+        }
+    }
+}
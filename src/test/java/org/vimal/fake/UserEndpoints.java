@@ -0,0 +1,381 @@
+package org.vimal.fake;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.vimal.dtos.UserDto;
+import org.vimal.fake.FakeState.FakeUser;
+import org.vimal.fake.FakeState.Session;
+
+import java.util.*;
+
+import static org.vimal.constants.Common.EMAIL_MFA;
+import static org.vimal.fake.AuthEndpoints.requireMfaType;
+import static org.vimal.fake.FakeApiException.badRequest;
+import static org.vimal.fake.FakeResponse.message;
+import static org.vimal.fake.FakeResponse.ok;
+import static org.vimal.fake.FakeState.SELF;
+import static org.vimal.fake.FakeValidation.*;
+
+final class UserEndpoints {
+    private UserEndpoints() {
+    }
+
+    private static final TypeReference<Map<String, String>> STRING_MAP = new TypeReference<>() {
+    };
+    private static final String RESET_PASSWORD = "reset_password";
+    private static final String CHANGE_PASSWORD = "change_password";
+    private static final String DELETE_ACCOUNT = "delete_account";
+    private static final String NEW_EMAIL = "new_email";
+    private static final String OLD_EMAIL = "old_email";
+
+    static void register(Map<String, FakeEndpoint> endpoints,
+                         FakeState state) {
+        endpoints.put("POST /user/register", request -> register(state, request));
+        endpoints.put("GET /user/getSelfDetails", request -> ok(state.authenticate(request).user.toRecord()));
+        endpoints.put("POST /user/verifyEmail", request -> {
+            FakeUser user = state.consumeEmailVerificationToken(request.param("emailVerificationToken"));
+            user.emailVerified = true;
+            return message("Email verification successful");
+        });
+        endpoints.put("POST /user/resend/emailVerification/link", request -> resendEmailVerificationLink(state, request));
+        endpoints.put("POST /user/forgot/password", request -> forgotPassword(state, request));
+        endpoints.put("POST /user/reset/password", request -> resetPassword(state, request));
+        endpoints.put("POST /user/change/password", request -> changePassword(state, request));
+        endpoints.put("POST /user/verify/change/password", request -> verifyChangePassword(state, request));
+        endpoints.put("POST /user/email/change/request", request -> emailChangeRequest(state, request));
+        endpoints.put("POST /user/verify/email/change", request -> verifyEmailChange(state, request));
+        endpoints.put("DELETE /user/delete/account", request -> deleteAccount(state, request));
+        endpoints.put("DELETE /user/verify/delete/account", request -> verifyDeleteAccount(state, request));
+        endpoints.put("PUT /user/update/details", request -> updateDetails(state, request));
+        endpoints.put("GET /user/active/devices", request -> activeDevices(state, request));
+    }
+
+    private static FakeResponse register(FakeState state,
+                                         FakeRequest request) {
+        UserDto dto = request.body(new TypeReference<>() {
+        });
+        List<String> invalidInputs = new ArrayList<>();
+        dto.setRoles(null);
+        validateNewUser(dto, invalidInputs);
+        if (!invalidInputs.isEmpty()) {
+            throw badRequest("invalid_inputs", invalidInputs);
+        }
+        if (state.isUsernameTaken(dto.getUsername())) {
+            throw badRequest("Username: '" + dto.getUsername() + "' is already taken");
+        }
+        if (state.isEmailTaken(dto.getEmail())) {
+            throw badRequest("Email: '" + dto.getEmail() + "' is already taken");
+        }
+        dto.setEmailVerified(false);
+        dto.setAccountLocked(false);
+        dto.setAccountEnabled(true);
+        FakeUser user = state.addUser(dto, SELF);
+        sendEmailVerificationLink(state, user, "Email verification link after registration");
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("message", "Registration successful. Please check your email for the verification link");
+        body.put("user", user.toRecord());
+        return ok(body);
+    }
+
+    private static FakeResponse resendEmailVerificationLink(FakeState state,
+                                                            FakeRequest request) {
+        FakeUser user = requireUser(state, request.param("usernameOrEmail"));
+        if (user.emailVerified) {
+            throw badRequest("Email is already verified");
+        }
+        sendEmailVerificationLink(state, user, "Resending email verification link after registration");
+        return message("Email verification link resent successfully. Please check your email");
+    }
+
+    private static void sendEmailVerificationLink(FakeState state,
+                                                  FakeUser user,
+                                                  String subject) {
+        state.mailer()
+                .send(
+                        user.email,
+                        subject,
+                        "Verify your email using this token: " + state.issueEmailVerificationToken(user)
+                );
+    }
+
+    private static FakeResponse forgotPassword(FakeState state,
+                                               FakeRequest request) {
+        FakeUser user = requireUser(state, request.param("usernameOrEmail"));
+        if (!user.emailVerified) {
+            throw badRequest("Email is not verified");
+        }
+        state.sendEmailOtp(user, RESET_PASSWORD, "Otp for resetting password");
+        List<String> methods = new ArrayList<>(user.mfaMethods());
+        if (!methods.contains(EMAIL_MFA)) {
+            methods.add(EMAIL_MFA);
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("message", "Please reset your password using the Otp sent to your email or one of your Mfa methods");
+        body.put("mfa_methods", methods);
+        return ok(body);
+    }
+
+    private static FakeResponse resetPassword(FakeState state,
+                                              FakeRequest request) {
+        Map<String, String> body = request.body(STRING_MAP);
+        List<String> invalidInputs = new ArrayList<>();
+        if (!isValidUsernameOrEmail(body.get("usernameOrEmail"))) {
+            invalidInputs.add("Invalid username or email");
+        }
+        validateSecondFactorInputs(body, invalidInputs);
+        validateNewPassword(body, invalidInputs);
+        if (!invalidInputs.isEmpty()) {
+            throw badRequest("invalid_inputs", invalidInputs);
+        }
+        FakeUser user = requireUser(state, body.get("usernameOrEmail"));
+        if (!state.verifySecondFactor(user, body.get("method"), body.get("otpTotp"), RESET_PASSWORD)) {
+            throw badRequest("Invalid Otp/Totp");
+        }
+        user.password = body.get("password");
+        user.failedLoginAttempts = 0;
+        user.lockedUntilMillis = 0;
+        state.revokeSessions(user);
+        return message("Password reset successful");
+    }
+
+    private static FakeResponse changePassword(FakeState state,
+                                               FakeRequest request) {
+        FakeUser user = state.authenticate(request).user;
+        Map<String, String> body = request.body(STRING_MAP);
+        List<String> invalidInputs = new ArrayList<>();
+        if (!isValidPassword(body.get("oldPassword"))) {
+            invalidInputs.add("Invalid old password");
+        }
+        validateNewPassword(body, invalidInputs);
+        if (!invalidInputs.isEmpty()) {
+            throw badRequest("invalid_inputs", invalidInputs);
+        }
+        if (!user.password.equals(body.get("oldPassword"))) {
+            throw badRequest("Invalid old password");
+        }
+        if (user.hasMfa()) {
+            return requireSecondFactor(state, user, CHANGE_PASSWORD, "changing password");
+        }
+        user.password = body.get("password");
+        return message("Password changed successfully");
+    }
+
+    private static FakeResponse verifyChangePassword(FakeState state,
+                                                     FakeRequest request) {
+        FakeUser user = state.authenticate(request).user;
+        Map<String, String> body = request.body(STRING_MAP);
+        List<String> invalidInputs = new ArrayList<>();
+        validateSecondFactorInputs(body, invalidInputs);
+        validateNewPassword(body, invalidInputs);
+        if (!invalidInputs.isEmpty()) {
+            throw badRequest("invalid_inputs", invalidInputs);
+        }
+        if (!state.verifySecondFactor(user, body.get("method"), body.get("otpTotp"), CHANGE_PASSWORD)) {
+            throw badRequest("Invalid Otp/Totp");
+        }
+        user.password = body.get("password");
+        return message("Password changed successfully");
+    }
+
+    private static FakeResponse emailChangeRequest(FakeState state,
+                                                   FakeRequest request) {
+        FakeUser user = state.authenticate(request).user;
+        String newEmail = request.param("newEmail");
+        if (!isValidEmail(newEmail)) {
+            throw badRequest("invalid_inputs", List.of("Invalid email: '" + newEmail + "'"));
+        }
+        if (newEmail.equalsIgnoreCase(user.email)) {
+            throw badRequest("New email cannot be same as current email");
+        }
+        if (state.isEmailTaken(newEmail)) {
+            throw badRequest("Email: '" + newEmail + "' is already taken");
+        }
+        user.pendingNewEmail = newEmail;
+        String otp = FakeState.newOtp();
+        user.emailOtps.put(NEW_EMAIL, otp);
+        state.mailer()
+                .send(newEmail, "Otp for email change in new email", "Your Otp is " + otp + ". Do not share it with anyone.");
+        state.sendEmailOtp(user, OLD_EMAIL, "Otp for email change in old email");
+        return message("Otp's sent to your new & old email. Please check your emails to verify your email change");
+    }
+
+    private static FakeResponse verifyEmailChange(FakeState state,
+                                                  FakeRequest request) {
+        FakeUser user = state.authenticate(request).user;
+        String newEmailOtp = request.param("newEmailOtp");
+        String oldEmailOtp = request.param("oldEmailOtp");
+        if (!isValidOtp(newEmailOtp) ||
+                !isValidOtp(oldEmailOtp)) {
+            throw badRequest("Invalid Otp's");
+        }
+        String password = request.param("password");
+        if (!isValidPassword(password)) {
+            throw badRequest("Invalid password");
+        }
+        if (user.pendingNewEmail == null ||
+                !newEmailOtp.equals(user.emailOtps.get(NEW_EMAIL)) ||
+                !oldEmailOtp.equals(user.emailOtps.get(OLD_EMAIL))) {
+            throw badRequest("Invalid Otp's");
+        }
+        if (!user.password.equals(password)) {
+            throw badRequest("Invalid password");
+        }
+        if (state.isEmailTaken(user.pendingNewEmail)) {
+            throw badRequest("Email: '" + user.pendingNewEmail + "' is already taken");
+        }
+        user.emailOtps.remove(NEW_EMAIL);
+        user.emailOtps.remove(OLD_EMAIL);
+        state.changeEmail(user, user.pendingNewEmail);
+        user.pendingNewEmail = null;
+        user.emailVerified = true;
+        user.updatedBy = SELF;
+        state.revokeSessions(user);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("message", "Email change successful. Please login again to continue");
+        body.put("user", user.toRecord());
+        return ok(body);
+    }
+
+    private static FakeResponse deleteAccount(FakeState state,
+                                              FakeRequest request) {
+        FakeUser user = state.authenticate(request).user;
+        String password = request.param("password");
+        if (!isValidPassword(password) ||
+                !user.password.equals(password)) {
+            throw badRequest("Invalid password");
+        }
+        if (user.hasMfa()) {
+            return requireSecondFactor(state, user, DELETE_ACCOUNT, "deleting your account");
+        }
+        state.softDeleteUser(user);
+        return message("Account deleted successfully");
+    }
+
+    private static FakeResponse verifyDeleteAccount(FakeState state,
+                                                    FakeRequest request) {
+        FakeUser user = state.authenticate(request).user;
+        String otpTotp = request.param("otpTotp");
+        if (!isValidOtp(otpTotp)) {
+            throw badRequest("Invalid Otp/Totp");
+        }
+        if (!state.verifySecondFactor(user, requireMfaType(request.param("method")), otpTotp, DELETE_ACCOUNT)) {
+            throw badRequest("Invalid Otp/Totp");
+        }
+        state.softDeleteUser(user);
+        return message("Account deleted successfully");
+    }
+
+    private static FakeResponse updateDetails(FakeState state,
+                                              FakeRequest request) {
+        FakeUser user = state.authenticate(request).user;
+        Map<String, String> body = request.body(STRING_MAP);
+        String username = body.get("username");
+        String firstName = body.get("firstName");
+        String middleName = body.get("middleName");
+        String lastName = body.get("lastName");
+        String oldPassword = body.get("oldPassword");
+        List<String> invalidInputs = new ArrayList<>();
+        if (username != null &&
+                !isValidUsername(username)) {
+            invalidInputs.add("Invalid username: '" + username + "'");
+        }
+        if (firstName != null &&
+                !isValidName(firstName)) {
+            invalidInputs.add("Invalid first name: '" + firstName + "'");
+        }
+        if (middleName != null &&
+                !isValidName(middleName)) {
+            invalidInputs.add("Invalid middle name: '" + middleName + "'");
+        }
+        if (lastName != null &&
+                !isValidName(lastName)) {
+            invalidInputs.add("Invalid last name: '" + lastName + "'");
+        }
+        if (!isValidPassword(oldPassword)) {
+            invalidInputs.add("Invalid old password");
+        }
+        if (!invalidInputs.isEmpty()) {
+            throw badRequest("invalid_inputs", invalidInputs);
+        }
+        if (!user.password.equals(oldPassword)) {
+            throw badRequest("Invalid old password");
+        }
+        if (username != null &&
+                !username.equals(user.username)) {
+            if (state.isUsernameTaken(username)) {
+                throw badRequest("Username: '" + username + "' is already taken");
+            }
+            state.renameUser(user, username);
+        }
+        if (firstName != null) {
+            user.firstName = firstName;
+        }
+        if (middleName != null) {
+            user.middleName = middleName;
+        }
+        if (lastName != null) {
+            user.lastName = lastName;
+        }
+        user.updatedBy = SELF;
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("message", "User details updated successfully");
+        response.put("user", user.toRecord());
+        return ok(response);
+    }
+
+    private static FakeResponse activeDevices(FakeState state,
+                                              FakeRequest request) {
+        Session current = state.authenticate(request);
+        Set<String> deviceIds = new LinkedHashSet<>();
+        for (Session session : current.user.sessions) {
+            deviceIds.add(session.deviceId);
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("current_device_id", current.deviceId);
+        body.put("active_devices", deviceIds);
+        return ok(body);
+    }
+
+    private static FakeResponse requireSecondFactor(FakeState state,
+                                                    FakeUser user,
+                                                    String purpose,
+                                                    String action) {
+        if (user.emailMfaEnabled) {
+            state.sendEmailOtp(user, purpose, "Otp for " + action);
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("message", "Please verify using one of your Mfa methods before " + action);
+        body.put("mfa_methods", user.mfaMethods());
+        return ok(body);
+    }
+
+    private static FakeUser requireUser(FakeState state,
+                                        String usernameOrEmail) {
+        FakeUser user = isValidUsernameOrEmail(usernameOrEmail) ? state.findUser(usernameOrEmail) : null;
+        if (user == null ||
+                user.accountDeleted) {
+            throw badRequest("Invalid username or email");
+        }
+        return user;
+    }
+
+    private static void validateSecondFactorInputs(Map<String, String> body,
+                                                   List<String> invalidInputs) {
+        if (!isValidOtp(body.get("otpTotp"))) {
+            invalidInputs.add("Invalid Otp/Totp");
+        }
+        String method = body.get("method");
+        if (!AuthEndpoints.isMfaType(method)) {
+            invalidInputs.add("Unsupported Mfa type: '" + method + "'");
+        }
+    }
+
+    private static void validateNewPassword(Map<String, String> body,
+                                            List<String> invalidInputs) {
+        String password = body.get("password");
+        if (!isValidPassword(password)) {
+            invalidInputs.add("Invalid password");
+        } else if (!password.equals(body.get("confirmPassword"))) {
+            invalidInputs.add("Password and confirm password do not match");
+        }
+    }
+}
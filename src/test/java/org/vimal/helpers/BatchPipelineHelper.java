@@ -0,0 +1,87 @@
+package org.vimal.helpers;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+public final class BatchPipelineHelper {
+    private BatchPipelineHelper() {
+    }
+
+    public static final int DEFAULT_MAX_IN_FLIGHT_BATCHES = Integer.getInteger("batch.max.in.flight", 4);
+
+    @FunctionalInterface
+    public interface BatchCall<T> {
+        void call(Set<T> batch) throws Exception;
+    }
+
+    public record BatchFailure<T>(int batchNumber,
+                                  Set<T> batch,
+                                  Throwable cause) {
+    }
+
+    public static <T> List<BatchFailure<T>> processInBatches(Iterable<T> items,
+                                                             int batchSize,
+                                                             BatchCall<T> batchCall) throws InterruptedException {
+        return processInBatches(
+                items.iterator(),
+                batchSize,
+                DEFAULT_MAX_IN_FLIGHT_BATCHES,
+                batchCall
+        );
+    }
+
+    public static <T> List<BatchFailure<T>> processInBatches(Iterator<T> iterator,
+                                                             int batchSize,
+                                                             int maxInFlightBatches,
+                                                             BatchCall<T> batchCall) throws InterruptedException {
+        Semaphore inFlightBatches = new Semaphore(Math.max(1, maxInFlightBatches));
+        Queue<BatchFailure<T>> failures = new ConcurrentLinkedQueue<>();
+        int batchNumber = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (iterator.hasNext()) {
+                Set<T> batch = new LinkedHashSet<>();
+                while (iterator.hasNext() &&
+                        batch.size() < batchSize) {
+                    batch.add(iterator.next());
+                }
+                inFlightBatches.acquire();
+                int currentBatchNumber = ++batchNumber;
+                executor.execute(() -> {
+                    try {
+                        batchCall.call(batch);
+                    } catch (Throwable ex) {
+                        failures.add(new BatchFailure<>(currentBatchNumber, batch, ex));
+                    } finally {
+                        inFlightBatches.release();
+                    }
+                });
+            }
+        }
+        List<BatchFailure<T>> result = new ArrayList<>(failures);
+        result.sort(Comparator.comparingInt(BatchFailure::batchNumber));
+        return result;
+    }
+
+    public static <T> void assertNoBatchFailures(List<BatchFailure<T>> failures) {
+        if (failures.isEmpty()) {
+            return;
+        }
+        StringBuilder message = new StringBuilder(failures.size() + " batch(es) failed:");
+        for (BatchFailure<T> failure : failures) {
+            message.append("\n  batch #")
+                    .append(failure.batchNumber())
+                    .append(" (")
+                    .append(failure.batch().size())
+                    .append(" items): ")
+                    .append(failure.cause());
+        }
+        AssertionError error = new AssertionError(message.toString(), failures.getFirst().cause());
+        for (int i = 1; i < failures.size(); i++) {
+            error.addSuppressed(failures.get(i).cause());
+        }
+        throw error;
+    }
+}
@@ -0,0 +1,165 @@
+package org.vimal.helpers;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.restassured.response.Response;
+import lombok.extern.slf4j.Slf4j;
+import org.vimal.api.AdminCalls;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.vimal.constants.Common.ENABLE;
+import static org.vimal.constants.Common.MAX_BATCH_SIZE_OF_USER_READ_AT_A_TIME;
+import static org.vimal.helpers.BatchPipelineHelper.DEFAULT_MAX_IN_FLIGHT_BATCHES;
+import static org.vimal.helpers.BatchPipelineHelper.processInBatches;
+
+@Slf4j
+public final class BulkExportHelper {
+    private BulkExportHelper() {
+    }
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final String FOUND_USERS = "found_users";
+    private static final String USERS_NOT_FOUND = "users_not_found";
+
+    public record ExportSummary(long requestedUsers,
+                                long exportedUsers,
+                                List<String> usersNotFound,
+                                long batches,
+                                List<BatchPipelineHelper.BatchFailure<String>> failures) {
+    }
+
+    public static ExportSummary exportUsers(Path usernamesFile,
+                                            Path output,
+                                            String accessToken) throws IOException, InterruptedException {
+        try (BufferedReader reader = Files.newBufferedReader(usernamesFile)) {
+            return exportUsers(
+                    reader.lines()
+                            .map(String::strip)
+                            .filter(username -> !username.isEmpty())
+                            .iterator(),
+                    output,
+                    accessToken
+            );
+        }
+    }
+
+    public static ExportSummary exportUsers(Iterator<String> usernamesOrEmails,
+                                            Path output,
+                                            String accessToken) throws IOException, InterruptedException {
+        long startedAt = System.nanoTime();
+        Path parent = output.toAbsolutePath()
+                .getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        LongAdder requestedUsers = new LongAdder();
+        LongAdder exportedUsers = new LongAdder();
+        LongAdder batches = new LongAdder();
+        Collection<String> usersNotFound = new ConcurrentLinkedQueue<>();
+        ReentrantLock outputLock = new ReentrantLock();
+        List<BatchPipelineHelper.BatchFailure<String>> failures;
+        try (OutputStream out = Files.newOutputStream(output)) {
+            failures = processInBatches(
+                    usernamesOrEmails,
+                    MAX_BATCH_SIZE_OF_USER_READ_AT_A_TIME,
+                    DEFAULT_MAX_IN_FLIGHT_BATCHES,
+                    batch -> {
+                        batches.increment();
+                        requestedUsers.add(batch.size());
+                        Response response = AdminCalls.readUsers(
+                                accessToken,
+                                batch,
+                                ENABLE
+                        );
+                        if (response.statusCode() != 200) {
+                            throw new RuntimeException("Reading users failed with status " + response.statusCode() + ": " + response.asString());
+                        }
+                        byte[] responseBody = response.asByteArray();
+                        ByteArrayOutputStream lines = new ByteArrayOutputStream(responseBody.length);
+                        exportedUsers.add(writeFoundUsersAsJsonLines(responseBody, lines, usersNotFound));
+                        outputLock.lock();
+                        try {
+                            lines.writeTo(out);
+                        } finally {
+                            outputLock.unlock();
+                        }
+                    }
+            );
+        }
+        ExportSummary summary = new ExportSummary(
+                requestedUsers.sum(),
+                exportedUsers.sum(),
+                new ArrayList<>(usersNotFound),
+                batches.sum(),
+                failures
+        );
+        log.info(
+                "Exported {} of {} requested user(s) to '{}' in {} batch(es) & {} ms ({} not found, {} failed batch(es))",
+                summary.exportedUsers(),
+                summary.requestedUsers(),
+                output,
+                summary.batches(),
+                (System.nanoTime() - startedAt) / 1_000_000,
+                summary.usersNotFound()
+                        .size(),
+                failures.size()
+        );
+        return summary;
+    }
+
+    private static int writeFoundUsersAsJsonLines(byte[] responseBody,
+                                                  OutputStream out,
+                                                  Collection<String> usersNotFound) throws IOException {
+        int written = 0;
+        try (JsonParser parser = JSON_FACTORY.createParser(responseBody);
+             JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a json object in the read users response");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                if (USERS_NOT_FOUND.equals(parser.currentName())) {
+                    if (parser.nextToken() != JsonToken.START_ARRAY) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    while (parser.nextToken() == JsonToken.VALUE_STRING) {
+                        usersNotFound.add(parser.getText());
+                    }
+                    continue;
+                }
+                if (!FOUND_USERS.equals(parser.currentName())) {
+                    parser.nextToken();
+                    parser.skipChildren();
+                    continue;
+                }
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    generator.copyCurrentStructure(parser);
+                    generator.flush();
+                    out.write('\n');
+                    written++;
+                }
+            }
+        }
+        return written;
+    }
+}
@@ -0,0 +1,481 @@
+package org.vimal.helpers;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+import lombok.extern.slf4j.Slf4j;
+import org.vimal.api.AdminCalls;
+import org.vimal.dtos.RoleDto;
+import org.vimal.dtos.UserDto;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import static org.vimal.constants.Common.MAX_BATCH_SIZE_OF_ROLE_CREATION_AT_A_TIME;
+import static org.vimal.constants.Common.MAX_BATCH_SIZE_OF_USER_CREATION_AT_A_TIME;
+import static org.vimal.helpers.BatchPipelineHelper.DEFAULT_MAX_IN_FLIGHT_BATCHES;
+import static org.vimal.helpers.BatchPipelineHelper.processInBatches;
+
+@Slf4j
+public final class BulkImportHelper {
+    private BulkImportHelper() {
+    }
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private static final Set<String> COLLECTION_COLUMNS = Set.of("roles", "permissions");
+    private static final String COLLECTION_SEPARATOR = ";";
+    private static final String IMPORTED = "IMPORTED";
+    private static final String SKIPPED = "SKIPPED";
+    private static final String FAILED = "FAILED";
+    private static final String INVALID = "INVALID";
+
+    public record ImportSummary(long rows,
+                                long importedRows,
+                                long skippedRows,
+                                long failedRows,
+                                long invalidRows,
+                                long batches) {
+    }
+
+    private record ImportRow<T>(long lineNumber,
+                                T dto) {
+    }
+
+    private record ConflictList<T>(String path,
+                                   Function<T, String> key) {
+    }
+
+    public static ImportSummary importUsers(Path source,
+                                            Path results,
+                                            String accessToken,
+                                            String leniency) throws IOException, InterruptedException {
+        return importRows(
+                source,
+                results,
+                UserDto.class,
+                UserDto::getUsername,
+                "created_users",
+                "username",
+                List.of(
+                        new ConflictList<>("already_taken_usernames", UserDto::getUsername),
+                        new ConflictList<>("already_taken_emails", UserDto::getEmail)
+                ),
+                MAX_BATCH_SIZE_OF_USER_CREATION_AT_A_TIME,
+                batch -> AdminCalls.createUsers(accessToken, batch, leniency)
+        );
+    }
+
+    public static ImportSummary importRoles(Path source,
+                                            Path results,
+                                            String accessToken,
+                                            String leniency) throws IOException, InterruptedException {
+        return importRows(
+                source,
+                results,
+                RoleDto.class,
+                RoleDto::getRoleName,
+                "created_roles",
+                "roleName",
+                List.of(new ConflictList<>("already_taken_role_names", RoleDto::getRoleName)),
+                MAX_BATCH_SIZE_OF_ROLE_CREATION_AT_A_TIME,
+                batch -> AdminCalls.createRoles(accessToken, batch, leniency)
+        );
+    }
+
+    @FunctionalInterface
+    private interface CreateCall<T> {
+        Response create(Set<T> batch) throws Exception;
+    }
+
+    private static <T> ImportSummary importRows(Path source,
+                                                Path results,
+                                                Class<T> type,
+                                                Function<T, String> name,
+                                                String createdPath,
+                                                String createdNameField,
+                                                List<ConflictList<T>> conflictLists,
+                                                int batchSize,
+                                                CreateCall<T> createCall) throws IOException, InterruptedException {
+        long startedAt = System.nanoTime();
+        Path parent = results.toAbsolutePath()
+                .getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (BufferedReader reader = Files.newBufferedReader(source);
+             ResultWriter resultWriter = new ResultWriter(Files.newBufferedWriter(results))) {
+            RowIterator<T> rows = new RowIterator<>(
+                    reader,
+                    isCsv(source),
+                    type,
+                    resultWriter
+            );
+            LongAdder batches = new LongAdder();
+            List<BatchPipelineHelper.BatchFailure<ImportRow<T>>> failures = processInBatches(
+                    rows,
+                    batchSize,
+                    DEFAULT_MAX_IN_FLIGHT_BATCHES,
+                    batch -> {
+                        batches.increment();
+                        Set<T> dtos = new LinkedHashSet<>(batch.size() * 2);
+                        for (ImportRow<T> row : batch) {
+                            dtos.add(row.dto());
+                        }
+                        Response response;
+                        try {
+                            response = createCall.create(dtos);
+                        } catch (Exception ex) {
+                            for (ImportRow<T> row : batch) {
+                                resultWriter.write(row.lineNumber(), name.apply(row.dto()), FAILED, 0, ex.toString());
+                            }
+                            return;
+                        }
+                        if (response.statusCode() / 100 != 2) {
+                            String detail = response.asString();
+                            for (ImportRow<T> row : batch) {
+                                resultWriter.write(row.lineNumber(), name.apply(row.dto()), FAILED, response.statusCode(), detail);
+                            }
+                            return;
+                        }
+                        writeRowResults(batch, response, name, createdPath, createdNameField, conflictLists, resultWriter);
+                    }
+            );
+            // A batch can fail after some of its rows were written, those keep their result and are not counted twice.
+            for (BatchPipelineHelper.BatchFailure<ImportRow<T>> failure : failures) {
+                for (ImportRow<T> row : failure.batch()) {
+                    if (!resultWriter.isWritten(row.lineNumber())) {
+                        resultWriter.write(row.lineNumber(), name.apply(row.dto()), FAILED, 0, failure.cause().toString());
+                    }
+                }
+            }
+            ImportSummary summary = new ImportSummary(
+                    rows.rowCount,
+                    resultWriter.count(IMPORTED),
+                    resultWriter.count(SKIPPED),
+                    resultWriter.count(FAILED),
+                    resultWriter.count(INVALID),
+                    batches.sum()
+            );
+            log.info(
+                    "Imported {} of {} {} row(s) from '{}' in {} batch(es) & {} ms ({} skipped, {} failed, {} invalid), results written to '{}'",
+                    summary.importedRows(),
+                    summary.rows(),
+                    type.getSimpleName(),
+                    source,
+                    summary.batches(),
+                    (System.nanoTime() - startedAt) / 1_000_000,
+                    summary.skippedRows(),
+                    summary.failedRows(),
+                    summary.invalidRows(),
+                    results
+            );
+            return summary;
+        }
+    }
+
+    // A lenient create answers 2xx even when it skips rows, so each row is looked up in the created records and the
+    // conflict lists of the body rather than taking the status code for the whole batch. A created record is claimed
+    // by the first row in file order, so a repeated name within the batch is not reported as imported twice.
+    private static <T> void writeRowResults(Set<ImportRow<T>> batch,
+                                            Response response,
+                                            Function<T, String> name,
+                                            String createdPath,
+                                            String createdNameField,
+                                            List<ConflictList<T>> conflictLists,
+                                            ResultWriter resultWriter) {
+        JsonPath body = response.jsonPath();
+        Map<String, Integer> created = new HashMap<>();
+        List<String> createdNames = body.getList(createdPath + "." + createdNameField, String.class);
+        if (createdNames != null) {
+            for (String createdName : createdNames) {
+                created.merge(lowerCase(createdName), 1, Integer::sum);
+            }
+        }
+        List<Set<String>> conflicts = new ArrayList<>(conflictLists.size());
+        for (ConflictList<T> conflictList : conflictLists) {
+            conflicts.add(toLowerCaseSet(body.getList(conflictList.path(), String.class)));
+        }
+        T dto;
+        String key;
+        StringJoiner reasons;
+        for (ImportRow<T> row : batch) {
+            dto = row.dto();
+            if (claim(created, lowerCase(name.apply(dto)))) {
+                resultWriter.write(row.lineNumber(), name.apply(dto), IMPORTED, response.statusCode(), "");
+                continue;
+            }
+            reasons = new StringJoiner(";");
+            for (int i = 0; i < conflictLists.size(); i++) {
+                key = conflictLists.get(i)
+                        .key()
+                        .apply(dto);
+                if (key != null &&
+                        conflicts.get(i)
+                                .contains(lowerCase(key))) {
+                    reasons.add(conflictLists.get(i)
+                            .path());
+                }
+            }
+            if (reasons.length() > 0) {
+                resultWriter.write(row.lineNumber(), name.apply(dto), SKIPPED, response.statusCode(), reasons.toString());
+            } else {
+                resultWriter.write(row.lineNumber(), name.apply(dto), FAILED, response.statusCode(), "not in " + createdPath + " of the response");
+            }
+        }
+    }
+
+    private static boolean claim(Map<String, Integer> created,
+                                 String name) {
+        Integer remaining = created.get(name);
+        if (remaining == null) {
+            return false;
+        }
+        if (remaining == 1) {
+            created.remove(name);
+        } else {
+            created.put(name, remaining - 1);
+        }
+        return true;
+    }
+
+    private static Set<String> toLowerCaseSet(List<String> values) {
+        if (values == null) {
+            return new HashSet<>();
+        }
+        Set<String> set = HashSet.newHashSet(values.size());
+        for (String value : values) {
+            set.add(lowerCase(value));
+        }
+        return set;
+    }
+
+    private static String lowerCase(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isCsv(Path source) {
+        String fileName = source.getFileName()
+                .toString()
+                .toLowerCase(Locale.ROOT);
+        if (fileName.endsWith(".csv")) {
+            return true;
+        }
+        if (fileName.endsWith(".jsonl") ||
+                fileName.endsWith(".ndjson")) {
+            return false;
+        }
+        throw new IllegalArgumentException("Unsupported import file '" + source + "', expected a .csv or .jsonl file");
+    }
+
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        char c;
+        for (int i = 0; i < line.length(); i++) {
+            c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() &&
+                        line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 &&
+                value.indexOf('"') < 0 &&
+                value.indexOf('\n') < 0 &&
+                value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static final class RowIterator<T> implements Iterator<ImportRow<T>> {
+        private final BufferedReader reader;
+        private final boolean csv;
+        private final Class<T> type;
+        private final ResultWriter resultWriter;
+        private List<String> header;
+        private long lineNumber;
+        private long rowCount;
+        private ImportRow<T> next;
+
+        private RowIterator(BufferedReader reader,
+                            boolean csv,
+                            Class<T> type,
+                            ResultWriter resultWriter) {
+            this.reader = reader;
+            this.csv = csv;
+            this.type = type;
+            this.resultWriter = resultWriter;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    if (csv &&
+                            header == null) {
+                        header = parseCsvLine(line.strip());
+                        continue;
+                    }
+                    rowCount++;
+                    try {
+                        next = new ImportRow<>(lineNumber, csv ? fromCsv(line) : OBJECT_MAPPER.readValue(line, type));
+                        return true;
+                    } catch (IOException | IllegalArgumentException ex) {
+                        resultWriter.write(lineNumber, "", INVALID, 0, ex.getMessage());
+                    }
+                }
+                return false;
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not read import file at line " + lineNumber, ex);
+            }
+        }
+
+        @Override
+        public ImportRow<T> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ImportRow<T> row = next;
+            next = null;
+            return row;
+        }
+
+        private T fromCsv(String line) {
+            List<String> fields = parseCsvLine(line);
+            if (fields.size() > header.size()) {
+                throw new IllegalArgumentException("Expected at most " + header.size() + " column(s) but found " + fields.size());
+            }
+            Map<String, Object> values = HashMap.newHashMap(fields.size());
+            String column;
+            String value;
+            for (int i = 0; i < fields.size(); i++) {
+                column = header.get(i);
+                value = fields.get(i);
+                if (value.isEmpty()) {
+                    continue;
+                }
+                if (COLLECTION_COLUMNS.contains(column)) {
+                    Set<String> elements = new LinkedHashSet<>();
+                    for (String element : value.split(COLLECTION_SEPARATOR)) {
+                        if (!element.isBlank()) {
+                            elements.add(element.strip());
+                        }
+                    }
+                    values.put(column, elements);
+                } else {
+                    values.put(column, value);
+                }
+            }
+            return OBJECT_MAPPER.convertValue(values, type);
+        }
+    }
+
+    private static final class ResultWriter implements AutoCloseable {
+        private final BufferedWriter writer;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final BitSet writtenLines = new BitSet();
+        private final Map<String, LongAdder> counts = Map.of(
+                IMPORTED, new LongAdder(),
+                SKIPPED, new LongAdder(),
+                FAILED, new LongAdder(),
+                INVALID, new LongAdder()
+        );
+
+        private ResultWriter(BufferedWriter writer) throws IOException {
+            this.writer = writer;
+            writer.write("line,name,result,status,detail");
+            writer.newLine();
+        }
+
+        private void write(long lineNumber,
+                           String name,
+                           String result,
+                           int statusCode,
+                           String detail) {
+            lock.lock();
+            try {
+                writer.write(Long.toString(lineNumber));
+                writer.write(',');
+                writer.write(escapeCsv(name == null ? "" : name));
+                writer.write(',');
+                writer.write(result);
+                writer.write(',');
+                writer.write(Integer.toString(statusCode));
+                writer.write(',');
+                writer.write(escapeCsv(detail == null ? "" : detail));
+                writer.newLine();
+                writtenLines.set(Math.toIntExact(lineNumber));
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not write import results", ex);
+            } finally {
+                lock.unlock();
+            }
+            counts.get(result)
+                    .increment();
+        }
+
+        private boolean isWritten(long lineNumber) {
+            lock.lock();
+            try {
+                return writtenLines.get(Math.toIntExact(lineNumber));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private long count(String result) {
+            return counts.get(result)
+                    .sum();
+        }
+
+        @Override
+        public void close() throws IOException {
+            lock.lock();
+            try {
+                writer.close();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -1,38 +1,47 @@
 package org.vimal.helpers;
 
+import lombok.extern.slf4j.Slf4j;
 import org.vimal.dtos.RoleDto;
 import org.vimal.dtos.UserDto;
+import org.vimal.helpers.BatchPipelineHelper.BatchCall;
+import org.vimal.helpers.BatchPipelineHelper.BatchFailure;
+import org.vimal.helpers.CleanUpJournalHelper.Journal;
 
+import java.io.IOException;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
 import static org.vimal.api.AdminCallsUsingGlobalAdminUser.deleteRoles;
 import static org.vimal.api.AdminCallsUsingGlobalAdminUser.deleteUsers;
 import static org.vimal.constants.Common.*;
+import static org.vimal.helpers.BatchPipelineHelper.processInBatches;
+import static org.vimal.helpers.CleanUpJournalHelper.*;
 
+@Slf4j
 public final class CleanUpHelper {
     private CleanUpHelper() {
     }
 
     public static void cleanUpTestUsers(Object... inputs) {
-        Iterator<String> iterator = extractUsernames(inputs).iterator();
-        Set<String> batch = new HashSet<>();
-        while (iterator.hasNext()) {
-            batch.clear();
-            while (iterator.hasNext() &&
-                    batch.size() < MAX_BATCH_SIZE_OF_USER_DELETION_AT_A_TIME) {
-                batch.add(iterator.next());
-            }
-            try {
-                deleteUsers(
+        Set<String> usernames = extractUsernames(inputs);
+        Set<String> remainingUsernames = deleteUsernames(usernames);
+        usernames.removeAll(remainingUsernames);
+        journalDeletedUsers(usernames);
+    }
+
+    private static Set<String> deleteUsernames(Set<String> usernames) {
+        return deleteInBatches(
+                "users",
+                usernames,
+                MAX_BATCH_SIZE_OF_USER_DELETION_AT_A_TIME,
+                batch -> deleteUsers(
                         batch,
                         ENABLE,
                         ENABLE
-                );
-            } catch (Exception ignored) {
-            }
-        }
+                ).then()
+                        .statusCode(200)
+        );
     }
 
     private static Set<String> extractUsernames(Object... inputs) {
@@ -60,21 +69,74 @@ public final class CleanUpHelper {
     }
 
     public static void cleanUpTestRoles(Object... inputs) {
-        Iterator<String> iterator = extractRolenames(inputs).iterator();
-        Set<String> batch = new HashSet<>();
-        while (iterator.hasNext()) {
-            batch.clear();
-            while (iterator.hasNext() &&
-                    batch.size() < MAX_BATCH_SIZE_OF_ROLE_DELETION_AT_A_TIME) {
-                batch.add(iterator.next());
-            }
-            try {
-                deleteRoles(
+        Set<String> roleNames = extractRolenames(inputs);
+        Set<String> remainingRoleNames = deleteRoleNames(roleNames);
+        roleNames.removeAll(remainingRoleNames);
+        journalDeletedRoles(roleNames);
+    }
+
+    private static Set<String> deleteRoleNames(Set<String> roleNames) {
+        return deleteInBatches(
+                "roles",
+                roleNames,
+                MAX_BATCH_SIZE_OF_ROLE_DELETION_AT_A_TIME,
+                batch -> deleteRoles(
                         batch,
                         ENABLE,
                         ENABLE
+                ).then()
+                        .statusCode(200)
+        );
+    }
+
+    private static Set<String> deleteInBatches(String entityType,
+                                               Set<String> names,
+                                               int batchSize,
+                                               BatchCall<String> deleteCall) {
+        Set<String> remainingNames = new HashSet<>();
+        try {
+            for (BatchFailure<String> failure : processInBatches(names, batchSize, deleteCall)) {
+                log.warn(
+                        "Deleting batch #{} of {} {} failed: {}",
+                        failure.batchNumber(),
+                        failure.batch().size(),
+                        entityType,
+                        failure.cause().toString()
+                );
+                remainingNames.addAll(failure.batch());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            remainingNames.addAll(names);
+        }
+        return remainingNames;
+    }
+
+    public static void sweepOrphans() {
+        List<Journal> journals;
+        try {
+            journals = readJournalsOfDeadRuns();
+        } catch (IOException ex) {
+            log.warn("Could not read cleanup journals", ex);
+            return;
+        }
+        for (Journal journal : journals) {
+            log.info(
+                    "Sweeping {} users & {} roles left behind by '{}'.",
+                    journal.usernames().size(),
+                    journal.roleNames().size(),
+                    journal.path()
+            );
+            Set<String> remainingUsernames = deleteUsernames(journal.usernames());
+            Set<String> remainingRoleNames = deleteRoleNames(journal.roleNames());
+            try {
+                complete(
+                        journal,
+                        remainingUsernames,
+                        remainingRoleNames
                 );
-            } catch (Exception ignored) {
+            } catch (IOException ex) {
+                log.warn("Could not update cleanup journal '{}'", journal.path(), ex);
             }
         }
     }
@@ -0,0 +1,182 @@
+package org.vimal.helpers;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Stream;
+
+@Slf4j
+public final class CleanUpJournalHelper {
+    private CleanUpJournalHelper() {
+    }
+
+    private static final Path JOURNAL_DIRECTORY = Path.of(System.getProperty("cleanup.journal.dir", "cleanup-journal"));
+    private static final String JOURNAL_EXTENSION = ".journal";
+    private static final String CREATED_USER = "U";
+    private static final String CREATED_ROLE = "R";
+    private static final String DELETED_USER = "-U";
+    private static final String DELETED_ROLE = "-R";
+    private static final Path CURRENT_JOURNAL = JOURNAL_DIRECTORY.resolve(journalFileName(ProcessHandle.current()));
+    private static BufferedWriter currentJournalWriter;
+
+    public record Journal(Path path,
+                          Set<String> usernames,
+                          Set<String> roleNames) {
+    }
+
+    public static void journalCreatedUsers(Collection<String> usernames) {
+        append(CREATED_USER, usernames);
+    }
+
+    public static void journalCreatedRoles(Collection<String> roleNames) {
+        append(CREATED_ROLE, roleNames);
+    }
+
+    public static void journalDeletedUsers(Collection<String> usernames) {
+        append(DELETED_USER, usernames);
+    }
+
+    public static void journalDeletedRoles(Collection<String> roleNames) {
+        append(DELETED_ROLE, roleNames);
+    }
+
+    private static synchronized void append(String type,
+                                            Collection<String> names) {
+        if (names.isEmpty()) {
+            return;
+        }
+        try {
+            if (currentJournalWriter == null) {
+                Files.createDirectories(JOURNAL_DIRECTORY);
+                currentJournalWriter = Files.newBufferedWriter(
+                        CURRENT_JOURNAL,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND
+                );
+            }
+            for (String name : names) {
+                currentJournalWriter.write(type);
+                currentJournalWriter.write('\t');
+                currentJournalWriter.write(name);
+                currentJournalWriter.newLine();
+            }
+            currentJournalWriter.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write cleanup journal '" + CURRENT_JOURNAL + "'", ex);
+        }
+    }
+
+    public static synchronized void closeCurrentJournal() {
+        if (currentJournalWriter == null) {
+            return;
+        }
+        try {
+            currentJournalWriter.close();
+            currentJournalWriter = null;
+            Journal journal = read(CURRENT_JOURNAL);
+            complete(
+                    journal,
+                    journal.usernames(),
+                    journal.roleNames()
+            );
+        } catch (IOException ex) {
+            log.warn("Could not close cleanup journal '{}'", CURRENT_JOURNAL, ex);
+        }
+    }
+
+    public static List<Journal> readJournalsOfDeadRuns() throws IOException {
+        if (!Files.isDirectory(JOURNAL_DIRECTORY)) {
+            return List.of();
+        }
+        List<Journal> journals = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(JOURNAL_DIRECTORY)) {
+            for (Path path : paths.filter(path -> path.getFileName()
+                            .toString()
+                            .endsWith(JOURNAL_EXTENSION))
+                    .toList()) {
+                if (!isOwnedByLiveProcess(path)) {
+                    journals.add(read(path));
+                }
+            }
+        }
+        return journals;
+    }
+
+    public static void complete(Journal journal,
+                                Set<String> remainingUsernames,
+                                Set<String> remainingRoleNames) throws IOException {
+        if (remainingUsernames.isEmpty() &&
+                remainingRoleNames.isEmpty()) {
+            Files.deleteIfExists(journal.path());
+            return;
+        }
+        List<String> lines = new ArrayList<>();
+        remainingUsernames.forEach(username -> lines.add(CREATED_USER + '\t' + username));
+        remainingRoleNames.forEach(roleName -> lines.add(CREATED_ROLE + '\t' + roleName));
+        Path temporary = journal.path()
+                .resolveSibling(journal.path().getFileName() + ".tmp");
+        Files.write(temporary, lines);
+        Files.move(
+                temporary,
+                journal.path(),
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE
+        );
+    }
+
+    private static Journal read(Path path) throws IOException {
+        Set<String> usernames = new LinkedHashSet<>();
+        Set<String> roleNames = new LinkedHashSet<>();
+        for (String line : Files.readAllLines(path)) {
+            int separator = line.indexOf('\t');
+            if (separator < 0) {
+                continue;
+            }
+            String name = line.substring(separator + 1);
+            switch (line.substring(0, separator)) {
+                case CREATED_USER -> usernames.add(name);
+                case CREATED_ROLE -> roleNames.add(name);
+                case DELETED_USER -> usernames.remove(name);
+                case DELETED_ROLE -> roleNames.remove(name);
+                default -> log.warn("Skipping unknown cleanup journal entry '{}' in '{}'", line, path);
+            }
+        }
+        return new Journal(path, usernames, roleNames);
+    }
+
+    private static String journalFileName(ProcessHandle process) {
+        return process.pid() + "-" + startMillis(process) + JOURNAL_EXTENSION;
+    }
+
+    private static long startMillis(ProcessHandle process) {
+        return process.info()
+                .startInstant()
+                .map(Instant::toEpochMilli)
+                .orElse(0L);
+    }
+
+    private static boolean isOwnedByLiveProcess(Path path) {
+        String fileName = path.getFileName()
+                .toString();
+        String[] parts = fileName.substring(0, fileName.length() - JOURNAL_EXTENSION.length())
+                .split("-");
+        if (parts.length != 2) {
+            return false;
+        }
+        try {
+            long pid = Long.parseLong(parts[0]);
+            long startMillis = Long.parseLong(parts[1]);
+            return ProcessHandle.of(pid)
+                    .filter(ProcessHandle::isAlive)
+                    .map(process -> startMillis(process) == startMillis)
+                    .orElse(false);
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+    }
+}
@@ -7,8 +7,8 @@ import java.util.HashSet;
 import java.util.Set;
 
 import static org.vimal.BaseTest.TEST_EMAIL;
-import static org.vimal.utils.DateTimeUtility.getCurrentFormattedLocalTimeStamp;
-import static org.vimal.utils.RandomStringUtility.generateRandomStringAlphaNumeric;
+import static org.vimal.utils.UniqueIdUtility.nextUniqueId;
+import static org.vimal.utils.UniqueIdUtility.nextUniqueIds;
 
 public final class DtosHelper {
     private DtosHelper() {
@@ -18,10 +18,15 @@ public final class DtosHelper {
         return createRandomUserDto(null);
     }
 
-    private static Set<UserDto> createRandomUserDtos(int count) {
-        Set<UserDto> userDtos = new HashSet<>();
-        for (int i = 0; i < count; i++) {
-            userDtos.add(createRandomUserDto());
+    public static Set<UserDto> createRandomUserDtos(int count) {
+        return createRandomUserDtos(count, null);
+    }
+
+    public static Set<UserDto> createRandomUserDtos(int count,
+                                                    Set<String> roles) {
+        Set<UserDto> userDtos = HashSet.newHashSet(count);
+        for (String uniqueId : nextUniqueIds(count)) {
+            userDtos.add(createRandomUserDtoWithUniqueId(uniqueId, roles));
         }
         return userDtos;
     }
@@ -38,15 +43,19 @@ public final class DtosHelper {
 
     public static String validRandomEmail() {
         int atIndex = TEST_EMAIL.indexOf('@');
-        return TEST_EMAIL.substring(0, atIndex) + "+" + getCurrentFormattedLocalTimeStamp() + "_" + generateRandomStringAlphaNumeric() + "@" + TEST_EMAIL.substring(atIndex + 1);
+        return TEST_EMAIL.substring(0, atIndex) + "+" + nextUniqueId() + "@" + TEST_EMAIL.substring(atIndex + 1);
     }
 
     public static UserDto createRandomUserDto(Set<String> roles) {
-        String randomString = getCurrentFormattedLocalTimeStamp() + "_" + generateRandomStringAlphaNumeric();
+        return createRandomUserDtoWithUniqueId(nextUniqueId(), roles);
+    }
+
+    private static UserDto createRandomUserDtoWithUniqueId(String uniqueId,
+                                                           Set<String> roles) {
         return UserDto.builder()
-                .username("AutoTestUser_" + randomString)
-                .email("user_" + randomString + "@example.com")
-                .password("Password@1_" + randomString)
+                .username("AutoTestUser_" + uniqueId)
+                .email("user_" + uniqueId + "@example.com")
+                .password("Password@1_" + uniqueId)
                 .firstName("AutoTestUser")
                 .roles(roles)
                 .emailVerified(true)
@@ -59,17 +68,21 @@ public final class DtosHelper {
     }
 
     public static Set<RoleDto> createRandomRoleDtos(int count) {
-        Set<RoleDto> roleDtos = new HashSet<>();
-        for (int i = 0; i < count; i++) {
-            roleDtos.add(createRandomRoleDto());
+        Set<RoleDto> roleDtos = HashSet.newHashSet(count);
+        for (String uniqueId : nextUniqueIds(count)) {
+            roleDtos.add(createRandomRoleDtoWithUniqueId(uniqueId, null));
         }
         return roleDtos;
     }
 
     public static RoleDto createRandomRoleDto(Set<String> permissions) {
-        String randomString = getCurrentFormattedLocalTimeStamp() + "_" + generateRandomStringAlphaNumeric();
+        return createRandomRoleDtoWithUniqueId(nextUniqueId(), permissions);
+    }
+
+    private static RoleDto createRandomRoleDtoWithUniqueId(String uniqueId,
+                                                           Set<String> permissions) {
         return RoleDto.builder()
-                .roleName("AutoTestRole_" + randomString)
+                .roleName("AutoTestRole_" + uniqueId)
                 .description("Auto-generated role for testing purposes")
                 .permissions(permissions)
                 .build();
@@ -1,14 +1,15 @@
 package org.vimal.helpers;
 
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 public final class InvalidInputsHelper {
     private InvalidInputsHelper() {
     }
 
-    private static final Set<String> COMMON = Set.of(
+    private static final List<String> COMMON = List.of(
             "",       // blank
             " "       // space only
     );
@@ -21,7 +22,7 @@ public final class InvalidInputsHelper {
     public static final Set<String> INVALID_ROLE_OR_PERMISSION_NAMES = buildInvalidRoleOrPermissionNames();
 
     private static Set<String> buildInvalidUsernames() {
-        Set<String> set = new HashSet<>(COMMON);
+        Set<String> set = new LinkedHashSet<>(COMMON);
         set.add("a");                         // too short
         set.add("a".repeat(101));       // too long
         set.add("ab cd");                     // contains space
@@ -30,7 +31,7 @@ public final class InvalidInputsHelper {
     }
 
     private static Set<String> buildInvalidPasswords() {
-        Set<String> set = new HashSet<>(COMMON);
+        Set<String> set = new LinkedHashSet<>(COMMON);
         set.add("short");                     // too short
         set.add("s".repeat(256));       // too long
         set.add("12345678");                  // only digits
@@ -54,7 +55,7 @@ public final class InvalidInputsHelper {
     }
 
     private static Set<String> buildInvalidEmails() {
-        Set<String> set = new HashSet<>(COMMON);
+        Set<String> set = new LinkedHashSet<>(COMMON);
         set.add("plainaddress");                                       // missing @
         set.add("@no-local-part.com");                                 // missing local part
         set.add("Outlook Contact <outlook-contact@domain.com>");       // invalid format
@@ -76,7 +77,7 @@ public final class InvalidInputsHelper {
     }
 
     private static Set<String> buildInvalidUuids() {
-        Set<String> set = new HashSet<>(COMMON);
+        Set<String> set = new LinkedHashSet<>(COMMON);
         set.add("123");                                         // too short
         set.add("not-a-uuid");                                  // plain text
         set.add("550e8400e29b41d4a716446655440000");            // missing dashes
@@ -90,7 +91,7 @@ public final class InvalidInputsHelper {
     }
 
     private static Set<String> buildInvalidOtps() {
-        Set<String> set = new HashSet<>(COMMON);
+        Set<String> set = new LinkedHashSet<>(COMMON);
         set.add("12345");          // too short
         set.add("123456789");      // too long
         set.add("abcdef");         // letters only
@@ -104,7 +105,7 @@ public final class InvalidInputsHelper {
     }
 
     private static Set<String> buildInvalidNames() {
-        Set<String> set = new HashSet<>(COMMON);
+        Set<String> set = new LinkedHashSet<>(COMMON);
         set.add("F".repeat(51));    // too long
         set.add("F1");                    // contains digit
         set.add("F!");                    // contains special character
@@ -113,7 +114,7 @@ public final class InvalidInputsHelper {
     }
 
     private static Set<String> buildInvalidRoleOrPermissionNames() {
-        Set<String> set = new HashSet<>(COMMON);
+        Set<String> set = new LinkedHashSet<>(COMMON);
         set.add("role name");                // contains space
         set.add("role-name");                // contains hyphen
         set.add("role.name");                // contains dot
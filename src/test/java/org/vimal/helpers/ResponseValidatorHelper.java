@@ -4,9 +4,7 @@ import io.restassured.response.Response;
 import org.vimal.dtos.RoleDto;
 import org.vimal.dtos.UserDto;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
 
 import static org.hamcrest.Matchers.*;
 
@@ -40,24 +38,25 @@ public final class ResponseValidatorHelper {
                     .body("not_allowed_to_assign_roles", not(empty()));
             return;
         }
-        response.then()
-                .body(pathPrefix + "size()", equalTo(users.size()));
-        String findPath;
+        List<String> mismatches = new ArrayList<>();
+        Map<String, Map<String, Object>> usernameToRecordMap = indexRecords(response, pathPrefix, "username", users.size(), mismatches);
+        Map<String, Object> record;
         for (UserDto user : users) {
-            findPath = pathPrefix + "find { it.username == '" + user.getUsername() + "' }.";
-            response.then()
-                    .body(findPath + "email", equalTo(user.getEmail()))
-                    .body(findPath + "firstName", equalTo(user.getFirstName()))
-                    .body(findPath + "middleName", equalTo(user.getMiddleName()))
-                    .body(findPath + "lastName", equalTo(user.getLastName()))
-                    .body(findPath + "roles", (user.getRoles() != null) ?
-                            containsInAnyOrder(user.getRoles().toArray()) :
-                            empty());
+            record = usernameToRecordMap.get(user.getUsername());
+            if (record == null) {
+                mismatches.add("no record with username '" + user.getUsername() + "'");
+                continue;
+            }
+            expectEqual(mismatches, user.getUsername(), "email", user.getEmail(), record);
+            expectEqual(mismatches, user.getUsername(), "firstName", user.getFirstName(), record);
+            expectEqual(mismatches, user.getUsername(), "middleName", user.getMiddleName(), record);
+            expectEqual(mismatches, user.getUsername(), "lastName", user.getLastName(), record);
+            expectSameElements(mismatches, user.getUsername(), "roles", user.getRoles(), record);
             if (pathPrefix.equals("created_users.")) {
-                response.then()
-                        .body(findPath + "createdBy", equalTo(creatorOrReader.getUsername()));
+                expectEqual(mismatches, user.getUsername(), "createdBy", creatorOrReader.getUsername(), record);
             }
         }
+        assertNoMismatches(mismatches, pathPrefix);
     }
 
     public static void validateResponseOfUsersUpdation(Response response,
@@ -73,29 +72,29 @@ public final class ResponseValidatorHelper {
                     .body("cannot_update_users_having_roles_higher_or_equal_than_updater", not(empty()));
             return;
         }
-        response.then()
-                .body(pathPrefix + "size()", equalTo(users.size()));
+        List<String> mismatches = new ArrayList<>();
+        Map<String, Map<String, Object>> usernameToRecordMap = indexRecords(response, pathPrefix, "username", users.size(), mismatches);
         Map<String, UserDto> oldUsernameToUpdatedInputMap = new HashMap<>();
-        String findPath;
         for (UserDto updatedInput : updatedInputs) {
             oldUsernameToUpdatedInputMap.put(updatedInput.getOldUsername(), updatedInput);
         }
         UserDto updatedInput;
+        Map<String, Object> record;
         for (UserDto user : users) {
             updatedInput = oldUsernameToUpdatedInputMap.get(user.getUsername());
-            findPath = pathPrefix + "find { it.username == '" + updatedInput.getUsername() + "' }.";
-            response.then()
-                    .body(findPath + "email", updatedInput.getEmail() != null ? equalTo(updatedInput.getEmail()) : equalTo(user.getEmail()))
-                    .body(findPath + "firstName", updatedInput.getFirstName() != null ? equalTo(updatedInput.getFirstName()) : equalTo(user.getFirstName()))
-                    .body(findPath + "middleName", updatedInput.getMiddleName() != null ? equalTo(updatedInput.getMiddleName()) : equalTo(user.getMiddleName()))
-                    .body(findPath + "lastName", updatedInput.getLastName() != null ? equalTo(updatedInput.getLastName()) : equalTo(user.getLastName()))
-                    .body(findPath + "updatedBy", equalTo(updater.getUsername()))
-                    .body(findPath + "roles", (updatedInput.getRoles() != null) ?
-                            containsInAnyOrder(updatedInput.getRoles().toArray()) :
-                            (user.getRoles() != null) ?
-                                    containsInAnyOrder(user.getRoles().toArray()) :
-                                    empty());
+            record = usernameToRecordMap.get(updatedInput.getUsername());
+            if (record == null) {
+                mismatches.add("no record with username '" + updatedInput.getUsername() + "'");
+                continue;
+            }
+            expectEqual(mismatches, updatedInput.getUsername(), "email", updatedInput.getEmail() != null ? updatedInput.getEmail() : user.getEmail(), record);
+            expectEqual(mismatches, updatedInput.getUsername(), "firstName", updatedInput.getFirstName() != null ? updatedInput.getFirstName() : user.getFirstName(), record);
+            expectEqual(mismatches, updatedInput.getUsername(), "middleName", updatedInput.getMiddleName() != null ? updatedInput.getMiddleName() : user.getMiddleName(), record);
+            expectEqual(mismatches, updatedInput.getUsername(), "lastName", updatedInput.getLastName() != null ? updatedInput.getLastName() : user.getLastName(), record);
+            expectEqual(mismatches, updatedInput.getUsername(), "updatedBy", updater.getUsername(), record);
+            expectSameElements(mismatches, updatedInput.getUsername(), "roles", updatedInput.getRoles() != null ? updatedInput.getRoles() : user.getRoles(), record);
         }
+        assertNoMismatches(mismatches, pathPrefix);
     }
 
     public static void validateResponseOfRolesCreationOrRead(Response response,
@@ -103,21 +102,23 @@ public final class ResponseValidatorHelper {
                                                              Set<RoleDto> roles,
                                                              String pathPrefix) {
         response.then()
-                .statusCode(200)
-                .body(pathPrefix + "size()", equalTo(roles.size()));
-        String findPath;
+                .statusCode(200);
+        List<String> mismatches = new ArrayList<>();
+        Map<String, Map<String, Object>> roleNameToRecordMap = indexRecords(response, pathPrefix, "roleName", roles.size(), mismatches);
+        Map<String, Object> record;
         for (RoleDto role : roles) {
-            findPath = pathPrefix + "find { it.roleName == '" + role.getRoleName() + "' }.";
-            response.then()
-                    .body(findPath + "description", equalTo(role.getDescription()))
-                    .body(findPath + "permissions", (role.getPermissions() != null) ?
-                            containsInAnyOrder(role.getPermissions().toArray()) :
-                            empty());
+            record = roleNameToRecordMap.get(role.getRoleName());
+            if (record == null) {
+                mismatches.add("no record with roleName '" + role.getRoleName() + "'");
+                continue;
+            }
+            expectEqual(mismatches, role.getRoleName(), "description", role.getDescription(), record);
+            expectSameElements(mismatches, role.getRoleName(), "permissions", role.getPermissions(), record);
             if (pathPrefix.equals("created_users.")) {
-                response.then()
-                        .body(findPath + "createdBy", equalTo(creatorOrReader.getUsername()));
+                expectEqual(mismatches, role.getRoleName(), "createdBy", creatorOrReader.getUsername(), record);
             }
         }
+        assertNoMismatches(mismatches, pathPrefix);
     }
 
     public static void validateResponseOfRolesUpdation(Response response,
@@ -126,25 +127,83 @@ public final class ResponseValidatorHelper {
                                                        Set<RoleDto> updatedInputs,
                                                        String pathPrefix) {
         response.then()
-                .statusCode(200)
-                .body(pathPrefix + "size()", equalTo(roles.size()));
+                .statusCode(200);
+        List<String> mismatches = new ArrayList<>();
+        Map<String, Map<String, Object>> roleNameToRecordMap = indexRecords(response, pathPrefix, "roleName", roles.size(), mismatches);
         Map<String, RoleDto> roleNameToUpdatedInputMap = new HashMap<>();
-        String findPath;
         for (RoleDto updatedInput : updatedInputs) {
             roleNameToUpdatedInputMap.put(updatedInput.getRoleName(), updatedInput);
         }
         RoleDto updatedInput;
+        Map<String, Object> record;
         for (RoleDto role : roles) {
             updatedInput = roleNameToUpdatedInputMap.get(role.getRoleName());
-            findPath = pathPrefix + "find { it.roleName == '" + updatedInput.getRoleName() + "' }.";
-            response.then()
-                    .body(findPath + "description", updatedInput.getDescription() != null ? equalTo(updatedInput.getDescription()) : equalTo(role.getDescription()))
-                    .body(findPath + "updatedBy", equalTo(updater.getUsername()))
-                    .body(findPath + "permissions", (updatedInput.getPermissions() != null) ?
-                            containsInAnyOrder(updatedInput.getPermissions().toArray()) :
-                            (role.getPermissions() != null) ?
-                                    containsInAnyOrder(role.getPermissions().toArray()) :
-                                    empty());
+            record = roleNameToRecordMap.get(updatedInput.getRoleName());
+            if (record == null) {
+                mismatches.add("no record with roleName '" + updatedInput.getRoleName() + "'");
+                continue;
+            }
+            expectEqual(mismatches, updatedInput.getRoleName(), "description", updatedInput.getDescription() != null ? updatedInput.getDescription() : role.getDescription(), record);
+            expectEqual(mismatches, updatedInput.getRoleName(), "updatedBy", updater.getUsername(), record);
+            expectSameElements(mismatches, updatedInput.getRoleName(), "permissions", updatedInput.getPermissions() != null ? updatedInput.getPermissions() : role.getPermissions(), record);
+        }
+        assertNoMismatches(mismatches, pathPrefix);
+    }
+
+    private static Map<String, Map<String, Object>> indexRecords(Response response,
+                                                                 String pathPrefix,
+                                                                 String keyField,
+                                                                 int expectedSize,
+                                                                 List<String> mismatches) {
+        List<Map<String, Object>> records = response.jsonPath()
+                .getList(pathPrefix.substring(0, pathPrefix.length() - 1));
+        if (records == null) {
+            mismatches.add("no list found at '" + pathPrefix + "'");
+            return Map.of();
+        }
+        if (records.size() != expectedSize) {
+            mismatches.add("expected " + expectedSize + " records but found " + records.size());
+        }
+        Map<String, Map<String, Object>> keyToRecordMap = new HashMap<>(records.size() * 2);
+        for (Map<String, Object> record : records) {
+            keyToRecordMap.put(String.valueOf(record.get(keyField)), record);
+        }
+        return keyToRecordMap;
+    }
+
+    private static void expectEqual(List<String> mismatches,
+                                    String recordKey,
+                                    String field,
+                                    Object expected,
+                                    Map<String, Object> record) {
+        Object actual = record.get(field);
+        if (!Objects.equals(expected, actual)) {
+            mismatches.add("'" + recordKey + "'." + field + ": expected <" + expected + "> but was <" + actual + ">");
+        }
+    }
+
+    private static void expectSameElements(List<String> mismatches,
+                                           String recordKey,
+                                           String field,
+                                           Collection<String> expected,
+                                           Map<String, Object> record) {
+        Object actual = record.get(field);
+        List<String> expectedElements = expected == null ? List.of() : expected.stream()
+                .sorted()
+                .toList();
+        if (!(actual instanceof Collection<?> actualCollection) ||
+                !expectedElements.equals(actualCollection.stream()
+                        .map(String::valueOf)
+                        .sorted()
+                        .toList())) {
+            mismatches.add("'" + recordKey + "'." + field + ": expected any order of " + expectedElements + " but was " + actual);
+        }
+    }
+
+    private static void assertNoMismatches(List<String> mismatches,
+                                           String pathPrefix) {
+        if (!mismatches.isEmpty()) {
+            throw new AssertionError(mismatches.size() + " mismatch(es) in '" + pathPrefix + "':\n  " + String.join("\n  ", mismatches));
         }
     }
 }
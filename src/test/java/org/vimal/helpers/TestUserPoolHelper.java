@@ -0,0 +1,57 @@
+package org.vimal.helpers;
+
+import org.vimal.api.AccessTokenHolder;
+import org.vimal.dtos.UserDto;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+
+public final class TestUserPoolHelper {
+    private TestUserPoolHelper() {
+    }
+
+    private static final Map<Set<String>, BlockingQueue<PooledTestUser>> POOL = new ConcurrentHashMap<>();
+
+    public record PooledTestUser(Set<String> roles,
+                                 UserDto user,
+                                 AccessTokenHolder accessTokenHolder) {
+        public String getAccessToken() throws ExecutionException, InterruptedException {
+            return accessTokenHolder.getAccessToken();
+        }
+    }
+
+    public static PooledTestUser newPooledTestUser(Set<String> roles,
+                                                   UserDto user) {
+        return new PooledTestUser(
+                roles,
+                user,
+                new AccessTokenHolder(
+                        user.getUsername(),
+                        user.getPassword()
+                )
+        );
+    }
+
+    public static PooledTestUser poll(Set<String> roles) {
+        return queueOf(roles).poll();
+    }
+
+    public static void release(PooledTestUser pooledTestUser) {
+        queueOf(pooledTestUser.roles()).add(pooledTestUser);
+    }
+
+    public static int size(Set<String> roles) {
+        return queueOf(roles).size();
+    }
+
+    private static BlockingQueue<PooledTestUser> queueOf(Set<String> roles) {
+        return POOL.computeIfAbsent(
+                roles,
+                ignored -> new LinkedBlockingQueue<>()
+        );
+    }
+}
@@ -0,0 +1,367 @@
+package org.vimal.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import lombok.extern.slf4j.Slf4j;
+import org.vimal.api.ApiCalls;
+import org.vimal.capture.CaptureLog;
+import org.vimal.capture.CapturedExchange;
+import org.vimal.capture.ExchangeCapture;
+import org.vimal.fake.FakeAuthServer;
+import org.vimal.utils.LatencyHistogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import static io.restassured.RestAssured.given;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.vimal.BaseTest.DEFAULT_DEVICE_ID;
+import static org.vimal.BaseTest.X_DEVICE_ID_HEADER;
+import static org.vimal.api.ApiCallMetrics.logSummary;
+import static org.vimal.api.EndpointLatencyRecorder.logReport;
+
+@Slf4j
+public final class CaptureReplayer {
+    private CaptureReplayer() {
+    }
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String TOKEN_FIELD_SUFFIX = "token";
+
+    public record ReplayResult(long replayed,
+                               long statusMismatches,
+                               long failures,
+                               Map<String, EndpointComparison> endpoints,
+                               double elapsedSeconds,
+                               double recordedSeconds) {
+    }
+
+    public record EndpointComparison(LongAdder statusMatches,
+                                     LongAdder statusMismatches,
+                                     LatencyHistogram recordedLatencies,
+                                     LatencyHistogram replayedLatencies) {
+        EndpointComparison() {
+            this(new LongAdder(), new LongAdder(), new LatencyHistogram(), new LatencyHistogram());
+        }
+    }
+
+    private static final class CompletionWatermark {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition advanced = lock.newCondition();
+        private final boolean[] completed;
+        private int watermark;
+
+        CompletionWatermark(int size) {
+            completed = new boolean[size];
+        }
+
+        void complete(int rank) {
+            lock.lock();
+            try {
+                completed[rank] = true;
+                int previous = watermark;
+                while (watermark < completed.length &&
+                        completed[watermark]) {
+                    watermark++;
+                }
+                if (watermark != previous) {
+                    advanced.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void awaitCompleted(int count) throws InterruptedException {
+            lock.lock();
+            try {
+                while (watermark < count) {
+                    advanced.await();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public static ReplayResult replay(List<CapturedExchange> exchanges,
+                                      double speed,
+                                      int maxInFlight) throws InterruptedException {
+        if (speed < 0) {
+            throw new IllegalArgumentException("Replay speed cannot be negative but was " + speed);
+        }
+        int size = exchanges.size();
+        Integer[] byRecordedEnd = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            byRecordedEnd[i] = i;
+        }
+        Arrays.sort(byRecordedEnd, Comparator.comparingLong(i -> recordedEnd(exchanges.get(i))));
+        int[] endRanks = new int[size];
+        long[] recordedEnds = new long[size];
+        for (int rank = 0; rank < size; rank++) {
+            endRanks[byRecordedEnd[rank]] = rank;
+            recordedEnds[rank] = recordedEnd(exchanges.get(byRecordedEnd[rank]));
+        }
+        CompletionWatermark watermark = new CompletionWatermark(size);
+        Map<String, String> replayedTokens = new ConcurrentHashMap<>();
+        Function<String, String> substitution = value -> substituteToken(value, replayedTokens);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        LongAdder statusMismatches = new LongAdder();
+        LongAdder failures = new LongAdder();
+        Map<String, EndpointComparison> endpoints = new ConcurrentSkipListMap<>();
+        long firstOffset = exchanges.isEmpty() ? 0 : exchanges.getFirst()
+                .startedAtNanos();
+        long startedAt = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < size; i++) {
+                CapturedExchange exchange = exchanges.get(i);
+                int endRank = endRanks[i];
+                int happenedBefore = endedBefore(recordedEnds, exchange.startedAtNanos());
+                if (speed > 0) {
+                    long intendedAt = startedAt + (long) ((exchange.startedAtNanos() - firstOffset) / speed);
+                    long wait;
+                    while ((wait = intendedAt - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                        if (Thread.interrupted()) {
+                            throw new InterruptedException("Capture replay interrupted after " + i + " exchange(s)");
+                        }
+                    }
+                }
+                inFlight.acquire();
+                executor.execute(() -> {
+                    EndpointComparison comparison = endpoints.computeIfAbsent(
+                            exchange.method() + " " + exchange.endpoint(),
+                            key -> new EndpointComparison()
+                    );
+                    comparison.recordedLatencies()
+                            .record(TimeUnit.NANOSECONDS.toMicros(exchange.durationNanos()));
+                    Response response = null;
+                    try {
+                        watermark.awaitCompleted(happenedBefore);
+                        long sentAt = System.nanoTime();
+                        response = ApiCalls.executeRequest(
+                                exchange.method(),
+                                exchange.endpoint(),
+                                substituteValues(exchange.headers(), substitution),
+                                substituteValues(exchange.params(), substitution),
+                                substituteValues(exchange.pathParams(), substitution),
+                                requestBody(exchange, substitution)
+                        );
+                        comparison.replayedLatencies()
+                                .record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sentAt));
+                        if (response.statusCode() == exchange.statusCode()) {
+                            comparison.statusMatches()
+                                    .increment();
+                        } else {
+                            comparison.statusMismatches()
+                                    .increment();
+                            statusMismatches.increment();
+                        }
+                        recordReplayedTokens(exchange.responseBody(), response, replayedTokens);
+                    } catch (Throwable ex) {
+                        failures.increment();
+                        comparison.statusMismatches()
+                                .increment();
+                        log.debug("Replaying {} {} failed", exchange.method(), exchange.endpoint(), ex);
+                    } finally {
+                        watermark.complete(endRank);
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        return new ReplayResult(
+                size,
+                statusMismatches.sum(),
+                failures.sum(),
+                endpoints,
+                (System.nanoTime() - startedAt) / 1_000_000_000.0,
+                exchanges.isEmpty() ? 0 : (exchanges.getLast()
+                        .startedAtNanos() - firstOffset) / 1_000_000_000.0
+        );
+    }
+
+    private static long recordedEnd(CapturedExchange exchange) {
+        return exchange.startedAtNanos() + exchange.durationNanos();
+    }
+
+    private static int endedBefore(long[] recordedEnds,
+                                   long startedAtNanos) {
+        int low = 0;
+        int high = recordedEnds.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (recordedEnds[middle] <= startedAtNanos) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static void recordReplayedTokens(byte[] recordedBody,
+                                             Response response,
+                                             Map<String, String> replayedTokens) throws IOException {
+        if (recordedBody == null ||
+                recordedBody.length == 0 ||
+                recordedBody[0] != '{') {
+            return;
+        }
+        JsonNode recorded = OBJECT_MAPPER.readTree(recordedBody);
+        JsonNode replayed = null;
+        for (Map.Entry<String, JsonNode> field : recorded.properties()) {
+            if (!field.getValue()
+                    .isTextual() ||
+                    !field.getKey()
+                            .toLowerCase(Locale.ROOT)
+                            .endsWith(TOKEN_FIELD_SUFFIX)) {
+                continue;
+            }
+            if (replayed == null) {
+                try {
+                    replayed = OBJECT_MAPPER.readTree(response.asByteArray());
+                } catch (IOException ex) {
+                    return;
+                }
+            }
+            JsonNode replayedValue = replayed.get(field.getKey());
+            if (replayedValue != null &&
+                    replayedValue.isTextual()) {
+                replayedTokens.put(field.getValue()
+                        .asText(), replayedValue.asText());
+            }
+        }
+    }
+
+    private static String substituteToken(String value,
+                                          Map<String, String> replayedTokens) {
+        if (value == null) {
+            return null;
+        }
+        if (value.startsWith(BEARER_PREFIX)) {
+            String replayedToken = replayedTokens.get(value.substring(BEARER_PREFIX.length()));
+            return replayedToken == null ? value : BEARER_PREFIX + replayedToken;
+        }
+        return replayedTokens.getOrDefault(value, value);
+    }
+
+    private static Map<String, String> substituteValues(Map<String, String> values,
+                                                        Function<String, String> substitution) {
+        if (values == null) {
+            return null;
+        }
+        Map<String, String> substituted = LinkedHashMap.newLinkedHashMap(values.size());
+        values.forEach((name, value) -> substituted.put(name, substitution.apply(value)));
+        return substituted;
+    }
+
+    private static Object requestBody(CapturedExchange exchange,
+                                      Function<String, String> substitution) throws IOException {
+        return switch (exchange.bodyKind()) {
+            case CapturedExchange.JSON_BODY -> substituteText(OBJECT_MAPPER.readTree(exchange.body()), substitution);
+            case CapturedExchange.FILE_BODY -> new File(new String(exchange.body(), UTF_8));
+            default -> null;
+        };
+    }
+
+    private static JsonNode substituteText(JsonNode node,
+                                           Function<String, String> substitution) {
+        if (node.isTextual()) {
+            return TextNode.valueOf(substitution.apply(node.asText()));
+        }
+        if (node instanceof ObjectNode object) {
+            object.properties()
+                    .forEach(field -> field.setValue(substituteText(field.getValue(), substitution)));
+        } else if (node instanceof ArrayNode array) {
+            for (int i = 0; i < array.size(); i++) {
+                array.set(i, substituteText(array.get(i), substitution));
+            }
+        }
+        return node;
+    }
+
+    public static void logResult(ReplayResult result) {
+        log.info(
+                "Replayed {} exchange(s) captured over {} s in {} s, {} status mismatch(es), {} failure(s)",
+                result.replayed(),
+                String.format(Locale.ROOT, "%.1f", result.recordedSeconds()),
+                String.format(Locale.ROOT, "%.1f", result.elapsedSeconds()),
+                result.statusMismatches(),
+                result.failures()
+        );
+        log.info(String.format(Locale.ROOT, "%-55s %8s %8s %12s %12s %12s %12s", "ENDPOINT", "MATCHED", "DIFFERED", "REC_P50_MS", "NEW_P50_MS", "REC_P99_MS", "NEW_P99_MS"));
+        result.endpoints()
+                .forEach((endpoint, comparison) -> log.info(String.format(
+                        Locale.ROOT,
+                        "%-55s %8d %8d %12.3f %12.3f %12.3f %12.3f",
+                        endpoint,
+                        comparison.statusMatches()
+                                .sum(),
+                        comparison.statusMismatches()
+                                .sum(),
+                        comparison.recordedLatencies()
+                                .getValueAtPercentile(50) / 1000.0,
+                        comparison.replayedLatencies()
+                                .getValueAtPercentile(50) / 1000.0,
+                        comparison.recordedLatencies()
+                                .getValueAtPercentile(99) / 1000.0,
+                        comparison.replayedLatencies()
+                                .getValueAtPercentile(99) / 1000.0
+                )));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = LoadGenerator.parseOptions(args);
+        String capture = LoadGenerator.option(options, "capture", null);
+        if (capture == null) {
+            throw new IllegalArgumentException("Expected the capture log to replay as --capture=<file>");
+        }
+        RestAssured.baseURI = LoadGenerator.option(options, "base-url", "http://localhost:8080");
+        RestAssured.basePath = LoadGenerator.option(options, "base-path", "api/v1");
+        String fakeServerPort = LoadGenerator.option(options, "fake-server", null);
+        if (fakeServerPort != null) {
+            FakeAuthServer.start(
+                    Integer.parseInt(fakeServerPort),
+                    FakeAuthServer.DEFAULT_GLOBAL_ADMIN_USERNAME,
+                    FakeAuthServer.DEFAULT_GLOBAL_ADMIN_PASSWORD,
+                    0
+            );
+            RestAssured.baseURI = FakeAuthServer.getBaseUrl();
+        }
+        RestAssured.requestSpecification = given().header(X_DEVICE_ID_HEADER, DEFAULT_DEVICE_ID);
+        double speed = Double.parseDouble(LoadGenerator.option(options, "speed", "1"));
+        List<CapturedExchange> exchanges = CaptureLog.read(Path.of(capture))
+                .exchanges();
+        log.info(
+                "Replaying {} captured exchange(s) from '{}' against '{}' at {}",
+                exchanges.size(),
+                capture,
+                RestAssured.baseURI,
+                speed == 0 ? "full speed" : speed + "x the captured timing"
+        );
+        logResult(replay(
+                exchanges,
+                speed,
+                Integer.parseInt(LoadGenerator.option(options, "max-in-flight", "10000"))
+        ));
+        logReport();
+        logSummary();
+        ExchangeCapture.close();
+        FakeAuthServer.stop();
+    }
+}
@@ -0,0 +1,252 @@
+package org.vimal.load;
+
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import lombok.extern.slf4j.Slf4j;
+import org.vimal.capture.ExchangeCapture;
+import org.vimal.fake.FakeAuthServer;
+import org.vimal.proxy.FaultInjectionProxy;
+import org.vimal.proxy.FaultRule;
+import org.vimal.utils.LatencyHistogram;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static io.restassured.RestAssured.given;
+import static org.vimal.BaseTest.DEFAULT_DEVICE_ID;
+import static org.vimal.BaseTest.GLOBAL_ADMIN_PASSWORD;
+import static org.vimal.BaseTest.GLOBAL_ADMIN_USERNAME;
+import static org.vimal.BaseTest.X_DEVICE_ID_HEADER;
+import static org.vimal.api.ApiCallMetrics.logSummary;
+import static org.vimal.api.EndpointLatencyRecorder.logReport;
+import static org.vimal.utils.DateTimeUtility.parseDuration;
+
+@Slf4j
+public final class LoadGenerator {
+    private LoadGenerator() {
+    }
+
+    private static final String OPTION_PREFIX = "--";
+    private static final String PROPERTY_PREFIX = "load.";
+
+    public record LoadResult(long scheduledArrivals,
+                             long completedArrivals,
+                             long failedArrivals,
+                             long droppedArrivals,
+                             Map<Integer, Long> statusCounts,
+                             LatencyHistogram intendedLatencies,
+                             LatencyHistogram serviceLatencies,
+                             double elapsedSeconds) {
+    }
+
+    public static LoadResult run(LoadProfile profile,
+                                 LoadScenario scenario) throws InterruptedException {
+        long durationNanos = profile.duration()
+                .toNanos();
+        Semaphore inFlight = new Semaphore(profile.maxInFlight());
+        LongAdder completed = new LongAdder();
+        LongAdder failed = new LongAdder();
+        LongAdder dropped = new LongAdder();
+        Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+        LatencyHistogram intendedLatencies = new LatencyHistogram();
+        LatencyHistogram serviceLatencies = new LatencyHistogram();
+        long scheduled = 0;
+        long startedAt = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long offset;
+            while ((offset = profile.intendedOffsetNanos(scheduled)) < durationNanos) {
+                long intendedAt = startedAt + offset;
+                long arrival = scheduled++;
+                long wait;
+                while ((wait = intendedAt - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException("Load generation interrupted after " + arrival + " arrival(s)");
+                    }
+                }
+                if (!inFlight.tryAcquire()) {
+                    dropped.increment();
+                    continue;
+                }
+                executor.execute(() -> {
+                    long sentAt = System.nanoTime();
+                    try {
+                        Response response = scenario.execute(arrival);
+                        statusCounts.computeIfAbsent(response.statusCode(), statusCode -> new LongAdder())
+                                .increment();
+                        if (response.statusCode() / 100 != 2) {
+                            failed.increment();
+                        }
+                    } catch (Throwable ex) {
+                        failed.increment();
+                        statusCounts.computeIfAbsent(0, statusCode -> new LongAdder())
+                                .increment();
+                        log.debug("Load arrival #{} failed", arrival, ex);
+                    } finally {
+                        long finishedAt = System.nanoTime() - scenario.takeIdleNanos();
+                        intendedLatencies.record(TimeUnit.NANOSECONDS.toMicros(finishedAt - intendedAt));
+                        serviceLatencies.record(TimeUnit.NANOSECONDS.toMicros(finishedAt - sentAt));
+                        completed.increment();
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        Map<Integer, Long> counts = new TreeMap<>();
+        statusCounts.forEach((statusCode, count) -> counts.put(statusCode, count.sum()));
+        return new LoadResult(
+                scheduled,
+                completed.sum(),
+                failed.sum(),
+                dropped.sum(),
+                counts,
+                intendedLatencies,
+                serviceLatencies,
+                (System.nanoTime() - startedAt) / 1_000_000_000.0
+        );
+    }
+
+    public static void logResult(LoadResult result) {
+        log.info(
+                "Scheduled {} arrival(s), completed {} ({} failed, {} dropped at the in-flight limit) in {} s, achieved {} req/s, status counts {}",
+                result.scheduledArrivals(),
+                result.completedArrivals(),
+                result.failedArrivals(),
+                result.droppedArrivals(),
+                String.format(Locale.ROOT, "%.1f", result.elapsedSeconds()),
+                String.format(Locale.ROOT, "%.1f", result.completedArrivals() / result.elapsedSeconds()),
+                result.statusCounts()
+        );
+        log.info(String.format(Locale.ROOT, "%-22s %10s %10s %10s %10s %10s", "LATENCY", "P50_MS", "P90_MS", "P99_MS", "P99.9_MS", "MAX_MS"));
+        logLatencies("from intended send", result.intendedLatencies());
+        logLatencies("from actual send", result.serviceLatencies());
+    }
+
+    private static void logLatencies(String name,
+                                     LatencyHistogram histogram) {
+        log.info(String.format(
+                Locale.ROOT,
+                "%-22s %10.3f %10.3f %10.3f %10.3f %10.3f",
+                name,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(90) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMax() / 1000.0
+        ));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        RestAssured.baseURI = option(options, "base-url", "http://localhost:8080");
+        RestAssured.basePath = option(options, "base-path", "api/v1");
+        String usernameOrEmail = option(options, "username", GLOBAL_ADMIN_USERNAME);
+        String password = option(options, "password", GLOBAL_ADMIN_PASSWORD);
+        String fakeServerPort = option(options, "fake-server", null);
+        if (fakeServerPort != null) {
+            if (usernameOrEmail == null) {
+                usernameOrEmail = FakeAuthServer.DEFAULT_GLOBAL_ADMIN_USERNAME;
+                password = FakeAuthServer.DEFAULT_GLOBAL_ADMIN_PASSWORD;
+            }
+            FakeAuthServer.start(
+                    Integer.parseInt(fakeServerPort),
+                    usernameOrEmail,
+                    password,
+                    0
+            );
+            RestAssured.baseURI = FakeAuthServer.getBaseUrl();
+        }
+        String faultProxyPort = option(options, "fault-proxy", null);
+        if (faultProxyPort != null) {
+            String faultRules = option(options, "fault-rules", null);
+            if (faultRules != null) {
+                FaultInjectionProxy.addRules(FaultRule.load(Path.of(faultRules)));
+            }
+            FaultInjectionProxy.start(
+                    Integer.parseInt(faultProxyPort),
+                    RestAssured.baseURI
+            );
+            RestAssured.baseURI = FaultInjectionProxy.getBaseUrl();
+        }
+        RestAssured.requestSpecification = given().header(X_DEVICE_ID_HEADER, DEFAULT_DEVICE_ID);
+        String mixFile = option(options, "mix", null);
+        ScenarioMix mix = null;
+        String scenarioName;
+        LoadScenario scenario;
+        if (mixFile != null) {
+            mix = ScenarioMix.load(
+                    Path.of(mixFile),
+                    new ScenarioMix.Credentials(usernameOrEmail, password)
+            );
+            scenarioName = mixFile;
+            scenario = mix;
+        } else {
+            scenarioName = option(options, "scenario", "getSelfDetails");
+            scenario = LoadScenarios.byName(
+                    scenarioName,
+                    usernameOrEmail,
+                    password
+            );
+        }
+        Map<String, String> pacing = mix == null ? Map.of() : mix.getPacing();
+        double targetRate = Double.parseDouble(option(options, "rate", pacing.getOrDefault("rate", "10")));
+        LoadProfile profile = new LoadProfile(
+                Double.parseDouble(option(options, "start-rate", pacing.getOrDefault("start-rate", Double.toString(targetRate)))),
+                targetRate,
+                parseDuration(option(options, "ramp", pacing.getOrDefault("ramp", "0s"))),
+                parseDuration(option(options, "duration", pacing.getOrDefault("duration", "60s"))),
+                Integer.parseInt(option(options, "max-in-flight", pacing.getOrDefault("max-in-flight", "10000")))
+        );
+        log.info(
+                "Running scenario '{}' against '{}' from {} to {} req/s over a {} ramp for {}",
+                scenarioName,
+                RestAssured.baseURI,
+                profile.startRatePerSecond(),
+                profile.targetRatePerSecond(),
+                profile.ramp(),
+                profile.duration()
+        );
+        logResult(run(profile, scenario));
+        if (mix != null) {
+            mix.logStepReport();
+        }
+        logReport();
+        logSummary();
+        ExchangeCapture.close();
+        FaultInjectionProxy.stop();
+        FakeAuthServer.stop();
+    }
+
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith(OPTION_PREFIX) ||
+                    separator < 0) {
+                throw new IllegalArgumentException("Expected options of the form --name=value but got '" + arg + "'");
+            }
+            options.put(arg.substring(OPTION_PREFIX.length(), separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    static String option(Map<String, String> options,
+                         String name,
+                         String defaultValue) {
+        String value = options.get(name);
+        if (value != null) {
+            return value;
+        }
+        return System.getProperty(PROPERTY_PREFIX + name, defaultValue);
+    }
+}
@@ -0,0 +1,48 @@
+package org.vimal.load;
+
+import java.time.Duration;
+
+public record LoadProfile(double startRatePerSecond,
+                          double targetRatePerSecond,
+                          Duration ramp,
+                          Duration duration,
+                          int maxInFlight) {
+    public LoadProfile {
+        if (startRatePerSecond < 0 ||
+                targetRatePerSecond <= 0) {
+            throw new IllegalArgumentException("Arrival rates must be positive, got start " + startRatePerSecond + " & target " + targetRatePerSecond);
+        }
+        if (ramp.isNegative() ||
+                ramp.compareTo(duration) > 0) {
+            throw new IllegalArgumentException("Ramp " + ramp + " must be between zero and the duration " + duration);
+        }
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("Max in flight must be positive, got " + maxInFlight);
+        }
+    }
+
+    public static LoadProfile constant(double ratePerSecond,
+                                       Duration duration,
+                                       int maxInFlight) {
+        return new LoadProfile(
+                ratePerSecond,
+                ratePerSecond,
+                Duration.ZERO,
+                duration,
+                maxInFlight
+        );
+    }
+
+    long intendedOffsetNanos(long arrival) {
+        double rampSeconds = ramp.toNanos() / 1_000_000_000.0;
+        double rampArrivals = (startRatePerSecond + targetRatePerSecond) / 2 * rampSeconds;
+        double seconds;
+        if (arrival >= rampArrivals) {
+            seconds = rampSeconds + (arrival - rampArrivals) / targetRatePerSecond;
+        } else {
+            double acceleration = (targetRatePerSecond - startRatePerSecond) / (2 * rampSeconds);
+            seconds = acceleration == 0 ? arrival / startRatePerSecond : (Math.sqrt(startRatePerSecond * startRatePerSecond + 4 * acceleration * arrival) - startRatePerSecond) / (2 * acceleration);
+        }
+        return (long) (seconds * 1_000_000_000L);
+    }
+}
@@ -0,0 +1,14 @@
+package org.vimal.load;
+
+import io.restassured.response.Response;
+
+@FunctionalInterface
+public interface LoadScenario {
+    Response execute(long iteration) throws Exception;
+
+    // Time the last execute on the calling thread spent idle on purpose, such as a journey's think time, which is
+    // left out of the recorded latencies. Reading it resets it.
+    default long takeIdleNanos() {
+        return 0;
+    }
+}
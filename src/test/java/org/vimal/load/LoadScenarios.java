@@ -0,0 +1,43 @@
+package org.vimal.load;
+
+import org.vimal.api.AccessTokenHolder;
+
+import java.util.concurrent.ExecutionException;
+
+import static org.vimal.api.AuthenticationCalls.getRefreshToken;
+import static org.vimal.api.AuthenticationCalls.login;
+import static org.vimal.api.AuthenticationCalls.refreshAccessToken;
+import static org.vimal.api.UserCalls.getSelfDetails;
+
+public final class LoadScenarios {
+    private LoadScenarios() {
+    }
+
+    public static LoadScenario byName(String name,
+                                      String usernameOrEmail,
+                                      String password) throws ExecutionException, InterruptedException {
+        return switch (name) {
+            case "login" -> iteration -> login(
+                    usernameOrEmail,
+                    password
+            );
+            case "refreshAccessToken" -> {
+                String refreshToken = getRefreshToken(
+                        usernameOrEmail,
+                        password
+                );
+                yield iteration -> refreshAccessToken(refreshToken);
+            }
+            case "getSelfDetails" -> {
+                AccessTokenHolder accessTokenHolder = new AccessTokenHolder(
+                        usernameOrEmail,
+                        password
+                );
+                accessTokenHolder.getAccessToken();
+                yield iteration -> getSelfDetails(accessTokenHolder.getAccessToken());
+            }
+            default ->
+                    throw new IllegalArgumentException("Unknown load scenario '" + name + "', expected one of login, refreshAccessToken or getSelfDetails");
+        };
+    }
+}
@@ -0,0 +1,502 @@
+package org.vimal.load;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.response.Response;
+import lombok.extern.slf4j.Slf4j;
+import org.vimal.api.AccessTokenHolder;
+import org.vimal.dtos.UserDto;
+import org.vimal.utils.LatencyHistogram;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+import static org.vimal.api.AdminCalls.createUsers;
+import static org.vimal.api.AdminCalls.deleteUsers;
+import static org.vimal.api.AdminCalls.readPermissions;
+import static org.vimal.api.AdminCalls.readRoles;
+import static org.vimal.api.AdminCalls.readUsers;
+import static org.vimal.api.AuthenticationCalls.login;
+import static org.vimal.api.AuthenticationCalls.logout;
+import static org.vimal.api.AuthenticationCalls.refreshAccessToken;
+import static org.vimal.api.AuthenticationCalls.requestToToggleMfa;
+import static org.vimal.api.UserCalls.changePassword;
+import static org.vimal.api.UserCalls.getActiveDevices;
+import static org.vimal.api.UserCalls.getSelfDetails;
+import static org.vimal.constants.Common.EMAIL_MFA;
+import static org.vimal.constants.Common.ENABLE;
+import static org.vimal.constants.Common.HARD;
+import static org.vimal.constants.Common.MAX_BATCH_SIZE_OF_USER_CREATION_AT_A_TIME;
+import static org.vimal.helpers.CleanUpJournalHelper.journalCreatedUsers;
+import static org.vimal.helpers.CleanUpJournalHelper.journalDeletedUsers;
+import static org.vimal.helpers.DtosHelper.createRandomUserDtos;
+import static org.vimal.utils.DateTimeUtility.parseDuration;
+import static org.vimal.utils.SeedUtility.getSeed;
+import static org.vimal.utils.SeedUtility.isSeeded;
+
+@Slf4j
+public final class ScenarioMix implements LoadScenario {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private static final Set<String> CALLS = Set.of(
+            "login",
+            "logout",
+            "refreshAccessToken",
+            "requestToToggleMfa",
+            "getSelfDetails",
+            "getActiveDevices",
+            "changePassword",
+            "readUsers",
+            "readRoles",
+            "readPermissions",
+            "createUsers",
+            "deleteUsers"
+    );
+    private final Map<String, String> pacing;
+    private final List<Journey> journeys;
+    private final double[] cumulativeWeights;
+    private final List<UserState> users;
+    private final Map<String, StepStats> stepStats = new ConcurrentHashMap<>();
+    private final ThreadLocal<Long> thinkNanos = new ThreadLocal<>();
+
+    public record Definition(Map<String, String> pacing,
+                             List<Credentials> users,
+                             List<Journey> journeys) {
+    }
+
+    public record Credentials(String usernameOrEmail,
+                              String password) {
+    }
+
+    public record Journey(String name,
+                          double weight,
+                          List<Step> steps) {
+    }
+
+    public record Step(String call,
+                       String thinkTime,
+                       String maxThinkTime,
+                       Map<String, String> args) {
+    }
+
+    private record UserState(Credentials credentials,
+                             AccessTokenHolder accessTokenHolder,
+                             Queue<String> idleRefreshTokens) {
+    }
+
+    private static final class StepStats {
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+    }
+
+    private static final class Session {
+        private final UserState user;
+        private String accessToken;
+        private String refreshToken;
+        private boolean pooledRefreshToken;
+        private final Set<String> createdUsernames = new LinkedHashSet<>();
+        private final Map<String, String> createdPasswords = new LinkedHashMap<>();
+        private String createdUserAccessToken;
+
+        private Session(UserState user) {
+            this.user = user;
+        }
+    }
+
+    private ScenarioMix(Definition definition,
+                        Credentials defaultCredentials) {
+        if (definition.journeys() == null ||
+                definition.journeys()
+                        .isEmpty()) {
+            throw new IllegalArgumentException("A scenario mix needs at least one journey");
+        }
+        this.pacing = definition.pacing() == null ? Map.of() : Map.copyOf(definition.pacing());
+        this.journeys = List.copyOf(definition.journeys());
+        this.cumulativeWeights = new double[journeys.size()];
+        double totalWeight = 0;
+        for (int i = 0; i < journeys.size(); i++) {
+            Journey journey = journeys.get(i);
+            if (journey.weight() <= 0 ||
+                    journey.steps() == null ||
+                    journey.steps()
+                            .isEmpty()) {
+                throw new IllegalArgumentException("Journey '" + journey.name() + "' needs a positive weight & at least one step");
+            }
+            for (Step step : journey.steps()) {
+                if (!CALLS.contains(step.call())) {
+                    throw new IllegalArgumentException("Unknown call '" + step.call() + "' in journey '" + journey.name() + "', expected one of " + new TreeSet<>(CALLS));
+                }
+            }
+            totalWeight += journey.weight();
+            cumulativeWeights[i] = totalWeight;
+        }
+        List<Credentials> credentials = definition.users() == null ||
+                definition.users()
+                        .isEmpty() ? List.of(defaultCredentials) : definition.users();
+        List<UserState> userStates = new ArrayList<>(credentials.size());
+        for (Credentials credential : credentials) {
+            userStates.add(new UserState(
+                    credential,
+                    new AccessTokenHolder(credential.usernameOrEmail(), credential.password()),
+                    new ConcurrentLinkedQueue<>()
+            ));
+        }
+        this.users = List.copyOf(userStates);
+    }
+
+    public static ScenarioMix load(Path definitionFile,
+                                   Credentials defaultCredentials) throws IOException {
+        return new ScenarioMix(
+                OBJECT_MAPPER.readValue(definitionFile.toFile(), Definition.class),
+                defaultCredentials
+        );
+    }
+
+    public Map<String, String> getPacing() {
+        return pacing;
+    }
+
+    @Override
+    public Response execute(long iteration) throws Exception {
+        RandomGenerator random = isSeeded() ? new SplittableRandom(getSeed() * 31 + iteration) : ThreadLocalRandom.current();
+        Journey journey = journeys.get(pickJourney(random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1]));
+        Session session = new Session(users.get((int) (iteration % users.size())));
+        Response response = null;
+        long thoughtNanos = 0;
+        try {
+            for (Step step : journey.steps()) {
+                if (step.call()
+                        .equals("refreshAccessToken") &&
+                        session.refreshToken == null) {
+                    response = startRefreshableSession(journey, session);
+                    if (response != null &&
+                            response.statusCode() / 100 != 2) {
+                        return response;
+                    }
+                }
+                if (step.call()
+                        .equals("changePassword") &&
+                        session.createdUserAccessToken == null) {
+                    response = loginAsCreatedUser(journey, session);
+                    if (response.statusCode() / 100 != 2) {
+                        return response;
+                    }
+                }
+                long startedAt = System.nanoTime();
+                int statusCode = 0;
+                try {
+                    response = call(step, session);
+                    statusCode = response.statusCode();
+                } finally {
+                    recordStep(journey.name() + " / " + step.call(), startedAt, statusCode);
+                }
+                if (statusCode / 100 != 2) {
+                    return response;
+                }
+                thoughtNanos += think(step, random);
+            }
+            return response;
+        } finally {
+            thinkNanos.set(thoughtNanos);
+            if (session.pooledRefreshToken &&
+                    session.refreshToken != null) {
+                session.user.idleRefreshTokens()
+                        .offer(session.refreshToken);
+            }
+            cleanUpCreatedUsers(session);
+        }
+    }
+
+    @Override
+    public long takeIdleNanos() {
+        Long thoughtNanos = thinkNanos.get();
+        thinkNanos.remove();
+        return thoughtNanos == null ? 0 : thoughtNanos;
+    }
+
+    private void recordStep(String key,
+                            long startedAt,
+                            int statusCode) {
+        StepStats stats = stepStats.computeIfAbsent(key, ignored -> new StepStats());
+        stats.latencies.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startedAt));
+        stats.statusCounts.computeIfAbsent(statusCode, ignored -> new LongAdder())
+                .increment();
+    }
+
+    // A refresh journey models a client that is already logged in, so it continues one of the user's idle sessions
+    // and hands it back afterwards. Only when every session of the user is busy does it log in, and that login is
+    // recorded as its own step instead of inflating the refresh latency.
+    private Response startRefreshableSession(Journey journey,
+                                             Session session) throws Exception {
+        String refreshToken = session.user.idleRefreshTokens()
+                .poll();
+        if (refreshToken != null) {
+            session.refreshToken = refreshToken;
+            session.pooledRefreshToken = true;
+            return null;
+        }
+        long startedAt = System.nanoTime();
+        int statusCode = 0;
+        Response response;
+        try {
+            response = login(
+                    session.user.credentials().usernameOrEmail(),
+                    session.user.credentials().password()
+            );
+            statusCode = response.statusCode();
+        } finally {
+            recordStep(journey.name() + " / login for new session", startedAt, statusCode);
+        }
+        if (statusCode != 200) {
+            return response;
+        }
+        session.refreshToken = response.jsonPath()
+                .getString("refresh_token");
+        if (session.refreshToken == null) {
+            throw new IllegalStateException("Login of '" + session.user.credentials().usernameOrEmail() + "' returned no refresh token");
+        }
+        session.pooledRefreshToken = true;
+        return response;
+    }
+
+    private int pickJourney(double point) {
+        int index = Arrays.binarySearch(cumulativeWeights, point);
+        index = index < 0 ? -index - 1 : index + 1;
+        return Math.min(index, cumulativeWeights.length - 1);
+    }
+
+    // Changing the password of a shared mix user would break every concurrent login with it, so password changes
+    // run against a user created earlier in the same journey. Logging in as that user is reported as its own step.
+    private Response loginAsCreatedUser(Journey journey,
+                                        Session session) throws Exception {
+        if (session.createdPasswords.isEmpty()) {
+            throw new IllegalStateException("Journey '" + journey.name() + "' needs a createUsers step before changePassword");
+        }
+        Map.Entry<String, String> createdUser = session.createdPasswords.entrySet()
+                .iterator()
+                .next();
+        long startedAt = System.nanoTime();
+        int statusCode = 0;
+        Response response;
+        try {
+            response = login(
+                    createdUser.getKey(),
+                    createdUser.getValue()
+            );
+            statusCode = response.statusCode();
+        } finally {
+            recordStep(journey.name() + " / login as created user", startedAt, statusCode);
+        }
+        if (statusCode == 200) {
+            session.createdUserAccessToken = response.jsonPath()
+                    .getString("access_token");
+        }
+        return response;
+    }
+
+    private static Response changeCreatedUserPassword(Session session) throws Exception {
+        Map.Entry<String, String> createdUser = session.createdPasswords.entrySet()
+                .iterator()
+                .next();
+        String newPassword = "New" + createdUser.getValue();
+        Response response = changePassword(
+                session.createdUserAccessToken,
+                Map.of(
+                        "oldPassword", createdUser.getValue(),
+                        "password", newPassword,
+                        "confirmPassword", newPassword
+                )
+        );
+        if (response.statusCode() == 200) {
+            createdUser.setValue(newPassword);
+        }
+        return response;
+    }
+
+    private static long think(Step step,
+                              RandomGenerator random) throws InterruptedException {
+        if (step.thinkTime() == null) {
+            return 0;
+        }
+        long thinkMillis = parseDuration(step.thinkTime()).toMillis();
+        if (step.maxThinkTime() != null) {
+            long maxThinkMillis = parseDuration(step.maxThinkTime()).toMillis();
+            if (maxThinkMillis > thinkMillis) {
+                thinkMillis = random.nextLong(thinkMillis, maxThinkMillis + 1);
+            }
+        }
+        long startedAt = System.nanoTime();
+        Thread.sleep(thinkMillis);
+        return System.nanoTime() - startedAt;
+    }
+
+    private Response call(Step step,
+                          Session session) throws Exception {
+        Map<String, String> args = step.args() == null ? Map.of() : step.args();
+        return switch (step.call()) {
+            case "login" -> {
+                Response response = login(
+                        session.user.credentials().usernameOrEmail(),
+                        session.user.credentials().password()
+                );
+                if (response.statusCode() == 200) {
+                    session.accessToken = response.jsonPath()
+                            .getString("access_token");
+                    session.refreshToken = response.jsonPath()
+                            .getString("refresh_token");
+                }
+                yield response;
+            }
+            case "logout" -> {
+                Response response = logout(accessToken(session));
+                session.accessToken = null;
+                session.refreshToken = null;
+                yield response;
+            }
+            case "refreshAccessToken" -> refresh(session);
+            case "requestToToggleMfa" -> requestToToggleMfa(
+                    accessToken(session),
+                    args.getOrDefault("type", EMAIL_MFA),
+                    args.getOrDefault("toggle", ENABLE)
+            );
+            case "getSelfDetails" -> getSelfDetails(accessToken(session));
+            case "getActiveDevices" -> getActiveDevices(accessToken(session));
+            case "changePassword" -> changeCreatedUserPassword(session);
+            case "readUsers" -> readUsers(
+                    accessToken(session),
+                    names(args, session.user.credentials().usernameOrEmail()),
+                    args.get("leniency")
+            );
+            case "readRoles" -> readRoles(
+                    accessToken(session),
+                    names(args, null),
+                    args.get("leniency")
+            );
+            case "readPermissions" -> readPermissions(
+                    accessToken(session),
+                    names(args, null),
+                    args.get("leniency")
+            );
+            case "createUsers" -> {
+                Set<UserDto> users = createRandomUserDtos(Math.min(
+                        Integer.parseInt(args.getOrDefault("count", "1")),
+                        MAX_BATCH_SIZE_OF_USER_CREATION_AT_A_TIME
+                ));
+                Set<String> usernames = new LinkedHashSet<>();
+                for (UserDto user : users) {
+                    usernames.add(user.getUsername());
+                    session.createdPasswords.put(user.getUsername(), user.getPassword());
+                }
+                journalCreatedUsers(usernames);
+                session.createdUsernames.addAll(usernames);
+                yield createUsers(
+                        accessToken(session),
+                        users,
+                        args.get("leniency")
+                );
+            }
+            case "deleteUsers" -> {
+                Set<String> usernames = Set.copyOf(session.createdUsernames);
+                Response response = deleteUsers(
+                        accessToken(session),
+                        usernames,
+                        HARD,
+                        null
+                );
+                if (response.statusCode() == 200) {
+                    journalDeletedUsers(usernames);
+                    session.createdUsernames.clear();
+                    session.createdPasswords.clear();
+                    session.createdUserAccessToken = null;
+                }
+                yield response;
+            }
+            default -> throw new IllegalStateException("Unhandled call '" + step.call() + "'");
+        };
+    }
+
+    private static String accessToken(Session session) throws Exception {
+        return session.accessToken != null ? session.accessToken : session.user.accessTokenHolder()
+                .getAccessToken();
+    }
+
+    private static Response refresh(Session session) throws Exception {
+        Response response = refreshAccessToken(session.refreshToken);
+        if (response.statusCode() == 200) {
+            session.accessToken = response.jsonPath()
+                    .getString("access_token");
+            String rotated = response.jsonPath()
+                    .getString("refresh_token");
+            if (rotated != null) {
+                session.refreshToken = rotated;
+            }
+        } else {
+            session.refreshToken = null;
+        }
+        return response;
+    }
+
+    private static Set<String> names(Map<String, String> args,
+                                     String defaultName) {
+        String names = args.get("names");
+        if (names == null) {
+            return defaultName == null ? Set.of() : Set.of(defaultName);
+        }
+        Set<String> result = new LinkedHashSet<>();
+        for (String name : names.split(",")) {
+            if (!name.isBlank()) {
+                result.add(name.strip());
+            }
+        }
+        return result;
+    }
+
+    private void cleanUpCreatedUsers(Session session) {
+        if (session.createdUsernames.isEmpty()) {
+            return;
+        }
+        try {
+            Response response = deleteUsers(
+                    session.user.accessTokenHolder()
+                            .getAccessToken(),
+                    Set.copyOf(session.createdUsernames),
+                    HARD,
+                    null
+            );
+            if (response.statusCode() == 200) {
+                journalDeletedUsers(session.createdUsernames);
+            }
+        } catch (Exception ex) {
+            log.warn("Could not delete {} user(s) created by a load journey, they stay in the cleanup journal", session.createdUsernames.size(), ex);
+        }
+    }
+
+    public void logStepReport() {
+        if (stepStats.isEmpty()) {
+            return;
+        }
+        log.info(String.format(Locale.ROOT, "%-50s %8s %10s %10s %10s %10s %s", "JOURNEY / STEP", "COUNT", "P50_MS", "P90_MS", "P99_MS", "MAX_MS", "STATUS_COUNTS"));
+        for (Map.Entry<String, StepStats> entry : new TreeMap<>(stepStats).entrySet()) {
+            LatencyHistogram latencies = entry.getValue().latencies;
+            Map<Integer, Long> statusCounts = new TreeMap<>();
+            entry.getValue().statusCounts.forEach((statusCode, count) -> statusCounts.put(statusCode, count.sum()));
+            log.info(String.format(
+                    Locale.ROOT,
+                    "%-50s %8d %10.3f %10.3f %10.3f %10.3f %s",
+                    entry.getKey(),
+                    latencies.getTotalCount(),
+                    latencies.getValueAtPercentile(50) / 1000.0,
+                    latencies.getValueAtPercentile(90) / 1000.0,
+                    latencies.getValueAtPercentile(99) / 1000.0,
+                    latencies.getMax() / 1000.0,
+                    statusCounts
+            ));
+        }
+    }
+}
@@ -0,0 +1,541 @@
+package org.vimal.proxy;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+import static org.vimal.utils.SeedUtility.getSeed;
+import static org.vimal.utils.SeedUtility.isSeeded;
+
+@Slf4j
+public final class FaultInjectionProxy implements AutoCloseable {
+    private static final int MAX_HEAD_BYTES = 65_536;
+    private static final int THROTTLE_TICKS_PER_SECOND = 50;
+    private static final String INJECTED_ERROR_MESSAGE = "Injected by the fault injection proxy";
+    private static final Map<Integer, String> REASON_PHRASES = Map.of(
+            400, "Bad Request",
+            401, "Unauthorized",
+            403, "Forbidden",
+            404, "Not Found",
+            429, "Too Many Requests",
+            500, "Internal Server Error",
+            502, "Bad Gateway",
+            503, "Service Unavailable",
+            504, "Gateway Timeout"
+    );
+    private static final List<FaultRule> RULES = new CopyOnWriteArrayList<>();
+    private static volatile FaultInjectionProxy current;
+    private final ServerSocket serverSocket;
+    private final String upstreamHost;
+    private final int upstreamPort;
+    private final String upstreamPath;
+    private final Thread acceptThread;
+    private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+    private final AtomicLong requestSequence = new AtomicLong();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder delayed = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder injectedErrors = new LongAdder();
+    private final LongAdder resets = new LongAdder();
+    private final LongAdder midResponseResets = new LongAdder();
+    private volatile boolean closed;
+
+    public record Stats(long requests,
+                        long delayed,
+                        long throttled,
+                        long injectedErrors,
+                        long resets,
+                        long midResponseResets) {
+    }
+
+    private record HttpMessage(String startLine,
+                               List<String> headerLines,
+                               byte[] body,
+                               boolean closeAfter) {
+        private String header(String name) {
+            for (String line : headerLines) {
+                int separator = line.indexOf(':');
+                if (separator > 0 &&
+                        line.substring(0, separator)
+                                .strip()
+                                .equalsIgnoreCase(name)) {
+                    return line.substring(separator + 1)
+                            .strip();
+                }
+            }
+            return null;
+        }
+
+        private byte[] toBytes(String hostHeader) {
+            StringBuilder head = new StringBuilder(startLine.length() + headerLines.size() * 32).append(startLine)
+                    .append("\r\n");
+            for (String line : headerLines) {
+                if (hostHeader != null &&
+                        line.regionMatches(true, 0, "Host:", 0, 5)) {
+                    head.append("Host: ")
+                            .append(hostHeader);
+                } else {
+                    head.append(line);
+                }
+                head.append("\r\n");
+            }
+            head.append("\r\n");
+            byte[] headBytes = head.toString()
+                    .getBytes(StandardCharsets.ISO_8859_1);
+            byte[] bytes = Arrays.copyOf(headBytes, headBytes.length + body.length);
+            System.arraycopy(body, 0, bytes, headBytes.length, body.length);
+            return bytes;
+        }
+    }
+
+    private final class Upstream implements AutoCloseable {
+        private final Socket socket;
+        private final InputStream in;
+        private final OutputStream out;
+
+        private Upstream() throws IOException {
+            this.socket = new Socket();
+            openSockets.add(socket);
+            try {
+                socket.setTcpNoDelay(true);
+                socket.connect(new InetSocketAddress(upstreamHost, upstreamPort));
+                this.in = new BufferedInputStream(socket.getInputStream());
+                this.out = socket.getOutputStream();
+            } catch (IOException ex) {
+                close();
+                throw ex;
+            }
+        }
+
+        @Override
+        public void close() {
+            closeQuietly(socket);
+            openSockets.remove(socket);
+        }
+    }
+
+    private FaultInjectionProxy(int port,
+                                URI upstream) throws IOException {
+        if (!"http".equalsIgnoreCase(upstream.getScheme()) ||
+                upstream.getHost() == null) {
+            throw new IllegalArgumentException("The fault injection proxy only fronts plain http upstreams but got '" + upstream + "'");
+        }
+        this.upstreamHost = upstream.getHost();
+        this.upstreamPort = upstream.getPort() < 0 ? 80 : upstream.getPort();
+        this.upstreamPath = upstream.getRawPath() == null ? "" : upstream.getRawPath();
+        this.serverSocket = new ServerSocket();
+        this.serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        this.acceptThread = Thread.ofVirtual()
+                .name("fault-injection-proxy-accept")
+                .start(this::acceptLoop);
+    }
+
+    public static synchronized int start(int port,
+                                         String upstreamBaseUrl) throws IOException {
+        if (current == null) {
+            current = new FaultInjectionProxy(port, URI.create(upstreamBaseUrl));
+            log.info(
+                    "Fault injection proxy listening on '{}' in front of '{}' with {} rule(s)",
+                    getBaseUrl(),
+                    upstreamBaseUrl,
+                    RULES.size()
+            );
+        }
+        return current.serverSocket.getLocalPort();
+    }
+
+    public static synchronized void stop() {
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+    }
+
+    public static boolean isRunning() {
+        return current != null;
+    }
+
+    public static String getBaseUrl() {
+        FaultInjectionProxy proxy = current();
+        return "http://127.0.0.1:" + proxy.serverSocket.getLocalPort() + proxy.upstreamPath;
+    }
+
+    public static FaultRule addRule(FaultRule rule) {
+        RULES.addFirst(rule);
+        return rule;
+    }
+
+    public static void addRules(List<FaultRule> rules) {
+        RULES.addAll(0, rules);
+    }
+
+    public static void removeRule(FaultRule rule) {
+        RULES.remove(rule);
+    }
+
+    public static void clearRules() {
+        RULES.clear();
+    }
+
+    public static Stats getStats() {
+        return current().stats();
+    }
+
+    private static FaultInjectionProxy current() {
+        FaultInjectionProxy proxy = current;
+        if (proxy == null) {
+            throw new IllegalStateException("Fault injection proxy is not running");
+        }
+        return proxy;
+    }
+
+    private Stats stats() {
+        return new Stats(
+                requests.sum(),
+                delayed.sum(),
+                throttled.sum(),
+                injectedErrors.sum(),
+                resets.sum(),
+                midResponseResets.sum()
+        );
+    }
+
+    private void acceptLoop() {
+        Socket socket;
+        while (!closed) {
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException ex) {
+                if (!closed) {
+                    log.warn("Fault injection proxy stopped accepting connections", ex);
+                }
+                return;
+            }
+            Socket connection = socket;
+            openSockets.add(connection);
+            Thread.ofVirtual()
+                    .name("fault-injection-proxy-session")
+                    .start(() -> serve(connection));
+        }
+    }
+
+    private void serve(Socket client) {
+        Upstream upstream = null;
+        try (client) {
+            InputStream clientIn = new BufferedInputStream(client.getInputStream());
+            OutputStream clientOut = new BufferedOutputStream(client.getOutputStream());
+            HttpMessage request;
+            while (!closed &&
+                    (request = readMessage(clientIn, null)) != null) {
+                long sequence = requestSequence.incrementAndGet();
+                requests.increment();
+                String[] requestLine = request.startLine()
+                        .split(" ", 3);
+                if (requestLine.length < 2) {
+                    throw new IOException("Malformed request line '" + request.startLine() + "'");
+                }
+                FaultRule rule = matchingRule(requestLine[0], requestLine[1]);
+                RandomGenerator random = isSeeded() ? new SplittableRandom(getSeed() * 31 + sequence) : ThreadLocalRandom.current();
+                long bytesPerSecond = 0;
+                if (rule != null) {
+                    bytesPerSecond = rule.bytesPerSecond();
+                    if (bytesPerSecond > 0) {
+                        throttled.increment();
+                    }
+                    long latencyMillis = rule.latency() == null ? 0 : rule.latency()
+                            .sampleMillis(random);
+                    if (latencyMillis > 0) {
+                        delayed.increment();
+                        Thread.sleep(latencyMillis);
+                    }
+                    if (roll(random, rule.resetProbability())) {
+                        resets.increment();
+                        reset(client);
+                        return;
+                    }
+                    if (roll(random, rule.errorProbability())) {
+                        injectedErrors.increment();
+                        write(clientOut, errorResponse(rule.errorStatus()), bytesPerSecond);
+                        if (isClose(request)) {
+                            return;
+                        }
+                        continue;
+                    }
+                }
+                byte[] requestBytes = request.toBytes(upstreamHost + ":" + upstreamPort);
+                HttpMessage response = null;
+                for (int attempt = 0; response == null && attempt < 2; attempt++) {
+                    boolean reused = upstream != null;
+                    if (upstream == null) {
+                        upstream = new Upstream();
+                    }
+                    try {
+                        write(upstream.out, requestBytes, bytesPerSecond);
+                        response = readMessage(upstream.in, requestLine[0]);
+                    } catch (SocketException ex) {
+                        if (!reused) {
+                            throw ex;
+                        }
+                    }
+                    if (response == null) {
+                        upstream.close();
+                        upstream = null;
+                        if (!reused) {
+                            throw new EOFException("Upstream closed the connection without a response");
+                        }
+                    }
+                }
+                byte[] responseBytes = response.toBytes(null);
+                if (rule != null &&
+                        roll(random, rule.midResponseResetProbability())) {
+                    midResponseResets.increment();
+                    clientOut.write(responseBytes, 0, responseBytes.length / 2);
+                    clientOut.flush();
+                    reset(client);
+                    return;
+                }
+                write(clientOut, responseBytes, bytesPerSecond);
+                if (response.closeAfter() ||
+                        isClose(response)) {
+                    upstream.close();
+                    upstream = null;
+                }
+                if (isClose(request)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread()
+                    .interrupt();
+        } catch (IOException ex) {
+            if (!closed) {
+                log.debug("Fault injection proxy session ended: {}", ex.toString());
+            }
+        } finally {
+            if (upstream != null) {
+                upstream.close();
+            }
+            openSockets.remove(client);
+        }
+    }
+
+    private static FaultRule matchingRule(String method,
+                                          String target) {
+        for (FaultRule rule : RULES) {
+            if (rule.matches(method, target)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private static boolean roll(RandomGenerator random,
+                                double probability) {
+        return probability > 0 &&
+                random.nextDouble() < probability;
+    }
+
+    private static boolean isClose(HttpMessage message) {
+        return "close".equalsIgnoreCase(message.header("Connection"));
+    }
+
+    private static byte[] errorResponse(int statusCode) {
+        String reason = REASON_PHRASES.getOrDefault(statusCode, "Injected Fault");
+        byte[] body = ("{\"error\":\"" + reason + "\",\"message\":\"" + INJECTED_ERROR_MESSAGE + "\"}").getBytes(StandardCharsets.UTF_8);
+        return new HttpMessage(
+                "HTTP/1.1 " + statusCode + " " + reason,
+                List.of(
+                        "Content-Type: application/json",
+                        "Content-Length: " + body.length
+                ),
+                body,
+                false
+        ).toBytes(null);
+    }
+
+    private static HttpMessage readMessage(InputStream in,
+                                           String requestMethod) throws IOException {
+        String head = readHead(in);
+        if (head == null) {
+            return null;
+        }
+        String[] lines = head.split("\r\n");
+        HttpMessage message = new HttpMessage(
+                lines[0],
+                List.of(Arrays.copyOfRange(lines, 1, lines.length)),
+                new byte[0],
+                false
+        );
+        boolean response = requestMethod != null;
+        if (response &&
+                !hasResponseBody(requestMethod, message.startLine())) {
+            return message;
+        }
+        String transferEncoding = message.header("Transfer-Encoding");
+        if (transferEncoding != null &&
+                transferEncoding.toLowerCase(Locale.ROOT)
+                        .contains("chunked")) {
+            return new HttpMessage(message.startLine(), message.headerLines(), readChunkedBody(in), false);
+        }
+        String contentLength = message.header("Content-Length");
+        if (contentLength != null) {
+            int length = Integer.parseInt(contentLength);
+            byte[] body = in.readNBytes(length);
+            if (body.length != length) {
+                throw new EOFException("Expected a body of " + length + " byte(s) but the stream ended after " + body.length);
+            }
+            return new HttpMessage(message.startLine(), message.headerLines(), body, false);
+        }
+        if (!response) {
+            return message;
+        }
+        return new HttpMessage(message.startLine(), message.headerLines(), in.readAllBytes(), true);
+    }
+
+    private static boolean hasResponseBody(String requestMethod,
+                                           String statusLine) {
+        if ("HEAD".equalsIgnoreCase(requestMethod)) {
+            return false;
+        }
+        String[] parts = statusLine.split(" ", 3);
+        int statusCode = parts.length < 2 ? 0 : Integer.parseInt(parts[1]);
+        return statusCode >= 200 &&
+                statusCode != 204 &&
+                statusCode != 304;
+    }
+
+    private static String readHead(InputStream in) throws IOException {
+        ByteArrayOutputStream head = new ByteArrayOutputStream(512);
+        int matched = 0;
+        int b;
+        while ((b = in.read()) >= 0) {
+            if (head.size() == 0 &&
+                    (b == '\r' ||
+                            b == '\n')) {
+                continue;
+            }
+            head.write(b);
+            matched = b == (matched % 2 == 0 ? '\r' : '\n') ? matched + 1 : (b == '\r' ? 1 : 0);
+            if (matched == 4) {
+                return head.toString(StandardCharsets.ISO_8859_1)
+                        .substring(0, head.size() - 4);
+            }
+            if (head.size() > MAX_HEAD_BYTES) {
+                throw new IOException("HTTP head exceeds " + MAX_HEAD_BYTES + " bytes");
+            }
+        }
+        if (head.size() == 0) {
+            return null;
+        }
+        throw new EOFException("Stream ended inside an HTTP head");
+    }
+
+    private static byte[] readChunkedBody(InputStream in) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+        String sizeLine;
+        int size;
+        do {
+            sizeLine = readLine(in, body);
+            int extension = sizeLine.indexOf(';');
+            size = Integer.parseInt((extension < 0 ? sizeLine : sizeLine.substring(0, extension)).strip(), 16);
+            if (size > 0) {
+                byte[] chunk = in.readNBytes(size + 2);
+                if (chunk.length != size + 2) {
+                    throw new EOFException("Stream ended inside a chunk");
+                }
+                body.write(chunk);
+            }
+        } while (size > 0);
+        String trailerLine;
+        do {
+            trailerLine = readLine(in, body);
+        } while (!trailerLine.isEmpty());
+        return body.toByteArray();
+    }
+
+    private static String readLine(InputStream in,
+                                   ByteArrayOutputStream copy) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) >= 0) {
+            copy.write(b);
+            if (b == '\n') {
+                int length = line.length();
+                return length > 0 && line.charAt(length - 1) == '\r' ? line.substring(0, length - 1) : line.toString();
+            }
+            line.append((char) b);
+        }
+        throw new EOFException("Stream ended inside a chunked body");
+    }
+
+    private static void write(OutputStream out,
+                              byte[] bytes,
+                              long bytesPerSecond) throws IOException, InterruptedException {
+        if (bytesPerSecond <= 0) {
+            out.write(bytes);
+            out.flush();
+            return;
+        }
+        int chunk = (int) Math.max(1, Math.min(bytes.length, bytesPerSecond / THROTTLE_TICKS_PER_SECOND));
+        long startedAt = System.nanoTime();
+        long waitNanos;
+        for (int offset = 0; offset < bytes.length; offset += chunk) {
+            int length = Math.min(chunk, bytes.length - offset);
+            out.write(bytes, offset, length);
+            out.flush();
+            waitNanos = startedAt + (offset + length) * 1_000_000_000L / bytesPerSecond - System.nanoTime();
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        }
+    }
+
+    private static void reset(Socket socket) throws IOException {
+        socket.setSoLinger(true, 0);
+        socket.close();
+    }
+
+    private static void closeQuietly(Socket socket) {
+        if (socket == null) {
+            return;
+        }
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+        }
+        acceptThread.interrupt();
+        for (Socket socket : openSockets) {
+            closeQuietly(socket);
+        }
+        openSockets.clear();
+        Stats stats = stats();
+        log.info(
+                "Fault injection proxy handled {} request(s): {} delayed, {} throttled, {} failed with injected errors, {} reset before & {} reset mid response",
+                stats.requests(),
+                stats.delayed(),
+                stats.throttled(),
+                stats.injectedErrors(),
+                stats.resets(),
+                stats.midResponseResets()
+        );
+    }
+}
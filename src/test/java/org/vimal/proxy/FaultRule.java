@@ -0,0 +1,140 @@
+package org.vimal.proxy;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public record FaultRule(String method,
+                        String path,
+                        LatencyDistribution latency,
+                        long bytesPerSecond,
+                        int errorStatus,
+                        double errorProbability,
+                        double resetProbability,
+                        double midResponseResetProbability) {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    public record Definitions(List<Definition> rules) {
+    }
+
+    public record Definition(String method,
+                             String path,
+                             String latency,
+                             Long bytesPerSecond,
+                             Integer errorStatus,
+                             Double errorProbability,
+                             Double resetProbability,
+                             Double midResponseResetProbability) {
+    }
+
+    public FaultRule {
+        if (bytesPerSecond < 0) {
+            throw new IllegalArgumentException("Bandwidth cannot be negative but was " + bytesPerSecond + " bytes/s");
+        }
+        requireProbability("error", errorProbability);
+        requireProbability("reset", resetProbability);
+        requireProbability("mid response reset", midResponseResetProbability);
+        if (errorProbability > 0 &&
+                (errorStatus < 400 ||
+                        errorStatus > 599)) {
+            throw new IllegalArgumentException("Injected error status must be a 4xx or 5xx but was " + errorStatus);
+        }
+    }
+
+    private static void requireProbability(String name,
+                                           double probability) {
+        if (probability < 0 ||
+                probability > 1) {
+            throw new IllegalArgumentException("The " + name + " probability must be within [0, 1] but was " + probability);
+        }
+    }
+
+    public static FaultRule anyRoute() {
+        return route(null, null);
+    }
+
+    public static FaultRule route(String method,
+                                  String path) {
+        return new FaultRule(method, path, null, 0, 0, 0, 0, 0);
+    }
+
+    public FaultRule withLatency(LatencyDistribution latency) {
+        return new FaultRule(method, path, latency, bytesPerSecond, errorStatus, errorProbability, resetProbability, midResponseResetProbability);
+    }
+
+    public FaultRule withLatency(String spec) {
+        return withLatency(LatencyDistribution.parse(spec));
+    }
+
+    public FaultRule withBandwidth(long bytesPerSecond) {
+        return new FaultRule(method, path, latency, bytesPerSecond, errorStatus, errorProbability, resetProbability, midResponseResetProbability);
+    }
+
+    public FaultRule withErrors(int errorStatus,
+                                double errorProbability) {
+        return new FaultRule(method, path, latency, bytesPerSecond, errorStatus, errorProbability, resetProbability, midResponseResetProbability);
+    }
+
+    public FaultRule withResets(double resetProbability) {
+        return new FaultRule(method, path, latency, bytesPerSecond, errorStatus, errorProbability, resetProbability, midResponseResetProbability);
+    }
+
+    public FaultRule withMidResponseResets(double midResponseResetProbability) {
+        return new FaultRule(method, path, latency, bytesPerSecond, errorStatus, errorProbability, resetProbability, midResponseResetProbability);
+    }
+
+    public boolean matches(String requestMethod,
+                           String requestPath) {
+        if (method != null &&
+                !method.equalsIgnoreCase(requestMethod)) {
+            return false;
+        }
+        if (path == null) {
+            return true;
+        }
+        int query = requestPath.indexOf('?');
+        String routePath = query < 0 ? requestPath : requestPath.substring(0, query);
+        if (path.endsWith("/*")) {
+            return routePath.contains(path.substring(0, path.length() - 1));
+        }
+        return routePath.endsWith(path);
+    }
+
+    public static List<FaultRule> load(Path definitionFile) throws IOException {
+        Definitions definitions = OBJECT_MAPPER.readValue(definitionFile.toFile(), Definitions.class);
+        if (definitions.rules() == null ||
+                definitions.rules()
+                        .isEmpty()) {
+            throw new IllegalArgumentException("Fault rule file '" + definitionFile + "' defines no rules");
+        }
+        List<FaultRule> rules = new ArrayList<>(definitions.rules()
+                .size());
+        for (Definition definition : definitions.rules()) {
+            FaultRule rule = route(definition.method(), definition.path());
+            if (definition.latency() != null) {
+                rule = rule.withLatency(definition.latency());
+            }
+            if (definition.bytesPerSecond() != null) {
+                rule = rule.withBandwidth(definition.bytesPerSecond());
+            }
+            if (definition.errorProbability() != null) {
+                rule = rule.withErrors(
+                        definition.errorStatus() == null ? 503 : definition.errorStatus(),
+                        definition.errorProbability()
+                );
+            }
+            if (definition.resetProbability() != null) {
+                rule = rule.withResets(definition.resetProbability());
+            }
+            if (definition.midResponseResetProbability() != null) {
+                rule = rule.withMidResponseResets(definition.midResponseResetProbability());
+            }
+            rules.add(rule);
+        }
+        return rules;
+    }
+}
@@ -0,0 +1,64 @@
+package org.vimal.proxy;
+
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+import static org.vimal.utils.DateTimeUtility.parseDuration;
+
+@FunctionalInterface
+public interface LatencyDistribution {
+    long sampleMillis(RandomGenerator random);
+
+    static LatencyDistribution fixed(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Latency cannot be negative but was " + millis + " ms");
+        }
+        return random -> millis;
+    }
+
+    static LatencyDistribution uniform(long minMillis,
+                                       long maxMillis) {
+        if (minMillis < 0 ||
+                maxMillis < minMillis) {
+            throw new IllegalArgumentException("Expected 0 <= min <= max latency but got " + minMillis + " ms & " + maxMillis + " ms");
+        }
+        return random -> minMillis == maxMillis ? minMillis : random.nextLong(minMillis, maxMillis + 1);
+    }
+
+    static LatencyDistribution logNormal(long medianMillis,
+                                         long p99Millis) {
+        if (medianMillis <= 0 ||
+                p99Millis < medianMillis) {
+            throw new IllegalArgumentException("Expected 0 < median <= p99 latency but got " + medianMillis + " ms & " + p99Millis + " ms");
+        }
+        double z99 = 2.3263478740408408;
+        double mu = Math.log(medianMillis);
+        double sigma = Math.log((double) p99Millis / medianMillis) / z99;
+        return random -> Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+    }
+
+    static LatencyDistribution parse(String spec) {
+        String trimmed = spec.strip()
+                .toLowerCase(Locale.ROOT);
+        if (trimmed.startsWith("lognormal(") &&
+                trimmed.endsWith(")")) {
+            String[] bounds = trimmed.substring("lognormal(".length(), trimmed.length() - 1)
+                    .split(",");
+            if (bounds.length != 2) {
+                throw new IllegalArgumentException("Expected lognormal(<median>,<p99>) but got '" + spec + "'");
+            }
+            return logNormal(
+                    parseDuration(bounds[0]).toMillis(),
+                    parseDuration(bounds[1]).toMillis()
+            );
+        }
+        int separator = trimmed.indexOf("..");
+        if (separator >= 0) {
+            return uniform(
+                    parseDuration(trimmed.substring(0, separator)).toMillis(),
+                    parseDuration(trimmed.substring(separator + 2)).toMillis()
+            );
+        }
+        return fixed(parseDuration(trimmed).toMillis());
+    }
+}
@@ -5,6 +5,7 @@ import org.testng.annotations.Test;
 import org.vimal.BaseTest;
 import org.vimal.dtos.RoleDto;
 import org.vimal.dtos.UserDto;
+import org.vimal.helpers.TestUserPoolHelper.PooledTestUser;
 
 import java.util.*;
 import java.util.concurrent.ExecutionException;
@@ -18,8 +19,7 @@ import static org.vimal.enums.Roles.*;
 import static org.vimal.helpers.DtosHelper.*;
 import static org.vimal.helpers.InvalidInputsHelper.*;
 import static org.vimal.helpers.ResponseValidatorHelper.*;
-import static org.vimal.utils.DateTimeUtility.getCurrentFormattedLocalTimeStamp;
-import static org.vimal.utils.RandomStringUtility.generateRandomStringAlphaNumeric;
+import static org.vimal.utils.UniqueIdUtility.nextUniqueId;
 
 public class AdminServiceTests extends BaseTest {
     private static final Set<String> USERS_WITH_THESE_ROLES_CANNOT_CREATE_READ_UPDATE_DELETE_USERS = Set.of(
@@ -72,13 +72,10 @@ public class AdminServiceTests extends BaseTest {
         return Collections.unmodifiableSet(roles);
     }
 
-    private void createUsersAndVerifyResponse(UserDto creator,
+    private void createUsersAndVerifyResponse(PooledTestUser creator,
                                               Set<UserDto> users,
                                               int statusCode) throws ExecutionException, InterruptedException {
-        String accessToken = getAccessToken(
-                creator.getUsername(),
-                creator.getPassword()
-        );
+        String accessToken = creator.getAccessToken();
         Iterator<UserDto> iterator = users.iterator();
         Set<UserDto> batch = new HashSet<>();
         Response response;
@@ -88,7 +85,7 @@ public class AdminServiceTests extends BaseTest {
             while (iterator.hasNext() &&
                     batch.size() < MAX_BATCH_SIZE_OF_USER_CREATION_AT_A_TIME) {
                 user = iterator.next();
-                TEST_USERS.add(user);
+                trackTestUser(user);
                 batch.add(user);
             }
             response = createUsers(
@@ -98,7 +95,7 @@ public class AdminServiceTests extends BaseTest {
             );
             validateResponseOfUsersCreationOrRead(
                     response,
-                    creator,
+                    creator.user(),
                     batch,
                     statusCode,
                     "created_users."
@@ -108,7 +105,7 @@ public class AdminServiceTests extends BaseTest {
 
     @Test
     public void test_Create_Users_Using_User_With_Role_Super_Admin() throws ExecutionException, InterruptedException {
-        UserDto creator = createTestUser(Set.of(ROLE_SUPER_ADMIN.name()));
+        PooledTestUser creator = leaseTestUser(ROLE_SUPER_ADMIN);
         Set<UserDto> usersThatCanBeCreatedBySuperAdmin = new HashSet<>();
         usersThatCanBeCreatedBySuperAdmin.add(createRandomUserDto());
         usersThatCanBeCreatedBySuperAdmin.add(createRandomUserDto(ROLE_SET_FOR_SUPER_ADMIN_CAN_CREATE_UPDATE_DELETE_USERS));
@@ -124,7 +121,7 @@ public class AdminServiceTests extends BaseTest {
 
     @Test
     public void test_Create_Users_Using_User_With_Role_Admin() throws ExecutionException, InterruptedException {
-        UserDto creator = createTestUser(Set.of(ROLE_ADMIN.name()));
+        PooledTestUser creator = leaseTestUser(ROLE_ADMIN);
         Set<UserDto> usersThatCanBeCreatedByAdmin = new HashSet<>();
         usersThatCanBeCreatedByAdmin.add(createRandomUserDto());
         usersThatCanBeCreatedByAdmin.add(createRandomUserDto(ROLE_SET_FOR_ADMIN_CAN_CREATE_UPDATE_DELETE_USERS));
@@ -140,7 +137,7 @@ public class AdminServiceTests extends BaseTest {
 
     @Test
     public void test_Create_Users_Using_User_With_Role_Mange_Users() throws ExecutionException, InterruptedException {
-        UserDto creator = createTestUser(Set.of(ROLE_MANAGE_USERS.name()));
+        PooledTestUser creator = leaseTestUser(ROLE_MANAGE_USERS);
         Set<UserDto> usersThatCanBeCreatedByManageUsers = new HashSet<>();
         usersThatCanBeCreatedByManageUsers.add(createRandomUserDto());
         usersThatCanBeCreatedByManageUsers.add(createRandomUserDto(ROLE_SET_FOR_ADMIN_CAN_CREATE_UPDATE_DELETE_USERS));
@@ -179,7 +176,7 @@ public class AdminServiceTests extends BaseTest {
 
     @Test
     public void test_Create_Users_Using_User_With_Role_Super_Admin_Not_Allowed_To_Create_Users() throws ExecutionException, InterruptedException {
-        UserDto creator = createTestUser(Set.of(ROLE_SUPER_ADMIN.name()));
+        PooledTestUser creator = leaseTestUser(ROLE_SUPER_ADMIN);
         Set<UserDto> usersThatCannotBeCreatedBySuperAdmin = new HashSet<>();
         usersThatCannotBeCreatedBySuperAdmin.add(createRandomUserDto(ROLE_SET_FOR_SUPER_ADMIN_CANNOT_CREATE_UPDATE_DELETE_USERS));
         for (String role : ROLE_SET_FOR_SUPER_ADMIN_CANNOT_CREATE_UPDATE_DELETE_USERS) {
@@ -194,7 +191,7 @@ public class AdminServiceTests extends BaseTest {
 
     @Test
     public void test_Create_Users_Using_User_With_Role_Admin_Not_Allowed_To_Create_Users() throws ExecutionException, InterruptedException {
-        UserDto creator = createTestUser(Set.of(ROLE_ADMIN.name()));
+        PooledTestUser creator = leaseTestUser(ROLE_ADMIN);
         Set<UserDto> usersThatCannotBeCreatedByAdmin = new HashSet<>();
         usersThatCannotBeCreatedByAdmin.add(createRandomUserDto(ROLE_SET_FOR_ADMIN_CANNOT_CREATE_UPDATE_DELETE_USERS));
         for (String role : ROLE_SET_FOR_ADMIN_CANNOT_CREATE_UPDATE_DELETE_USERS) {
@@ -209,7 +206,7 @@ public class AdminServiceTests extends BaseTest {
 
     @Test
     public void test_Create_Users_Using_User_With_Role_Mange_Users_Not_Allowed_To_Create_Users() throws ExecutionException, InterruptedException {
-        UserDto creator = createTestUser(Set.of(ROLE_MANAGE_USERS.name()));
+        PooledTestUser creator = leaseTestUser(ROLE_MANAGE_USERS);
         Set<UserDto> usersThatCannotBeCreatedByManageUsers = new HashSet<>();
         usersThatCannotBeCreatedByManageUsers.add(createRandomUserDto(ROLE_SET_FOR_ADMIN_CANNOT_CREATE_UPDATE_DELETE_USERS));
         for (String role : ROLE_SET_FOR_ADMIN_CANNOT_CREATE_UPDATE_DELETE_USERS) {
@@ -224,11 +221,7 @@ public class AdminServiceTests extends BaseTest {
 
     @Test
     public void test_Create_Users_Invalid_Input() throws ExecutionException, InterruptedException {
-        UserDto creator = createTestUser(Set.of(ROLE_SUPER_ADMIN.name()));
-        String accessToken = getAccessToken(
-                creator.getUsername(),
-                creator.getPassword()
-        );
+        String accessToken = leaseTestUser(ROLE_SUPER_ADMIN).getAccessToken();
         UserDto user = createRandomUserDto();
         Set<UserDto> testSet = Set.of(user);
         for (String invalidUsername : INVALID_USERNAMES) {
@@ -241,7 +234,7 @@ public class AdminServiceTests extends BaseTest {
                     .statusCode(400)
                     .body("invalid_inputs", not(empty()));
         }
-        String randomString = getCurrentFormattedLocalTimeStamp() + "_" + generateRandomStringAlphaNumeric();
+        String randomString = nextUniqueId();
         user.setUsername("AutoTestUser_" + randomString);
         for (String invalidEmail : INVALID_EMAILS) {
             user.setEmail(invalidEmail);
@@ -488,11 +481,7 @@ public class AdminServiceTests extends BaseTest {
 
     @Test
     public void test_Delete_Users_Invalid_Input() throws ExecutionException, InterruptedException {
-        UserDto deleter = createTestUser(Set.of(ROLE_SUPER_ADMIN.name()));
-        String accessToken = getAccessToken(
-                deleter.getUsername(),
-                deleter.getPassword()
-        );
+        String accessToken = leaseTestUser(ROLE_SUPER_ADMIN).getAccessToken();
         for (String invalidIdentifier : INVALID_USERNAMES) {
             deleteUsers(
                     accessToken,
@@ -590,11 +579,7 @@ public class AdminServiceTests extends BaseTest {
 
     @Test
     public void test_Read_Users_Invalid_Input() throws ExecutionException, InterruptedException {
-        UserDto reader = createTestUser(Set.of(ROLE_SUPER_ADMIN.name()));
-        String accessToken = getAccessToken(
-                reader.getUsername(),
-                reader.getPassword()
-        );
+        String accessToken = leaseTestUser(ROLE_SUPER_ADMIN).getAccessToken();
         for (String invalidIdentifier : INVALID_USERNAMES) {
             readUsers(
                     accessToken,
@@ -638,7 +623,7 @@ public class AdminServiceTests extends BaseTest {
             while (iterator.hasNext() &&
                     batch.size() < MAX_BATCH_SIZE_OF_USER_UPDATE_AT_A_TIME) {
                 user = iterator.next();
-                TEST_USERS.add(user);
+                trackTestUser(user);
                 batch.add(user);
                 batchUsers.add(usernameToUserMap.get(user.getOldUsername()));
             }
@@ -842,11 +827,7 @@ public class AdminServiceTests extends BaseTest {
 
     @Test
     public void test_Update_Users_Invalid_Input() throws ExecutionException, InterruptedException {
-        UserDto updater = createTestUser(Set.of(ROLE_SUPER_ADMIN.name()));
-        String accessToken = getAccessToken(
-                updater.getUsername(),
-                updater.getPassword()
-        );
+        String accessToken = leaseTestUser(ROLE_SUPER_ADMIN).getAccessToken();
         UserDto user = createRandomUserDto();
         Set<UserDto> testSet = Set.of(user);
         for (String invalidUsername : INVALID_USERNAMES) {
@@ -859,7 +840,7 @@ public class AdminServiceTests extends BaseTest {
                     .statusCode(400)
                     .body("invalid_inputs", not(empty()));
         }
-        String randomString = getCurrentFormattedLocalTimeStamp() + "_" + generateRandomStringAlphaNumeric();
+        String randomString = nextUniqueId();
         user.setOldUsername("AutoTestUser_" + randomString);
         for (String invalidUsername : INVALID_USERNAMES) {
             user.setUsername(invalidUsername);
@@ -951,7 +932,7 @@ public class AdminServiceTests extends BaseTest {
         for (UserDto creator : creators) {
             role = createRandomRoleDto();
             tempSet = Set.of(role);
-            TEST_ROLES.add(role);
+            trackTestRole(role);
             response = createRoles(
                     getAccessToken(
                             creator.getUsername(),
@@ -994,11 +975,7 @@ public class AdminServiceTests extends BaseTest {
 
     @Test
     public void test_Create_Roles_Invalid_Input() throws ExecutionException, InterruptedException {
-        UserDto creator = createTestUser(Set.of(ROLE_SUPER_ADMIN.name()));
-        String accessToken = getAccessToken(
-                creator.getUsername(),
-                creator.getPassword()
-        );
+        String accessToken = leaseTestUser(ROLE_SUPER_ADMIN).getAccessToken();
         RoleDto role = createRandomRoleDto();
         Set<RoleDto> testSet = Set.of(role);
         for (String invalidRoleName : INVALID_ROLE_OR_PERMISSION_NAMES) {
@@ -1011,7 +988,7 @@ public class AdminServiceTests extends BaseTest {
                     .statusCode(400)
                     .body("invalid_inputs", not(empty()));
         }
-        String randomString = getCurrentFormattedLocalTimeStamp() + "_" + generateRandomStringAlphaNumeric();
+        String randomString = nextUniqueId();
         role.setRoleName("AutoTestRole_" + randomString);
         role.setDescription("d".repeat(256));
         createRoles(
@@ -1084,11 +1061,7 @@ public class AdminServiceTests extends BaseTest {
 
     @Test
     public void test_Delete_Roles_Invalid_Input() throws ExecutionException, InterruptedException {
-        UserDto deleter = createTestUser(Set.of(ROLE_SUPER_ADMIN.name()));
-        String accessToken = getAccessToken(
-                deleter.getUsername(),
-                deleter.getPassword()
-        );
+        String accessToken = leaseTestUser(ROLE_SUPER_ADMIN).getAccessToken();
         for (String invalidRoleName : INVALID_ROLE_OR_PERMISSION_NAMES) {
             deleteRoles(
                     accessToken,
@@ -1164,11 +1137,7 @@ public class AdminServiceTests extends BaseTest {
 
     @Test
     public void test_Read_Roles_Invalid_Input() throws ExecutionException, InterruptedException {
-        UserDto reader = createTestUser(Set.of(ROLE_SUPER_ADMIN.name()));
-        String accessToken = getAccessToken(
-                reader.getUsername(),
-                reader.getPassword()
-        );
+        String accessToken = leaseTestUser(ROLE_SUPER_ADMIN).getAccessToken();
         for (String invalidRoleName : INVALID_ROLE_OR_PERMISSION_NAMES) {
             readRoles(
                     accessToken,
@@ -1251,11 +1220,7 @@ public class AdminServiceTests extends BaseTest {
 
     @Test
     public void test_Update_Roles_Invalid_Input() throws ExecutionException, InterruptedException {
-        UserDto updater = createTestUser(Set.of(ROLE_SUPER_ADMIN.name()));
-        String accessToken = getAccessToken(
-                updater.getUsername(),
-                updater.getPassword()
-        );
+        String accessToken = leaseTestUser(ROLE_SUPER_ADMIN).getAccessToken();
         RoleDto role = new RoleDto();
         Set<RoleDto> testSet = Set.of(role);
         for (String invalidRoleName : INVALID_ROLE_OR_PERMISSION_NAMES) {
@@ -1268,7 +1233,7 @@ public class AdminServiceTests extends BaseTest {
                     .statusCode(400)
                     .body("invalid_inputs", not(empty()));
         }
-        String randomString = getCurrentFormattedLocalTimeStamp() + "_" + generateRandomStringAlphaNumeric();
+        String randomString = nextUniqueId();
         role.setRoleName("AutoTestRole_" + randomString);
         role.setDescription("d".repeat(256));
         updateRoles(
@@ -1329,11 +1294,7 @@ public class AdminServiceTests extends BaseTest {
 
     @Test
     public void test_Read_Permissions_Invalid_Input() throws ExecutionException, InterruptedException {
-        UserDto reader = createTestUser(Set.of(ROLE_SUPER_ADMIN.name()));
-        String accessToken = getAccessToken(
-                reader.getUsername(),
-                reader.getPassword()
-        );
+        String accessToken = leaseTestUser(ROLE_SUPER_ADMIN).getAccessToken();
         for (String invalidPermissionName : INVALID_ROLE_OR_PERMISSION_NAMES) {
             readPermissions(
                     accessToken,
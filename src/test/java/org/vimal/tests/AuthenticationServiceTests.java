@@ -25,10 +25,10 @@ import static org.vimal.enums.RequestMethods.GET;
 import static org.vimal.enums.RequestMethods.POST;
 import static org.vimal.helpers.InvalidInputsHelper.*;
 import static org.vimal.helpers.ResponseValidatorHelper.validateResponseOfGetSelfDetails;
-import static org.vimal.utils.DateTimeUtility.getCurrentFormattedLocalTimeStamp;
 import static org.vimal.utils.QrUtility.extractSecretFromByteArrayOfQrCode;
-import static org.vimal.utils.RandomStringUtility.generateRandomStringAlphaNumeric;
+import static org.vimal.utils.TotpUtility.generateFreshTotp;
 import static org.vimal.utils.TotpUtility.generateTotp;
+import static org.vimal.utils.UniqueIdUtility.nextUniqueId;
 
 public class AuthenticationServiceTests extends BaseTest {
     @Test
@@ -81,7 +81,7 @@ public class AuthenticationServiceTests extends BaseTest {
                     .body("message", containsStringIgnoringCase("Invalid credentials"));
         }
         login(
-                "nonexistentUser_" + getCurrentFormattedLocalTimeStamp() + "_" + generateRandomStringAlphaNumeric(),
+                "nonexistentUser_" + nextUniqueId(),
                 "SomePassword@1"
         ).then()
                 .statusCode(401)
@@ -165,7 +165,7 @@ public class AuthenticationServiceTests extends BaseTest {
                 user.getUsername(),
                 user.getPassword()
         );
-        String testDeviceId = "TestDeviceId_" + getCurrentFormattedLocalTimeStamp() + "_" + generateRandomStringAlphaNumeric();
+        String testDeviceId = "TestDeviceId_" + nextUniqueId();
         Response response = waitForResponse(() -> executeRequest(
                         POST,
                         AUTH + "/login",
@@ -380,7 +380,7 @@ public class AuthenticationServiceTests extends BaseTest {
         Response response = verifyMfaToLogin(
                 AUTHENTICATOR_APP_MFA,
                 (String) context.getAttribute(contextAttributeStateToken),
-                generateTotp(extractSecretFromByteArrayOfQrCode((byte[]) context.getAttribute(contextAttributeMfaSecret)))
+                generateFreshTotp(extractSecretFromByteArrayOfQrCode((byte[]) context.getAttribute(contextAttributeMfaSecret)))
         );
         context.removeAttribute(contextAttributeStateToken);
         context.removeAttribute(contextAttributeMfaSecret);
@@ -0,0 +1,108 @@
+package org.vimal.tests;
+
+import org.testng.annotations.Test;
+import org.vimal.BaseTest;
+import org.vimal.dtos.UserDto;
+import org.vimal.helpers.BulkImportHelper.ImportSummary;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.vimal.constants.Common.ENABLE;
+import static org.vimal.helpers.BulkImportHelper.importUsers;
+import static org.vimal.helpers.DtosHelper.createRandomUserDto;
+
+public class BulkImportTests extends BaseTest {
+    @Test
+    public void test_Import_Users_Writes_A_Result_Per_Row() throws IOException, ExecutionException, InterruptedException {
+        UserDto first = createRandomUserDto();
+        UserDto second = createRandomUserDto();
+        UserDto usernameTaken = createRandomUserDto();
+        usernameTaken.setUsername(first.getUsername());
+        UserDto emailTaken = createRandomUserDto();
+        emailTaken.setEmail(leaseTestUser().user()
+                .getEmail());
+        trackTestUsers(Set.of(first, second));
+        Path source = Files.createTempFile("users", ".csv");
+        Path results = Files.createTempFile("users-results", ".csv");
+        Files.write(source, List.of(
+                "username,email,password,firstName",
+                row(first),
+                row(second),
+                row(usernameTaken),
+                row(emailTaken),
+                row(first) + ",extra-column"
+        ));
+        ImportSummary summary = importUsers(
+                source,
+                results,
+                GLOBAL_ADMIN_ACCESS_TOKEN_HOLDER.getAccessToken(),
+                ENABLE
+        );
+        assertEquals(summary, new ImportSummary(5, 2, 2, 0, 1, 1));
+        Map<Long, String[]> resultsByLine = readResults(results);
+        assertEquals(resultsByLine.size(), 5);
+        assertEquals(resultsByLine.get(2L)[2], "IMPORTED");
+        assertEquals(resultsByLine.get(3L)[2], "IMPORTED");
+        assertEquals(resultsByLine.get(4L)[2], "SKIPPED");
+        assertEquals(resultsByLine.get(4L)[4], "already_taken_usernames");
+        assertEquals(resultsByLine.get(5L)[2], "SKIPPED");
+        assertEquals(resultsByLine.get(5L)[4], "already_taken_emails");
+        assertEquals(resultsByLine.get(6L)[2], "INVALID");
+        Files.delete(source);
+        Files.delete(results);
+    }
+
+    @Test
+    public void test_Import_Users_Marks_Every_Row_Of_A_Rejected_Batch_Failed() throws IOException, InterruptedException {
+        Path source = Files.createTempFile("users", ".csv");
+        Path results = Files.createTempFile("users-results", ".csv");
+        Files.write(source, List.of(
+                "username,email,password,firstName",
+                row(createRandomUserDto()),
+                row(createRandomUserDto())
+        ));
+        ImportSummary summary = importUsers(
+                source,
+                results,
+                "invalid-access-token",
+                ENABLE
+        );
+        assertEquals(summary, new ImportSummary(2, 0, 0, 2, 0, 1));
+        for (String[] result : readResults(results).values()) {
+            assertEquals(result[2], "FAILED");
+            assertTrue(result[3].startsWith("4"));
+        }
+        Files.delete(source);
+        Files.delete(results);
+    }
+
+    private static String row(UserDto user) {
+        return String.join(
+                ",",
+                user.getUsername(),
+                user.getEmail(),
+                user.getPassword(),
+                user.getFirstName()
+        );
+    }
+
+    private static Map<Long, String[]> readResults(Path results) throws IOException {
+        Map<Long, String[]> resultsByLine = new HashMap<>();
+        List<String> lines = Files.readAllLines(results);
+        String[] fields;
+        for (String line : lines.subList(1, lines.size())) {
+            fields = line.split(",", 5);
+            resultsByLine.put(Long.parseLong(fields[0]), fields);
+        }
+        return resultsByLine;
+    }
+}
@@ -0,0 +1,94 @@
+package org.vimal.tests;
+
+import io.restassured.http.Header;
+import org.testng.annotations.Test;
+import org.vimal.capture.CaptureLog;
+import org.vimal.capture.CaptureLogWriter;
+import org.vimal.capture.CapturedExchange;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+import static org.vimal.enums.RequestMethods.POST;
+
+public class CaptureLogTests {
+    private static final int SMALL_CHUNK_SIZE = 4096;
+
+    @Test
+    public void test_Records_Crossing_Chunk_Boundaries_Are_All_Read_Back() throws IOException {
+        Path file = Files.createTempFile("capture-log", ".bin");
+        int records = 200;
+        try (CaptureLogWriter writer = new CaptureLogWriter(file, "run-prefix", SMALL_CHUNK_SIZE)) {
+            for (int i = 0; i < records; i++) {
+                writer.append(exchange(i));
+            }
+        }
+        CaptureLog captureLog = CaptureLog.read(file);
+        assertEquals(captureLog.runPrefix(), "run-prefix");
+        assertAllRead(captureLog.exchanges(), records);
+        Files.delete(file);
+    }
+
+    @Test
+    public void test_Records_Appended_Concurrently_Across_Chunk_Boundaries_Are_All_Read_Back() throws IOException {
+        Path file = Files.createTempFile("capture-log", ".bin");
+        int threads = 8;
+        int recordsPerThread = 250;
+        try (CaptureLogWriter writer = new CaptureLogWriter(file, null, SMALL_CHUNK_SIZE)) {
+            try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+                for (int thread = 0; thread < threads; thread++) {
+                    int first = thread * recordsPerThread;
+                    executor.execute(() -> {
+                        for (int i = first; i < first + recordsPerThread; i++) {
+                            writer.append(exchange(i));
+                        }
+                    });
+                }
+            }
+        }
+        assertAllRead(CaptureLog.read(file)
+                .exchanges(), threads * recordsPerThread);
+        Files.delete(file);
+    }
+
+    private static CapturedExchange exchange(int index) {
+        byte[] responseBody = new byte[17 + (index * 37) % 900];
+        Arrays.fill(responseBody, (byte) ('a' + index % 26));
+        return new CapturedExchange(
+                index,
+                1000,
+                POST,
+                "/auth/login",
+                Map.of("X-Device-Id", "device-" + index),
+                null,
+                null,
+                CapturedExchange.JSON_BODY,
+                ("{\"index\":" + index + "}").getBytes(UTF_8),
+                200,
+                "application/json",
+                List.of(new Header("Content-Type", "application/json")),
+                responseBody
+        );
+    }
+
+    private static void assertAllRead(List<CapturedExchange> exchanges,
+                                      int expected) {
+        assertEquals(exchanges.size(), expected);
+        CapturedExchange exchange;
+        for (int i = 0; i < expected; i++) {
+            exchange = exchanges.get(i);
+            assertEquals(exchange.startedAtNanos(), i);
+            assertEquals(exchange.headers()
+                    .get("X-Device-Id"), "device-" + i);
+            assertEquals(exchange.responseBody(), exchange(i).responseBody());
+        }
+    }
+}
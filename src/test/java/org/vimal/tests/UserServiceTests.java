@@ -7,6 +7,7 @@ import org.testng.ITestContext;
 import org.testng.annotations.Test;
 import org.vimal.BaseTest;
 import org.vimal.dtos.UserDto;
+import org.vimal.helpers.TestUserPoolHelper.PooledTestUser;
 
 import java.io.IOException;
 import java.security.InvalidKeyException;
@@ -25,13 +26,14 @@ import static org.vimal.helpers.InvalidInputsHelper.*;
 import static org.vimal.helpers.ResponseValidatorHelper.validateResponseOfGetSelfDetails;
 import static org.vimal.utils.MailReaderUtility.getToken;
 import static org.vimal.utils.QrUtility.extractSecretFromByteArrayOfQrCode;
+import static org.vimal.utils.TotpUtility.generateFreshTotp;
 import static org.vimal.utils.TotpUtility.generateTotp;
 
 public class UserServiceTests extends BaseTest {
     @Test
     public void test_Registration_Success() throws ExecutionException, InterruptedException {
         UserDto user = createRandomUserDto();
-        TEST_USERS.add(user);
+        trackTestUser(user);
         register(user).then()
                 .statusCode(200)
                 .body("message", containsStringIgnoringCase("Registration successful"))
@@ -46,13 +48,10 @@ public class UserServiceTests extends BaseTest {
 
     @Test
     public void test_Get_Self_Details_Success() throws ExecutionException, InterruptedException {
-        UserDto user = createTestUser();
+        PooledTestUser user = leaseTestUser();
         validateResponseOfGetSelfDetails(
-                getSelfDetails(getAccessToken(
-                        user.getUsername(),
-                        user.getPassword()
-                )),
-                user
+                getSelfDetails(user.getAccessToken()),
+                user.user()
         );
     }
 
@@ -153,7 +152,7 @@ public class UserServiceTests extends BaseTest {
         UserDto user = (UserDto) map.get("user");
         resetPassword(Map.of(
                         "usernameOrEmail", user.getUsername(),
-                        "otpTotp", generateTotp((String) map.get("secret")),
+                        "otpTotp", generateFreshTotp((String) map.get("secret")),
                         "method", AUTHENTICATOR_APP_MFA,
                         "password", "NewPassword@123",
                         "confirmPassword", "NewPassword@123"
@@ -220,11 +219,8 @@ public class UserServiceTests extends BaseTest {
 
     @Test
     public void test_Change_Password_Failure_Invalid_Input() throws ExecutionException, InterruptedException {
-        UserDto user = createTestUser();
-        String accessToken = getAccessToken(
-                user.getUsername(),
-                user.getPassword()
-        );
+        PooledTestUser user = leaseTestUser();
+        String accessToken = user.getAccessToken();
         Map<String, String> map = new HashMap<>();
         for (String invalidPassword : INVALID_PASSWORDS) {
             map.put("oldPassword", invalidPassword);
@@ -235,7 +231,8 @@ public class UserServiceTests extends BaseTest {
                     .statusCode(400)
                     .body("invalid_inputs", not(empty()));
         }
-        map.put("oldPassword", user.getPassword());
+        map.put("oldPassword", user.user()
+                .getPassword());
         for (String invalidPassword : INVALID_PASSWORDS) {
             map.put("password", invalidPassword);
             changePassword(
@@ -261,7 +258,7 @@ public class UserServiceTests extends BaseTest {
         verifyChangePassword(
                 getAccessTokenForUserWhoseAuthenticatorAppMfaIsEnabled(map),
                 Map.of(
-                        "otpTotp", generateTotp((String) map.get("secret")),
+                        "otpTotp", generateFreshTotp((String) map.get("secret")),
                         "method", AUTHENTICATOR_APP_MFA,
                         "password", "NewPassword@123",
                         "confirmPassword", "NewPassword@123"
@@ -286,7 +283,7 @@ public class UserServiceTests extends BaseTest {
                         user.getUsername(),
                         user.getPassword()
                 ),
-                generateTotp((String) map.get("secret"))
+                generateFreshTotp((String) map.get("secret"))
         );
         response.then()
                 .statusCode(200);
@@ -296,11 +293,7 @@ public class UserServiceTests extends BaseTest {
 
     @Test
     public void test_Verify_Change_Password_Failure_Invalid_Input() throws ExecutionException, InterruptedException {
-        UserDto user = createTestUser();
-        String accessToken = getAccessToken(
-                user.getUsername(),
-                user.getPassword()
-        );
+        String accessToken = leaseTestUser().getAccessToken();
         Map<String, String> map = new HashMap<>();
         for (String invalidOtp : INVALID_OTPS) {
             map.put("otpTotp", invalidOtp);
@@ -431,11 +424,7 @@ public class UserServiceTests extends BaseTest {
 
     @Test
     public void test_Verify_Email_Change_Failure_Invalid_Input() throws ExecutionException, InterruptedException {
-        UserDto user = createTestUser();
-        String accessToken = getAccessToken(
-                user.getUsername(),
-                user.getPassword()
-        );
+        String accessToken = leaseTestUser().getAccessToken();
         for (String invalidOtp : INVALID_OTPS) {
             verifyEmailChange(
                     accessToken,
@@ -490,11 +479,7 @@ public class UserServiceTests extends BaseTest {
 
     @Test
     public void test_Delete_Account_Failure_Invalid_Password() throws ExecutionException, InterruptedException {
-        UserDto user = createTestUser();
-        String accessToken = getAccessToken(
-                user.getUsername(),
-                user.getPassword()
-        );
+        String accessToken = leaseTestUser().getAccessToken();
         for (String invalidPassword : INVALID_PASSWORDS) {
             deleteAccount(
                     accessToken,
@@ -510,7 +495,7 @@ public class UserServiceTests extends BaseTest {
         Map<String, Object> map = createTestUserAuthenticatorAppMfaEnabled();
         verifyDeleteAccount(
                 getAccessTokenForUserWhoseAuthenticatorAppMfaIsEnabled(map),
-                generateTotp((String) map.get("secret")),
+                generateFreshTotp((String) map.get("secret")),
                 AUTHENTICATOR_APP_MFA
         ).then()
                 .statusCode(200)
@@ -527,11 +512,7 @@ public class UserServiceTests extends BaseTest {
 
     @Test
     public void test_Verify_Delete_Account_Failure_Invalid_Input() throws ExecutionException, InterruptedException {
-        UserDto user = createTestUser();
-        String accessToken = getAccessToken(
-                user.getUsername(),
-                user.getPassword()
-        );
+        String accessToken = leaseTestUser().getAccessToken();
         for (String invalidOtp : INVALID_OTPS) {
             verifyDeleteAccount(
                     accessToken,
@@ -568,11 +549,7 @@ public class UserServiceTests extends BaseTest {
 
     @Test
     public void test_Update_Details_Failure_Invalid_Input() throws ExecutionException, InterruptedException {
-        UserDto user = createTestUser();
-        String accessToken = getAccessToken(
-                user.getUsername(),
-                user.getPassword()
-        );
+        String accessToken = leaseTestUser().getAccessToken();
         Map<String, String> body = new HashMap<>();
         for (String invalidUsername : INVALID_USERNAMES) {
             body.put("username", invalidUsername);
@@ -627,11 +604,7 @@ public class UserServiceTests extends BaseTest {
 
     @Test
     public void test_Get_Active_Devices_Success() throws ExecutionException, InterruptedException {
-        UserDto user = createTestUser();
-        getActiveDevices(getAccessToken(
-                user.getUsername(),
-                user.getPassword()
-        )).then()
+        getActiveDevices(leaseTestUser().getAccessToken()).then()
                 .statusCode(200)
                 .body("current_device_id", notNullValue());
     }
@@ -1,7 +1,9 @@
 package org.vimal.utils;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Locale;
 
 public final class DateTimeUtility {
     private DateTimeUtility() {
@@ -17,4 +19,22 @@ public final class DateTimeUtility {
         return LocalDateTime.now()
                 .format(dateTimeFormatter);
     }
+
+    public static Duration parseDuration(String value) {
+        String trimmed = value.strip()
+                .toLowerCase(Locale.ROOT);
+        if (trimmed.startsWith("p")) {
+            return Duration.parse(trimmed.toUpperCase(Locale.ROOT));
+        }
+        if (trimmed.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(trimmed.substring(0, trimmed.length() - 2)));
+        }
+        long amount = Long.parseLong(trimmed.substring(0, trimmed.length() - 1));
+        return switch (trimmed.charAt(trimmed.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("Unsupported duration '" + value + "', expected e.g. 500ms, 30s, 5m, 1h or PT30S");
+        };
+    }
 }
@@ -0,0 +1,228 @@
+package org.vimal.utils;
+
+import jakarta.mail.*;
+import jakarta.mail.event.MessageCountAdapter;
+import jakarta.mail.event.MessageCountEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.angus.mail.imap.IMAPFolder;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+final class ImapMailbox implements AutoCloseable {
+    private static final String IDLE_FOLDER = "INBOX";
+    private static final long RECONNECT_DELAY_MS = 1000;
+    private static final long IDLE_REFRESH_MS = 5 * 60 * 1000;
+    private static final long IDLE_READ_TIMEOUT_MS = IDLE_REFRESH_MS + 60 * 1000;
+    private static final Map<String, ImapMailbox> MAILBOXES = new ConcurrentHashMap<>();
+    private final String email;
+    private final String appPassword;
+    private final Store store;
+    private final Store idleStore;
+    private final Thread idleThread;
+    private final Thread idleRefreshThread;
+    private final ReentrantLock newMailLock = new ReentrantLock();
+    private final Condition newMailArrived = newMailLock.newCondition();
+    private long newMailGeneration;
+    private volatile Folder idleFolder;
+    private volatile boolean closed;
+
+    private ImapMailbox(String email,
+                        String appPassword) throws MessagingException {
+        this.email = email;
+        this.appPassword = appPassword;
+        this.store = Session.getInstance(imapProperties(30000))
+                .getStore("imaps");
+        this.store.connect(
+                email,
+                appPassword
+        );
+        // IDLE blocks in a socket read until the server has something to say, so the IDLE connection gets
+        // its own store whose read timeout outlasts the refresh period instead of the 30 s used for fetches.
+        this.idleStore = Session.getInstance(imapProperties(IDLE_READ_TIMEOUT_MS))
+                .getStore("imaps");
+        this.idleThread = Thread.ofVirtual()
+                .name("imap-idle-" + email)
+                .start(this::idleLoop);
+        this.idleRefreshThread = Thread.ofVirtual()
+                .name("imap-idle-refresh-" + email)
+                .start(this::idleRefreshLoop);
+    }
+
+    private static Properties imapProperties(long readTimeoutMs) {
+        Properties props = new Properties();
+        props.put("mail.store.protocol", "imaps");
+        props.put("mail.imaps.host", "imap.gmail.com");
+        props.put("mail.imaps.port", "993");
+        props.put("mail.imaps.ssl.enable", "true");
+        props.put("mail.imaps.timeout", String.valueOf(readTimeoutMs));
+        props.put("mail.imaps.connectiontimeout", "30000");
+        props.put("mail.imaps.connectionpoolsize", "4");
+        return props;
+    }
+
+    static ImapMailbox of(String email,
+                          String appPassword) throws MessagingException {
+        ImapMailbox mailbox = MAILBOXES.get(email);
+        if (mailbox != null) {
+            return mailbox;
+        }
+        synchronized (MAILBOXES) {
+            mailbox = MAILBOXES.get(email);
+            if (mailbox == null) {
+                mailbox = new ImapMailbox(email, appPassword);
+                MAILBOXES.put(email, mailbox);
+            }
+            return mailbox;
+        }
+    }
+
+    static void closeAll() {
+        for (ImapMailbox mailbox : MAILBOXES.values()) {
+            mailbox.close();
+        }
+        MAILBOXES.clear();
+    }
+
+    Store getStore() throws MessagingException {
+        synchronized (store) {
+            if (!store.isConnected()) {
+                store.connect(
+                        email,
+                        appPassword
+                );
+            }
+        }
+        return store;
+    }
+
+    long getNewMailGeneration() {
+        newMailLock.lock();
+        try {
+            return newMailGeneration;
+        } finally {
+            newMailLock.unlock();
+        }
+    }
+
+    void awaitNewMail(long seenGeneration,
+                      long timeoutMs) throws InterruptedException {
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        newMailLock.lock();
+        try {
+            while (newMailGeneration == seenGeneration &&
+                    remainingNanos > 0) {
+                remainingNanos = newMailArrived.awaitNanos(remainingNanos);
+            }
+        } finally {
+            newMailLock.unlock();
+        }
+    }
+
+    private void signalNewMail() {
+        newMailLock.lock();
+        try {
+            newMailGeneration++;
+            newMailArrived.signalAll();
+        } finally {
+            newMailLock.unlock();
+        }
+    }
+
+    private Store getIdleStore() throws MessagingException {
+        synchronized (idleStore) {
+            if (!idleStore.isConnected()) {
+                idleStore.connect(
+                        email,
+                        appPassword
+                );
+            }
+        }
+        return idleStore;
+    }
+
+    private void idleLoop() {
+        while (!closed) {
+            Folder folder = null;
+            try {
+                folder = getIdleStore().getFolder(IDLE_FOLDER);
+                folder.open(Folder.READ_ONLY);
+                folder.addMessageCountListener(new MessageCountAdapter() {
+                    @Override
+                    public void messagesAdded(MessageCountEvent event) {
+                        signalNewMail();
+                    }
+                });
+                idleFolder = folder;
+                while (!closed &&
+                        folder.isOpen()) {
+                    ((IMAPFolder) folder).idle();
+                }
+            } catch (MessagingException ex) {
+                if (closed) {
+                    return;
+                }
+                log.warn(
+                        "IMAP IDLE on '{}' lost its connection ({}), reconnecting in {} ms",
+                        email,
+                        ex.getMessage(),
+                        RECONNECT_DELAY_MS
+                );
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            } finally {
+                idleFolder = null;
+                if (folder != null &&
+                        folder.isOpen()) {
+                    try {
+                        folder.close(false);
+                    } catch (MessagingException ignored) {
+                    }
+                }
+            }
+        }
+    }
+
+    // Touching the folder from another thread makes idle() send DONE and return, so the IDLE loop re-issues it
+    // before the server or the read timeout drops a quiet connection.
+    private void idleRefreshLoop() {
+        while (!closed) {
+            try {
+                Thread.sleep(IDLE_REFRESH_MS);
+            } catch (InterruptedException interrupted) {
+                return;
+            }
+            Folder folder = idleFolder;
+            if (folder != null &&
+                    folder.isOpen()) {
+                try {
+                    folder.getMessageCount();
+                } catch (MessagingException ignored) {
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        idleThread.interrupt();
+        idleRefreshThread.interrupt();
+        try {
+            idleStore.close();
+        } catch (MessagingException ignored) {
+        }
+        try {
+            store.close();
+        } catch (MessagingException ignored) {
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package org.vimal.utils;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.vimal.utils.MailRouter.ReceivedMail;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+public final class LocalMailSink implements MailSource, AutoCloseable {
+    private static final String HOSTNAME = "local-mail-sink";
+    private static final String FOLDER_NAME = "SMTP";
+    private static final long UNCLAIMED_MAIL_RETENTION_MS = 1_800_000;
+    private static final long PRUNE_INTERVAL_MS = 60_000;
+    private static final Session SESSION = Session.getInstance(new Properties());
+    private static volatile LocalMailSink current;
+    private final ServerSocket serverSocket;
+    private final Thread acceptThread;
+    private final MailRouter router = new MailRouter(claim -> {
+    });
+    private final AtomicLong deliveredMails = new AtomicLong();
+    private volatile long nextPruneAtMillis = System.currentTimeMillis() + PRUNE_INTERVAL_MS;
+    private volatile boolean closed;
+
+    private LocalMailSink(int port) throws IOException {
+        this.serverSocket = new ServerSocket();
+        this.serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        this.acceptThread = Thread.ofVirtual()
+                .name("local-mail-sink-accept")
+                .start(this::acceptLoop);
+    }
+
+    public static synchronized int start(int port) throws IOException {
+        if (current == null) {
+            current = new LocalMailSink(port);
+        }
+        return current.serverSocket.getLocalPort();
+    }
+
+    public static synchronized void stop() {
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+    }
+
+    public static boolean isRunning() {
+        return current != null;
+    }
+
+    public static long getDeliveredMailCount() {
+        LocalMailSink sink = current;
+        return sink == null ? 0 : sink.deliveredMails.get();
+    }
+
+    static LocalMailSink current() {
+        LocalMailSink sink = current;
+        if (sink == null) {
+            throw new IllegalStateException("Local mail sink is not running");
+        }
+        return sink;
+    }
+
+    @Override
+    public CompletableFuture<ReceivedMail> awaitMail(String recipient,
+                                                     String subject,
+                                                     boolean seen,
+                                                     boolean delete) {
+        return router.awaitMail(
+                recipient,
+                subject,
+                seen,
+                delete
+        );
+    }
+
+    @Override
+    public void cancel(String recipient,
+                       CompletableFuture<ReceivedMail> future) {
+        router.cancel(recipient, future);
+    }
+
+    private void acceptLoop() {
+        Socket socket;
+        while (!closed) {
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException ex) {
+                if (!closed) {
+                    log.warn("Local mail sink stopped accepting connections", ex);
+                }
+                return;
+            }
+            Socket connection = socket;
+            Thread.ofVirtual()
+                    .name("local-mail-sink-session")
+                    .start(() -> serve(connection));
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             InputStream in = new BufferedInputStream(socket.getInputStream());
+             OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+            reply(out, "220 " + HOSTNAME + " ESMTP");
+            List<String> recipients = new ArrayList<>();
+            String line;
+            while ((line = readLine(in)) != null) {
+                switch (line.length() < 4 ? line.toUpperCase(Locale.ROOT) : line.substring(0, 4).toUpperCase(Locale.ROOT)) {
+                    case "EHLO" -> reply(out, "250-" + HOSTNAME + "\r\n250-8BITMIME\r\n250-AUTH PLAIN LOGIN\r\n250 OK");
+                    case "HELO" -> reply(out, "250 " + HOSTNAME);
+                    case "AUTH" -> authenticate(line, in, out);
+                    case "MAIL" -> {
+                        recipients.clear();
+                        reply(out, "250 OK");
+                    }
+                    case "RCPT" -> {
+                        recipients.add(extractAddress(line));
+                        reply(out, "250 OK");
+                    }
+                    case "DATA" -> {
+                        if (recipients.isEmpty()) {
+                            reply(out, "503 No valid recipients");
+                            continue;
+                        }
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        reply(out, deliver(recipients, readData(in)) ? "250 OK" : "554 Message could not be parsed");
+                        recipients.clear();
+                    }
+                    case "RSET" -> {
+                        recipients.clear();
+                        reply(out, "250 OK");
+                    }
+                    case "NOOP" -> reply(out, "250 OK");
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException ex) {
+            if (!closed) {
+                log.debug("Local mail sink session ended: {}", ex.getMessage());
+            }
+        }
+    }
+
+    private static void authenticate(String line,
+                                     InputStream in,
+                                     OutputStream out) throws IOException {
+        String[] parts = line.split(" ");
+        String mechanism = parts.length > 1 ? parts[1].toUpperCase(Locale.ROOT) : "";
+        switch (mechanism) {
+            case "PLAIN" -> {
+                if (parts.length < 3) {
+                    reply(out, "334 ");
+                    readLine(in);
+                }
+            }
+            case "LOGIN" -> {
+                if (parts.length < 3) {
+                    reply(out, "334 VXNlcm5hbWU6");
+                    readLine(in);
+                }
+                reply(out, "334 UGFzc3dvcmQ6");
+                readLine(in);
+            }
+            default -> {
+                reply(out, "504 Unrecognized authentication type");
+                return;
+            }
+        }
+        reply(out, "235 Authentication successful");
+    }
+
+    private boolean deliver(List<String> recipients,
+                            byte[] data) {
+        ReceivedMail mail;
+        try {
+            MimeMessage message = new MimeMessage(SESSION, new ByteArrayInputStream(data));
+            mail = MailReaderUtility.readMail(
+                    FOLDER_NAME,
+                    deliveredMails.incrementAndGet(),
+                    message,
+                    new Date()
+            );
+        } catch (MessagingException | IOException | RuntimeException ex) {
+            log.warn("Local mail sink could not parse mail for {}: {}", recipients, ex.getMessage());
+            return false;
+        }
+        for (String recipient : recipients) {
+            router.offer(recipient, mail);
+        }
+        long now = System.currentTimeMillis();
+        if (now >= nextPruneAtMillis) {
+            nextPruneAtMillis = now + PRUNE_INTERVAL_MS;
+            router.pruneReceivedBefore(now - UNCLAIMED_MAIL_RETENTION_MS);
+        }
+        return true;
+    }
+
+    private static String extractAddress(String line) {
+        int start = line.indexOf('<');
+        int end = line.indexOf('>', start + 1);
+        String address = start >= 0 && end > start ? line.substring(start + 1, end) : line.substring(line.indexOf(':') + 1);
+        return address.trim()
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private static byte[] readData(InputStream in) throws IOException {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        String line;
+        while ((line = readLine(in)) != null &&
+                !line.equals(".")) {
+            if (line.startsWith(".")) {
+                line = line.substring(1);
+            }
+            data.write(line.getBytes(StandardCharsets.ISO_8859_1));
+            data.write('\r');
+            data.write('\n');
+        }
+        return data.toByteArray();
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                byte[] bytes = line.toByteArray();
+                int length = bytes.length > 0 && bytes[bytes.length - 1] == '\r' ? bytes.length - 1 : bytes.length;
+                return new String(bytes, 0, length, StandardCharsets.ISO_8859_1);
+            }
+            line.write(b);
+        }
+        return line.size() == 0 ? null : line.toString(StandardCharsets.ISO_8859_1);
+    }
+
+    private static void reply(OutputStream out,
+                              String reply) throws IOException {
+        out.write(reply.getBytes(StandardCharsets.ISO_8859_1));
+        out.write('\r');
+        out.write('\n');
+        out.flush();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+        }
+        acceptThread.interrupt();
+        router.close("Local mail sink stopped");
+    }
+}
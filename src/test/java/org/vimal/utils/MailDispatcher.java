@@ -0,0 +1,300 @@
+package org.vimal.utils;
+
+import jakarta.mail.*;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.search.ComparisonTerm;
+import jakarta.mail.search.ReceivedDateTerm;
+import lombok.extern.slf4j.Slf4j;
+import org.vimal.utils.MailRouter.Claim;
+import org.vimal.utils.MailRouter.ReceivedMail;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+@Slf4j
+final class MailDispatcher implements MailSource, AutoCloseable {
+    private static final long UNCLAIMED_MAIL_RETENTION_MS = 1_800_000;
+    private static final Map<String, MailDispatcher> DISPATCHERS = new ConcurrentHashMap<>();
+    private final ImapMailbox mailbox;
+    private final String baseLocalPart;
+    private final String domain;
+    private final Set<String> folderNames;
+    private final long fetchIntervalMs;
+    private final Map<String, Folder> openFolders = new HashMap<>();
+    private final Set<String> missingFolders = new HashSet<>();
+    private final Map<String, Long> lastSeenUids = new HashMap<>();
+    private final Queue<Claim> pendingClaims = new ConcurrentLinkedQueue<>();
+    private final MailRouter router = new MailRouter(pendingClaims::add);
+    private final Thread readerThread;
+    private volatile boolean closed;
+
+    private MailDispatcher(String baseEmail,
+                           String appPassword,
+                           Set<String> folderNames,
+                           long fetchIntervalMs) throws MessagingException {
+        int at = baseEmail.indexOf('@');
+        this.baseLocalPart = baseEmail.substring(0, at);
+        this.domain = baseEmail.substring(at + 1);
+        this.folderNames = folderNames;
+        this.fetchIntervalMs = fetchIntervalMs;
+        this.mailbox = ImapMailbox.of(
+                baseEmail,
+                appPassword
+        );
+        this.readerThread = Thread.ofVirtual()
+                .name("mail-dispatcher-" + baseEmail)
+                .start(this::readLoop);
+    }
+
+    static MailDispatcher of(String email,
+                             String appPassword,
+                             Set<String> folderNames,
+                             long fetchIntervalMs) throws MessagingException {
+        String baseEmail = baseAddress(email);
+        MailDispatcher dispatcher = DISPATCHERS.get(baseEmail);
+        if (dispatcher != null) {
+            return dispatcher;
+        }
+        synchronized (DISPATCHERS) {
+            dispatcher = DISPATCHERS.get(baseEmail);
+            if (dispatcher == null) {
+                dispatcher = new MailDispatcher(
+                        baseEmail,
+                        appPassword,
+                        folderNames,
+                        fetchIntervalMs
+                );
+                DISPATCHERS.put(baseEmail, dispatcher);
+            }
+            return dispatcher;
+        }
+    }
+
+    static void closeAll() {
+        for (MailDispatcher dispatcher : DISPATCHERS.values()) {
+            dispatcher.close();
+        }
+        DISPATCHERS.clear();
+    }
+
+    static String baseAddress(String email) {
+        String normalized = email.toLowerCase(Locale.ROOT);
+        int at = normalized.indexOf('@');
+        int plus = normalized.indexOf('+');
+        if (at < 0 ||
+                plus < 0 ||
+                plus > at) {
+            return normalized;
+        }
+        return normalized.substring(0, plus) + normalized.substring(at);
+    }
+
+    @Override
+    public CompletableFuture<ReceivedMail> awaitMail(String recipient,
+                                                     String subject,
+                                                     boolean seen,
+                                                     boolean delete) {
+        return router.awaitMail(
+                recipient,
+                subject,
+                seen,
+                delete
+        );
+    }
+
+    @Override
+    public void cancel(String recipient,
+                       CompletableFuture<ReceivedMail> future) {
+        router.cancel(recipient, future);
+    }
+
+    private void readLoop() {
+        long newMailGeneration;
+        while (!closed) {
+            newMailGeneration = mailbox.getNewMailGeneration();
+            try {
+                for (String folderName : folderNames) {
+                    fetchNewMails(folderName);
+                }
+                applyClaims();
+            } catch (MessagingException ex) {
+                if (closed) {
+                    break;
+                }
+                log.info(
+                        "Mail dispatcher for '{}@{}' failed to fetch ({}), reopening folders",
+                        baseLocalPart,
+                        domain,
+                        ex.getMessage()
+                );
+                closeFolders();
+            }
+            router.pruneReceivedBefore(System.currentTimeMillis() - UNCLAIMED_MAIL_RETENTION_MS);
+            try {
+                mailbox.awaitNewMail(
+                        newMailGeneration,
+                        fetchIntervalMs
+                );
+            } catch (InterruptedException ex) {
+                break;
+            }
+        }
+        closeFolders();
+    }
+
+    private void fetchNewMails(String folderName) throws MessagingException {
+        Folder folder = openFolder(folderName);
+        if (folder == null) {
+            return;
+        }
+        UIDFolder uidFolder = (UIDFolder) folder;
+        Long lastSeenUid = lastSeenUids.get(folderName);
+        Message[] messages;
+        if (lastSeenUid == null) {
+            messages = folder.search(new ReceivedDateTerm(
+                    ComparisonTerm.GE,
+                    new Date(System.currentTimeMillis() - UNCLAIMED_MAIL_RETENTION_MS)
+            ));
+        } else {
+            messages = uidFolder.getMessagesByUID(lastSeenUid + 1, UIDFolder.LASTUID);
+        }
+        long highestUid = lastSeenUid == null ? Math.max(0, uidFolder.getUIDNext() - 1) : lastSeenUid;
+        if (messages.length > 0) {
+            FetchProfile fetchProfile = new FetchProfile();
+            fetchProfile.add(FetchProfile.Item.ENVELOPE);
+            fetchProfile.add(UIDFolder.FetchProfileItem.UID);
+            folder.fetch(messages, fetchProfile);
+        }
+        long uid;
+        for (Message message : messages) {
+            uid = uidFolder.getUID(message);
+            if (lastSeenUid != null &&
+                    uid <= lastSeenUid) {
+                continue;
+            }
+            highestUid = Math.max(highestUid, uid);
+            route(folderName, uid, message);
+        }
+        lastSeenUids.put(folderName, highestUid);
+    }
+
+    private void route(String folderName,
+                       long uid,
+                       Message message) throws MessagingException {
+        List<String> recipients = routableRecipients(message);
+        if (recipients.isEmpty()) {
+            return;
+        }
+        ReceivedMail mail;
+        try {
+            mail = MailReaderUtility.readMail(
+                    folderName,
+                    uid,
+                    message,
+                    message.getReceivedDate()
+            );
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Skipping unreadable mail {} in '{}': {}", uid, folderName, ex.getMessage());
+            return;
+        }
+        for (String recipient : recipients) {
+            router.offer(recipient, mail);
+        }
+    }
+
+    private List<String> routableRecipients(Message message) throws MessagingException {
+        Address[] addresses = message.getRecipients(Message.RecipientType.TO);
+        if (addresses == null) {
+            return List.of();
+        }
+        List<String> recipients = new ArrayList<>();
+        String recipient;
+        for (Address address : addresses) {
+            if (address instanceof InternetAddress internetAddress &&
+                    internetAddress.getAddress() != null) {
+                recipient = internetAddress.getAddress()
+                        .toLowerCase(Locale.ROOT);
+                if (recipient.endsWith("@" + domain) &&
+                        (recipient.startsWith(baseLocalPart + "+") ||
+                                recipient.startsWith(baseLocalPart + "@"))) {
+                    recipients.add(recipient);
+                }
+            }
+        }
+        return recipients;
+    }
+
+    private void applyClaims() throws MessagingException {
+        Set<Folder> foldersToExpunge = new HashSet<>();
+        Claim claim;
+        Folder folder;
+        Message message;
+        while ((claim = pendingClaims.poll()) != null) {
+            folder = openFolder(claim.mail().folderName());
+            if (folder == null) {
+                continue;
+            }
+            message = ((UIDFolder) folder).getMessageByUID(claim.mail().uid());
+            if (message == null) {
+                continue;
+            }
+            if (claim.seen()) {
+                message.setFlag(Flags.Flag.SEEN, true);
+            }
+            if (claim.delete()) {
+                message.setFlag(Flags.Flag.DELETED, true);
+                foldersToExpunge.add(folder);
+            }
+        }
+        for (Folder expungedFolder : foldersToExpunge) {
+            expungedFolder.expunge();
+        }
+    }
+
+    private Folder openFolder(String folderName) throws MessagingException {
+        if (missingFolders.contains(folderName)) {
+            return null;
+        }
+        Folder folder = openFolders.get(folderName);
+        if (folder != null &&
+                folder.isOpen()) {
+            return folder;
+        }
+        folder = mailbox.getStore()
+                .getFolder(folderName);
+        if (!folder.exists()) {
+            missingFolders.add(folderName);
+            return null;
+        }
+        folder.open(Folder.READ_WRITE);
+        openFolders.put(folderName, folder);
+        return folder;
+    }
+
+    private void closeFolders() {
+        for (Folder folder : openFolders.values()) {
+            if (folder.isOpen()) {
+                try {
+                    folder.close(true);
+                } catch (MessagingException ignored) {
+                }
+            }
+        }
+        openFolders.clear();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        readerThread.interrupt();
+        try {
+            readerThread.join(fetchIntervalMs);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        router.close("Mail dispatcher closed");
+    }
+}
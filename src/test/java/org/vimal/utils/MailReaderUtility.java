@@ -1,15 +1,19 @@
 package org.vimal.utils;
 
-import jakarta.mail.*;
-import jakarta.mail.search.*;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
 import lombok.extern.slf4j.Slf4j;
-import org.jsoup.Jsoup;
+import org.vimal.utils.MailRouter.ReceivedMail;
 
 import java.io.IOException;
 import java.util.Date;
-import java.util.Properties;
+import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.regex.Pattern;
 
 @Slf4j
@@ -23,11 +27,12 @@ public final class MailReaderUtility {
     private static final Pattern UUID_PATTERN = Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[1-5][0-9a-fA-F]{3}-[89abAB][0-9a-fA-F]{3}-[0-9a-fA-F]{12}");
     private static final Pattern DEFAULT_OTP_PATTERN = Pattern.compile("\\b\\d{" + DEFAULT_OTP_LENGTH + "}\\b");
     private static final Set<String> DEFAULT_SEARCH_FOLDERS = Set.of("INBOX", "[Gmail]/Spam");
+    private static final Map<String, LatencyHistogram> DELIVERY_TO_READ_LATENCIES_MS = new ConcurrentHashMap<>();
 
     public static String getToken(String email,
                                   String appPassword,
                                   String emailSubject) throws MessagingException, InterruptedException, IOException {
-        return extractUuid(fetchParticularEmailContent(
+        return requireFound(fetchParticularEmail(
                         email,
                         appPassword,
                         emailSubject,
@@ -36,123 +41,103 @@ public final class MailReaderUtility {
                         DEFAULT_POLL_INTERVAL_MS,
                         true,
                         true
-                )
+                ).token(),
+                "Token"
         );
     }
 
-    private static String fetchParticularEmailContent(String email,
-                                                      String appPassword,
-                                                      String emailSubject,
-                                                      Set<String> folders,
-                                                      long maxWaitTimeMs,
-                                                      long intervalTimeMs,
-                                                      boolean seen,
-                                                      boolean delete) throws MessagingException, InterruptedException, IOException {
-        Properties props = new Properties();
-        props.put("mail.store.protocol", "imaps");
-        props.put("mail.imaps.host", "imap.gmail.com");
-        props.put("mail.imaps.port", "993");
-        props.put("mail.imaps.ssl.enable", "true");
-        props.put("mail.imaps.timeout", "30000");
-        props.put("mail.imaps.connectiontimeout", "30000");
-        Session session = Session.getInstance(props);
-        Store store = session.getStore("imaps");
-        long searchStartTimeMillis = System.currentTimeMillis();
-        Date searchStartTime = new Date(searchStartTimeMillis - 1_800_000);
-        Folder folder = null;
+    private static ReceivedMail fetchParticularEmail(String email,
+                                                     String appPassword,
+                                                     String emailSubject,
+                                                     Set<String> folders,
+                                                     long maxWaitTimeMs,
+                                                     long intervalTimeMs,
+                                                     boolean seen,
+                                                     boolean delete) throws MessagingException, InterruptedException, IOException {
+        MailSource mailSource = LocalMailSink.isRunning() ? LocalMailSink.current() : MailDispatcher.of(
+                email,
+                appPassword,
+                folders,
+                intervalTimeMs
+        );
+        CompletableFuture<ReceivedMail> pendingMail = mailSource.awaitMail(
+                email,
+                emailSubject,
+                seen,
+                delete
+        );
         try {
-            store.connect(
-                    email,
-                    appPassword
+            ReceivedMail mail = pendingMail.get(maxWaitTimeMs, TimeUnit.MILLISECONDS);
+            recordDeliveryToReadLatency(
+                    emailSubject,
+                    mail.receivedDate()
             );
-            while ((System.currentTimeMillis() - searchStartTimeMillis) < maxWaitTimeMs) {
-                for (String folderName : folders) {
-                    try {
-                        folder = store.getFolder(folderName);
-                        if (!folder.exists()) {
-                            continue;
-                        }
-                        folder.open(Folder.READ_WRITE);
-                        AndTerm searchTerm = new AndTerm(new SearchTerm[]{
-                                new SubjectTerm(emailSubject),
-                                new ReceivedDateTerm(
-                                        ComparisonTerm.GE,
-                                        searchStartTime
-                                ),
-                                new RecipientStringTerm(Message.RecipientType.TO, email)
-                        });
-                        Message[] messages = folder.search(searchTerm);
-                        for (Message message : messages) {
-                            if (message.getReceivedDate() != null &&
-                                    message.getReceivedDate().before(searchStartTime)) {
-                                continue;
-                            }
-                            String content = getTextFromMessage(message);
-                            if (seen) {
-                                message.setFlag(Flags.Flag.SEEN, true);
-                            }
-                            if (delete) {
-                                message.setFlag(Flags.Flag.DELETED, true);
-                                folder.expunge();
-                            }
-                            return content;
-                        }
-                    } finally {
-                        if (folder != null &&
-                                folder.isOpen()) {
-                            folder.close(true);
-                        }
-                    }
-                }
-                log.info(
-                        "No email found with subject '{}' yet, waiting for {} ms before retrying",
-                        emailSubject,
-                        intervalTimeMs
-                );
-                Thread.sleep(intervalTimeMs);
-            }
-            throw new RuntimeException("No email found with subject '" + emailSubject + "' after " + searchStartTime);
-        } finally {
-            if (store != null &&
-                    store.isConnected()) {
-                store.close();
-            }
+            return mail;
+        } catch (TimeoutException ex) {
+            mailSource.cancel(email, pendingMail);
+            throw new RuntimeException("No email found with subject '" + emailSubject + "' for '" + email + "' within " + maxWaitTimeMs + " ms");
+        } catch (ExecutionException ex) {
+            throw new RuntimeException("Could not read email with subject '" + emailSubject + "' for '" + email + "'", ex.getCause());
         }
     }
 
-    private static String getTextFromMessage(Message message) throws MessagingException, IOException {
-        if (message.isMimeType("text/plain")) {
-            return message.getContent().toString();
-        } else if (message.isMimeType("multipart/*")) {
-            Multipart multipart = (Multipart) message.getContent();
-            BodyPart bodyPart;
-            for (int i = 0; i < multipart.getCount(); i++) {
-                bodyPart = multipart.getBodyPart(i);
-                if (bodyPart.isMimeType("text/plain")) {
-                    return bodyPart.getContent().toString();
-                } else if (bodyPart.isMimeType("text/html")) {
-                    return Jsoup.parse(bodyPart.getContent()
-                                    .toString())
-                            .text();
-                }
-            }
+    private static void recordDeliveryToReadLatency(String emailSubject,
+                                                    Date receivedDate) {
+        if (receivedDate == null) {
+            return;
         }
-        throw new RuntimeException("Unsupported message type");
+        DELIVERY_TO_READ_LATENCIES_MS.computeIfAbsent(
+                        emailSubject,
+                        subject -> new LatencyHistogram()
+                )
+                .record(System.currentTimeMillis() - receivedDate.getTime());
     }
 
-    private static String extractUuid(String content) {
-        Matcher matcher = UUID_PATTERN.matcher(content);
-        if (matcher.find()) {
-            return matcher.group(0);
-        }
-        throw new RuntimeException("Token not found in email content");
+    public static Map<String, LatencyHistogram> getDeliveryToReadLatencies() {
+        return Map.copyOf(DELIVERY_TO_READ_LATENCIES_MS);
+    }
+
+    public static void logDeliveryToReadLatencies() {
+        DELIVERY_TO_READ_LATENCIES_MS.forEach((subject, histogram) -> log.info(
+                "Mail '{}': {} read, delivery to read p50/p99/max: {}/{}/{} ms",
+                subject,
+                histogram.getTotalCount(),
+                histogram.getValueAtPercentile(50),
+                histogram.getValueAtPercentile(99),
+                histogram.getMax()
+        ));
+    }
+
+    public static void closeMailboxes() {
+        MailDispatcher.closeAll();
+        ImapMailbox.closeAll();
+        LocalMailSink.stop();
+    }
+
+    static ReceivedMail readMail(String folderName,
+                                 long uid,
+                                 Message message,
+                                 Date receivedDate) throws MessagingException, IOException {
+        String[] matches = MimeTextScanner.findFirstMatches(
+                message,
+                UUID_PATTERN,
+                DEFAULT_OTP_PATTERN
+        );
+        return new ReceivedMail(
+                folderName,
+                uid,
+                message.getSubject(),
+                matches[0],
+                matches[1],
+                receivedDate
+        );
     }
 
     public static String getOtp(String email,
                                 String appPassword,
                                 String emailSubject)
             throws MessagingException, InterruptedException, IOException {
-        return extractOtp(fetchParticularEmailContent(email,
+        return requireFound(fetchParticularEmail(email,
                         appPassword,
                         emailSubject,
                         DEFAULT_SEARCH_FOLDERS,
@@ -160,15 +145,16 @@ public final class MailReaderUtility {
                         DEFAULT_POLL_INTERVAL_MS,
                         true,
                         true
-                )
+                ).otp(),
+                "Otp"
         );
     }
 
-    private static String extractOtp(String content) {
-        Matcher matcher = DEFAULT_OTP_PATTERN.matcher(content);
-        if (matcher.find()) {
-            return matcher.group(0);
+    private static String requireFound(String value,
+                                       String name) {
+        if (value != null) {
+            return value;
         }
-        throw new RuntimeException("Otp not found in email content");
+        throw new RuntimeException(name + " not found in email content");
     }
 }
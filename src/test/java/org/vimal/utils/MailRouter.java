@@ -0,0 +1,149 @@
+package org.vimal.utils;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+final class MailRouter {
+    private final ReentrantLock routingLock = new ReentrantLock();
+    private final Map<String, List<Waiter>> waitersByRecipient = new HashMap<>();
+    private final Map<String, List<ReceivedMail>> unclaimedMailsByRecipient = new HashMap<>();
+    private final Consumer<Claim> claimListener;
+
+    record ReceivedMail(String folderName,
+                        long uid,
+                        String subject,
+                        String token,
+                        String otp,
+                        Date receivedDate) {
+    }
+
+    record Claim(ReceivedMail mail,
+                 boolean seen,
+                 boolean delete) {
+    }
+
+    private record Waiter(String subject,
+                          boolean seen,
+                          boolean delete,
+                          CompletableFuture<ReceivedMail> future) {
+    }
+
+    MailRouter(Consumer<Claim> claimListener) {
+        this.claimListener = claimListener;
+    }
+
+    CompletableFuture<ReceivedMail> awaitMail(String recipient,
+                                              String subject,
+                                              boolean seen,
+                                              boolean delete) {
+        String normalizedRecipient = recipient.toLowerCase(Locale.ROOT);
+        routingLock.lock();
+        try {
+            List<ReceivedMail> unclaimedMails = unclaimedMailsByRecipient.get(normalizedRecipient);
+            if (unclaimedMails != null) {
+                Iterator<ReceivedMail> iterator = unclaimedMails.iterator();
+                ReceivedMail mail;
+                while (iterator.hasNext()) {
+                    mail = iterator.next();
+                    if (subjectMatches(mail.subject(), subject)) {
+                        iterator.remove();
+                        if (unclaimedMails.isEmpty()) {
+                            unclaimedMailsByRecipient.remove(normalizedRecipient);
+                        }
+                        claimListener.accept(new Claim(mail, seen, delete));
+                        return CompletableFuture.completedFuture(mail);
+                    }
+                }
+            }
+            CompletableFuture<ReceivedMail> future = new CompletableFuture<>();
+            waitersByRecipient.computeIfAbsent(normalizedRecipient, key -> new ArrayList<>())
+                    .add(new Waiter(subject, seen, delete, future));
+            return future;
+        } finally {
+            routingLock.unlock();
+        }
+    }
+
+    void cancel(String recipient,
+                CompletableFuture<ReceivedMail> future) {
+        String normalizedRecipient = recipient.toLowerCase(Locale.ROOT);
+        routingLock.lock();
+        try {
+            List<Waiter> waiters = waitersByRecipient.get(normalizedRecipient);
+            if (waiters != null) {
+                waiters.removeIf(waiter -> waiter.future() == future);
+                if (waiters.isEmpty()) {
+                    waitersByRecipient.remove(normalizedRecipient);
+                }
+            }
+        } finally {
+            routingLock.unlock();
+        }
+        future.cancel(false);
+    }
+
+    void offer(String recipient,
+               ReceivedMail mail) {
+        String normalizedRecipient = recipient.toLowerCase(Locale.ROOT);
+        routingLock.lock();
+        try {
+            List<Waiter> waiters = waitersByRecipient.get(normalizedRecipient);
+            if (waiters != null) {
+                Iterator<Waiter> iterator = waiters.iterator();
+                Waiter waiter;
+                while (iterator.hasNext()) {
+                    waiter = iterator.next();
+                    if (subjectMatches(mail.subject(), waiter.subject())) {
+                        iterator.remove();
+                        if (waiters.isEmpty()) {
+                            waitersByRecipient.remove(normalizedRecipient);
+                        }
+                        claimListener.accept(new Claim(mail, waiter.seen(), waiter.delete()));
+                        waiter.future()
+                                .complete(mail);
+                        return;
+                    }
+                }
+            }
+            unclaimedMailsByRecipient.computeIfAbsent(normalizedRecipient, key -> new ArrayList<>())
+                    .add(mail);
+        } finally {
+            routingLock.unlock();
+        }
+    }
+
+    void pruneReceivedBefore(long oldestRetainedMillis) {
+        routingLock.lock();
+        try {
+            unclaimedMailsByRecipient.values()
+                    .forEach(mails -> mails.removeIf(mail -> mail.receivedDate() != null &&
+                            mail.receivedDate().getTime() < oldestRetainedMillis));
+            unclaimedMailsByRecipient.values()
+                    .removeIf(List::isEmpty);
+        } finally {
+            routingLock.unlock();
+        }
+    }
+
+    void close(String reason) {
+        routingLock.lock();
+        try {
+            waitersByRecipient.values()
+                    .forEach(waiters -> waiters.forEach(waiter -> waiter.future()
+                            .completeExceptionally(new IllegalStateException(reason))));
+            waitersByRecipient.clear();
+            unclaimedMailsByRecipient.clear();
+        } finally {
+            routingLock.unlock();
+        }
+    }
+
+    private static boolean subjectMatches(String mailSubject,
+                                          String expectedSubject) {
+        return mailSubject != null &&
+                mailSubject.toLowerCase(Locale.ROOT)
+                        .contains(expectedSubject.toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,15 @@
+package org.vimal.utils;
+
+import org.vimal.utils.MailRouter.ReceivedMail;
+
+import java.util.concurrent.CompletableFuture;
+
+interface MailSource {
+    CompletableFuture<ReceivedMail> awaitMail(String recipient,
+                                              String subject,
+                                              boolean seen,
+                                              boolean delete);
+
+    void cancel(String recipient,
+                CompletableFuture<ReceivedMail> future);
+}
@@ -0,0 +1,309 @@
+package org.vimal.utils;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Multipart;
+import jakarta.mail.Part;
+import jakarta.mail.internet.ContentType;
+import jakarta.mail.internet.ParseException;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class MimeTextScanner {
+    private MimeTextScanner() {
+    }
+
+    private static final int READ_CHUNK_SIZE = 4096;
+    private static final int CARRY_OVER_LENGTH = 64;
+    private static final int MAX_ENTITY_LENGTH = 10;
+    private static final int MAX_TAG_PREFIX_LENGTH = 16;
+    private static final Set<String> INLINE_TAGS = Set.of("a", "abbr", "b", "code", "em", "font", "i", "small", "span", "strong", "sub", "sup", "u");
+    private static final Set<String> RAW_TEXT_TAGS = Set.of("script", "style");
+
+    public static String[] findFirstMatches(Part part,
+                                            Pattern... patterns) throws MessagingException, IOException {
+        String[] matches = new String[patterns.length];
+        scanPart(part, patterns, matches);
+        return matches;
+    }
+
+    public static String[] findFirstMatches(Reader reader,
+                                            boolean html,
+                                            Pattern... patterns) throws IOException {
+        String[] matches = new String[patterns.length];
+        scanText(reader, html, patterns, matches);
+        return matches;
+    }
+
+    private static boolean scanPart(Part part,
+                                    Pattern[] patterns,
+                                    String[] matches) throws MessagingException, IOException {
+        if (Part.ATTACHMENT.equalsIgnoreCase(part.getDisposition())) {
+            return false;
+        }
+        if (part.isMimeType("multipart/*")) {
+            Multipart multipart = (Multipart) part.getContent();
+            for (int i = 0; i < multipart.getCount(); i++) {
+                if (scanPart(multipart.getBodyPart(i), patterns, matches)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        boolean html = part.isMimeType("text/html");
+        if (!html &&
+                !part.isMimeType("text/plain")) {
+            return false;
+        }
+        try (Reader reader = new InputStreamReader(part.getInputStream(), charsetOf(part))) {
+            return scanText(reader, html, patterns, matches);
+        }
+    }
+
+    private static Charset charsetOf(Part part) throws MessagingException {
+        try {
+            String charset = new ContentType(part.getContentType()).getParameter("charset");
+            return charset == null ? StandardCharsets.UTF_8 : Charset.forName(charset);
+        } catch (ParseException | IllegalArgumentException ex) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+
+    private static boolean scanText(Reader reader,
+                                    boolean html,
+                                    Pattern[] patterns,
+                                    String[] matches) throws IOException {
+        char[] chunk = new char[READ_CHUNK_SIZE];
+        StringBuilder window = new StringBuilder(READ_CHUNK_SIZE + CARRY_OVER_LENGTH);
+        HtmlTextFilter filter = html ? new HtmlTextFilter(window) : null;
+        Matcher[] matchers = new Matcher[patterns.length];
+        for (int i = 0; i < patterns.length; i++) {
+            matchers[i] = patterns[i].matcher(window)
+                    .useTransparentBounds(true);
+        }
+        int searchFrom = 0;
+        int read;
+        while ((read = reader.read(chunk)) != -1) {
+            if (filter == null) {
+                window.append(chunk, 0, read);
+            } else {
+                filter.accept(chunk, read);
+            }
+            if (findMatches(window, searchFrom, false, matchers, matches)) {
+                return true;
+            }
+            if (window.length() > CARRY_OVER_LENGTH) {
+                window.delete(0, window.length() - CARRY_OVER_LENGTH);
+                searchFrom = 1;
+            }
+        }
+        return findMatches(window, searchFrom, true, matchers, matches);
+    }
+
+    private static boolean findMatches(CharSequence window,
+                                       int searchFrom,
+                                       boolean endOfText,
+                                       Matcher[] matchers,
+                                       String[] matches) {
+        boolean allFound = true;
+        Matcher matcher;
+        for (int i = 0; i < matchers.length; i++) {
+            if (matches[i] != null) {
+                continue;
+            }
+            matcher = matchers[i].reset(window)
+                    .region(Math.min(searchFrom, window.length()), window.length());
+            if (matcher.find() &&
+                    (endOfText || matcher.end() < window.length())) {
+                matches[i] = matcher.group();
+            } else {
+                allFound = false;
+            }
+        }
+        return allFound;
+    }
+
+    private static final class HtmlTextFilter {
+        private final StringBuilder out;
+        private final StringBuilder markup = new StringBuilder();
+        private State state = State.TEXT;
+        private char quote;
+        private String rawTextTag;
+
+        private enum State {
+            TEXT,
+            TAG,
+            COMMENT,
+            ENTITY,
+            RAW_TEXT
+        }
+
+        private HtmlTextFilter(StringBuilder out) {
+            this.out = out;
+        }
+
+        private void accept(char[] chunk,
+                            int length) {
+            char c;
+            for (int i = 0; i < length; i++) {
+                c = chunk[i];
+                switch (state) {
+                    case TEXT -> {
+                        if (c == '<') {
+                            markup.setLength(0);
+                            quote = 0;
+                            state = State.TAG;
+                        } else if (c == '&') {
+                            markup.setLength(0);
+                            state = State.ENTITY;
+                        } else if (Character.isWhitespace(c)) {
+                            appendSpace();
+                        } else {
+                            out.append(c);
+                        }
+                    }
+                    case TAG -> {
+                        if (quote != 0) {
+                            if (c == quote) {
+                                quote = 0;
+                            }
+                        } else if (c == '"' ||
+                                c == '\'') {
+                            quote = c;
+                        } else if (c == '>') {
+                            closeTag();
+                            continue;
+                        }
+                        if (markup.length() < MAX_TAG_PREFIX_LENGTH) {
+                            markup.append(c);
+                        }
+                        if (markup.length() == 3 &&
+                                markup.toString().equals("!--")) {
+                            state = State.COMMENT;
+                        }
+                    }
+                    case COMMENT -> {
+                        appendToTail(c);
+                        if (c == '>' &&
+                                markup.length() >= 5 &&
+                                markup.charAt(markup.length() - 2) == '-' &&
+                                markup.charAt(markup.length() - 3) == '-') {
+                            appendSpace();
+                            state = State.TEXT;
+                        }
+                    }
+                    case ENTITY -> {
+                        if (c == ';') {
+                            out.append(decodeEntity(markup));
+                            state = State.TEXT;
+                        } else if (markup.length() >= MAX_ENTITY_LENGTH ||
+                                c == '<' ||
+                                c == '&' ||
+                                Character.isWhitespace(c)) {
+                            out.append('&')
+                                    .append(markup);
+                            state = State.TEXT;
+                            i--;
+                        } else {
+                            markup.append(c);
+                        }
+                    }
+                    case RAW_TEXT -> {
+                        appendToTail(c);
+                        if (c == '>' &&
+                                endsWithClosingTag(markup, rawTextTag)) {
+                            appendSpace();
+                            state = State.TEXT;
+                        }
+                    }
+                }
+            }
+        }
+
+        private void appendSpace() {
+            if (!out.isEmpty() &&
+                    out.charAt(out.length() - 1) != ' ') {
+                out.append(' ');
+            }
+        }
+
+        private void appendToTail(char c) {
+            markup.append(c);
+            if (markup.length() > 2 * MAX_TAG_PREFIX_LENGTH) {
+                markup.delete(0, markup.length() - MAX_TAG_PREFIX_LENGTH);
+            }
+        }
+
+        private void closeTag() {
+            String name = tagName(markup);
+            boolean closing = markup.length() > 0 &&
+                    markup.charAt(0) == '/';
+            if (!closing &&
+                    RAW_TEXT_TAGS.contains(name)) {
+                markup.setLength(0);
+                rawTextTag = name;
+                state = State.RAW_TEXT;
+                return;
+            }
+            if (!INLINE_TAGS.contains(name)) {
+                appendSpace();
+            }
+            state = State.TEXT;
+        }
+
+        private static String tagName(CharSequence markup) {
+            int start = markup.length() > 0 && markup.charAt(0) == '/' ? 1 : 0;
+            int end = start;
+            while (end < markup.length() &&
+                    Character.isLetterOrDigit(markup.charAt(end))) {
+                end++;
+            }
+            return markup.subSequence(start, end)
+                    .toString()
+                    .toLowerCase(Locale.ROOT);
+        }
+
+        private static boolean endsWithClosingTag(CharSequence markup,
+                                                  String name) {
+            int length = markup.length();
+            int start = length - name.length() - 3;
+            if (start < 0 ||
+                    markup.charAt(start) != '<' ||
+                    markup.charAt(start + 1) != '/') {
+                return false;
+            }
+            return markup.subSequence(start + 2, length - 1)
+                    .toString()
+                    .equalsIgnoreCase(name);
+        }
+
+        private static String decodeEntity(CharSequence entity) {
+            String name = entity.toString();
+            if (name.startsWith("#")) {
+                try {
+                    int codePoint = name.length() > 1 &&
+                            (name.charAt(1) == 'x' || name.charAt(1) == 'X') ? Integer.parseInt(name.substring(2), 16) : Integer.parseInt(name.substring(1));
+                    return Character.toString(codePoint);
+                } catch (IllegalArgumentException ex) {
+                    return "&" + name + ";";
+                }
+            }
+            return switch (name) {
+                case "nbsp" -> " ";
+                case "amp" -> "&";
+                case "lt" -> "<";
+                case "gt" -> ">";
+                case "quot" -> "\"";
+                case "apos" -> "'";
+                default -> "&" + name + ";";
+            };
+        }
+    }
+}
@@ -1,32 +1,71 @@
 package org.vimal.utils;
 
-import com.google.zxing.BinaryBitmap;
-import com.google.zxing.DecodeHintType;
-import com.google.zxing.MultiFormatReader;
-import com.google.zxing.NotFoundException;
-import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.*;
+import com.google.zxing.common.GlobalHistogramBinarizer;
 import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeReader;
+import lombok.extern.slf4j.Slf4j;
+import org.vimal.enums.QrDecodeStages;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.stream.ImageInputStream;
 import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.awt.image.WritableRaster;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.util.EnumMap;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
+@Slf4j
 public final class QrUtility {
     private QrUtility() {
     }
 
-    private static final ThreadLocal<MultiFormatReader> MULTI_FORMAT_READER = ThreadLocal.withInitial(MultiFormatReader::new);
-    private static final Map<DecodeHintType, Object> HINTS = buildHints();
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] GRAY_LUMINANCES = buildGrayLuminances();
+    private static final Queue<DecodeBuffers> DECODE_BUFFERS = new ConcurrentLinkedQueue<>();
+    private static final Map<DecodeHintType, Object> PURE_QR_CODE_HINTS = buildHints(true, false);
+    private static final Map<DecodeHintType, Object> QR_CODE_HINTS = buildHints(false, false);
+    private static final Map<DecodeHintType, Object> TRY_HARDER_HINTS = buildHints(false, true);
+    private static final Map<QrDecodeStages, LatencyHistogram> DECODE_MICROS_BY_STAGE = buildDecodeHistograms();
+    private static final LongAdder FAILED_DECODES = new LongAdder();
 
-    private static Map<DecodeHintType, Object> buildHints() {
+    private static Map<DecodeHintType, Object> buildHints(boolean pureBarcode,
+                                                          boolean tryHarder) {
         Map<DecodeHintType, Object> hints = new EnumMap<>(DecodeHintType.class);
-        hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+        if (tryHarder) {
+            hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+            return hints;
+        }
+        hints.put(DecodeHintType.POSSIBLE_FORMATS, List.of(BarcodeFormat.QR_CODE));
+        if (pureBarcode) {
+            hints.put(DecodeHintType.PURE_BARCODE, Boolean.TRUE);
+        }
         return hints;
     }
 
+    private static byte[] buildGrayLuminances() {
+        byte[] grayLuminances = new byte[256];
+        for (int gray = 0; gray < grayLuminances.length; gray++) {
+            grayLuminances[gray] = (byte) gray;
+        }
+        return grayLuminances;
+    }
+
+    private static Map<QrDecodeStages, LatencyHistogram> buildDecodeHistograms() {
+        Map<QrDecodeStages, LatencyHistogram> histograms = new EnumMap<>(QrDecodeStages.class);
+        for (QrDecodeStages stage : QrDecodeStages.values()) {
+            histograms.put(stage, new LatencyHistogram());
+        }
+        return histograms;
+    }
+
     public static String extractSecretFromByteArrayOfQrCode(byte[] byteArrayOfQrCode) throws IOException, NotFoundException {
         String totpUrl = decodeByteArrayOfQrCode(byteArrayOfQrCode);
         int queryStart = totpUrl.indexOf('?');
@@ -40,16 +79,179 @@ public final class QrUtility {
     }
 
     private static String decodeByteArrayOfQrCode(byte[] byteArrayOfQrCode) throws IOException, NotFoundException {
-        BufferedImage bufferedImage = ImageIO.read(new ByteArrayInputStream(byteArrayOfQrCode));
-        MultiFormatReader reader = MULTI_FORMAT_READER.get();
+        long startedAt = System.nanoTime();
+        DecodeBuffers buffers = DECODE_BUFFERS.poll();
+        if (buffers == null) {
+            buffers = new DecodeBuffers();
+        }
         try {
-            return reader.decode(
-                            new BinaryBitmap(new HybridBinarizer(new BufferedImageLuminanceSource(bufferedImage))),
-                            HINTS
-                    )
-                    .getText();
+            LuminanceSource luminanceSource = buffers.load(byteArrayOfQrCode);
+            for (QrDecodeStages stage : QrDecodeStages.values()) {
+                try {
+                    String text = buffers.decode(stage, luminanceSource);
+                    DECODE_MICROS_BY_STAGE.get(stage)
+                            .record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startedAt));
+                    return text;
+                } catch (NotFoundException | ChecksumException | FormatException ignored) {
+                }
+            }
+            FAILED_DECODES.increment();
+            throw NotFoundException.getNotFoundInstance();
         } finally {
-            reader.reset();
+            DECODE_BUFFERS.offer(buffers);
+        }
+    }
+
+    public static Map<QrDecodeStages, Long> getDecodeCountsByStage() {
+        Map<QrDecodeStages, Long> counts = new EnumMap<>(QrDecodeStages.class);
+        DECODE_MICROS_BY_STAGE.forEach((stage, histogram) -> counts.put(stage, histogram.getTotalCount()));
+        return counts;
+    }
+
+    public static long getFailedDecodes() {
+        return FAILED_DECODES.sum();
+    }
+
+    public static void logDecodeStageSummary() {
+        DECODE_MICROS_BY_STAGE.forEach((stage, histogram) -> {
+            if (histogram.getTotalCount() > 0) {
+                log.info(
+                        "QR codes decoded by stage {}: {}, p50/p99/max: {}/{}/{} us",
+                        stage,
+                        histogram.getTotalCount(),
+                        histogram.getValueAtPercentile(50),
+                        histogram.getValueAtPercentile(99),
+                        histogram.getMax()
+                );
+            }
+        });
+        if (getFailedDecodes() > 0) {
+            log.info("QR codes not decoded by any stage: {}", getFailedDecodes());
+        }
+    }
+
+    private static final class DecodeBuffers {
+        private final QRCodeReader qrCodeReader = new QRCodeReader();
+        private final MultiFormatReader multiFormatReader = new MultiFormatReader();
+        private ImageReader pngReader;
+        private ImageTypeSpecifier imageType;
+        private BufferedImage image;
+        private int[] rowPixels = new int[0];
+        private byte[] luminances = new byte[0];
+
+        private LuminanceSource load(byte[] byteArrayOfQrCode) throws IOException {
+            BufferedImage bufferedImage = read(byteArrayOfQrCode);
+            int width = bufferedImage.getWidth();
+            int height = bufferedImage.getHeight();
+            if (rowPixels.length < width) {
+                rowPixels = new int[width];
+            }
+            if (luminances.length < width * height) {
+                luminances = new byte[width * height];
+            }
+            byte[] paletteLuminances = paletteLuminances(bufferedImage);
+            WritableRaster raster = bufferedImage.getRaster();
+            int offset = 0;
+            for (int y = 0; y < height; y++) {
+                if (paletteLuminances != null) {
+                    raster.getSamples(0, y, width, 1, 0, rowPixels);
+                    for (int x = 0; x < width; x++) {
+                        luminances[offset++] = paletteLuminances[rowPixels[x]];
+                    }
+                    continue;
+                }
+                bufferedImage.getRGB(0, y, width, 1, rowPixels, 0, width);
+                for (int x = 0; x < width; x++) {
+                    luminances[offset++] = luminance(rowPixels[x]);
+                }
+            }
+            return new PlanarYUVLuminanceSource(luminances, width, height, 0, 0, width, height, false);
+        }
+
+        private static byte[] paletteLuminances(BufferedImage bufferedImage) {
+            if (bufferedImage.getType() == BufferedImage.TYPE_BYTE_GRAY) {
+                return GRAY_LUMINANCES;
+            }
+            if (bufferedImage.getColorModel() instanceof IndexColorModel indexColorModel &&
+                    bufferedImage.getRaster().getNumBands() == 1) {
+                byte[] indexLuminances = new byte[1 << indexColorModel.getPixelSize()];
+                for (int index = 0; index < indexColorModel.getMapSize(); index++) {
+                    indexLuminances[index] = luminance(indexColorModel.getRGB(index));
+                }
+                return indexLuminances;
+            }
+            return null;
+        }
+
+        private static byte luminance(int pixel) {
+            if ((pixel & 0xFF000000) == 0) {
+                return (byte) 0xFF;
+            }
+            return (byte) ((((pixel >> 16) & 0xFF) + 2 * ((pixel >> 8) & 0xFF) + (pixel & 0xFF)) >> 2);
+        }
+
+        private BufferedImage read(byte[] byteArrayOfQrCode) throws IOException {
+            if (!isPng(byteArrayOfQrCode)) {
+                BufferedImage bufferedImage = ImageIO.read(new ByteArrayInputStream(byteArrayOfQrCode));
+                if (bufferedImage == null) {
+                    throw new IOException("Unsupported QR code image format");
+                }
+                return bufferedImage;
+            }
+            if (pngReader == null) {
+                pngReader = ImageIO.getImageReadersByFormatName("png")
+                        .next();
+            }
+            try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(byteArrayOfQrCode))) {
+                pngReader.setInput(input, true, true);
+                int width = pngReader.getWidth(0);
+                int height = pngReader.getHeight(0);
+                ImageTypeSpecifier type = pngReader.getImageTypes(0)
+                        .next();
+                if (image == null ||
+                        image.getWidth() != width ||
+                        image.getHeight() != height ||
+                        !type.equals(imageType)) {
+                    image = type.createBufferedImage(width, height);
+                    imageType = type;
+                }
+                ImageReadParam param = pngReader.getDefaultReadParam();
+                param.setDestination(image);
+                return pngReader.read(0, param);
+            } finally {
+                pngReader.setInput(null);
+            }
+        }
+
+        private String decode(QrDecodeStages stage,
+                              LuminanceSource luminanceSource) throws NotFoundException, ChecksumException, FormatException {
+            try {
+                return switch (stage) {
+                    case PURE_GLOBAL_HISTOGRAM -> qrCodeReader.decode(
+                                    new BinaryBitmap(new GlobalHistogramBinarizer(luminanceSource)),
+                                    PURE_QR_CODE_HINTS
+                            )
+                            .getText();
+                    case HYBRID -> qrCodeReader.decode(
+                                    new BinaryBitmap(new HybridBinarizer(luminanceSource)),
+                                    QR_CODE_HINTS
+                            )
+                            .getText();
+                    case HYBRID_TRY_HARDER -> multiFormatReader.decode(
+                                    new BinaryBitmap(new HybridBinarizer(luminanceSource)),
+                                    TRY_HARDER_HINTS
+                            )
+                            .getText();
+                };
+            } finally {
+                qrCodeReader.reset();
+                multiFormatReader.reset();
+            }
+        }
+
+        private static boolean isPng(byte[] bytes) {
+            return bytes.length >= PNG_SIGNATURE.length &&
+                    Arrays.equals(bytes, 0, PNG_SIGNATURE.length, PNG_SIGNATURE, 0, PNG_SIGNATURE.length);
         }
     }
 }
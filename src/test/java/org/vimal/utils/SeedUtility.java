@@ -0,0 +1,16 @@
+package org.vimal.utils;
+
+public final class SeedUtility {
+    private SeedUtility() {
+    }
+
+    private static final Long SEED = Long.getLong("fixture.seed");
+
+    public static boolean isSeeded() {
+        return SEED != null;
+    }
+
+    public static Long getSeed() {
+        return SEED;
+    }
+}
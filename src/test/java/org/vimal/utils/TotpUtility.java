@@ -3,25 +3,166 @@ package org.vimal.utils;
 import com.eatthepath.otp.TimeBasedOneTimePasswordGenerator;
 import org.apache.commons.codec.binary.Base32;
 
+import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.vimal.utils.DateTimeUtility.parseDuration;
 
 public final class TotpUtility {
     private TotpUtility() {
     }
 
-    private static final TimeBasedOneTimePasswordGenerator TOTP_GENERATOR = new TimeBasedOneTimePasswordGenerator();
-    private static final ThreadLocal<Base32> BASE_32 = ThreadLocal.withInitial(Base32::new);
+    private static final String TIME_STEP_PROPERTY = "totp.time.step";
+    // The fake server verifies codes against this same step, so fake runs default to a short one instead of
+    // sleeping out 30s windows, -Dtotp.time.step must match the real server's step when running against it.
+    private static final TimeBasedOneTimePasswordGenerator TOTP_GENERATOR = new TimeBasedOneTimePasswordGenerator(parseDuration(System.getProperty(
+            TIME_STEP_PROPERTY,
+            System.getProperty("fake.server.port") == null ? "30s" : "2s"
+    )));
+    private static final long TIME_STEP_MILLIS = TOTP_GENERATOR.getTimeStep()
+            .toMillis();
+    private static final int PASSWORD_LENGTH = TOTP_GENERATOR.getPasswordLength();
+    private static final int PASSWORD_MODULUS = (int) Math.pow(10, PASSWORD_LENGTH);
+    private static final Map<String, TotpKey> TOTP_KEYS = new ConcurrentHashMap<>();
 
     public static String generateTotp(String base32Secret) throws InvalidKeyException {
-        return TOTP_GENERATOR.generateOneTimePasswordString(
-                new SecretKeySpec(
-                        BASE_32.get()
-                                .decode(base32Secret),
-                        TOTP_GENERATOR.getAlgorithm()
-                ),
-                Instant.now()
-        );
+        long timeStep = timeStep(System.currentTimeMillis());
+        TotpKey totpKey = totpKey(base32Secret);
+        totpKey.markConsumed(timeStep);
+        return totpKey.codeFor(timeStep);
+    }
+
+    public static String generateTotp(String base32Secret,
+                                      Instant timestamp) throws InvalidKeyException {
+        return totpKey(base32Secret).codeFor(timeStep(timestamp.toEpochMilli()));
+    }
+
+    public static String generateFreshTotp(String base32Secret) throws InvalidKeyException, InterruptedException {
+        TotpKey totpKey = totpKey(base32Secret);
+        long nowMillis;
+        long timeStep;
+        while (true) {
+            nowMillis = System.currentTimeMillis();
+            timeStep = timeStep(nowMillis);
+            if (totpKey.tryConsume(timeStep)) {
+                return totpKey.codeFor(timeStep);
+            }
+            Thread.sleep((timeStep + 1) * TIME_STEP_MILLIS - nowMillis);
+        }
+    }
+
+    public static long getTimeStepMillis() {
+        return TIME_STEP_MILLIS;
+    }
+
+    public static long getMillisUntilNextTimeStep() {
+        long nowMillis = System.currentTimeMillis();
+        return (timeStep(nowMillis) + 1) * TIME_STEP_MILLIS - nowMillis;
+    }
+
+    private static long timeStep(long epochMillis) {
+        return epochMillis / TIME_STEP_MILLIS;
+    }
+
+    private static TotpKey totpKey(String base32Secret) throws InvalidKeyException {
+        TotpKey totpKey = TOTP_KEYS.get(base32Secret);
+        if (totpKey != null) {
+            return totpKey;
+        }
+        totpKey = new TotpKey(new SecretKeySpec(
+                new Base32().decode(base32Secret),
+                TOTP_GENERATOR.getAlgorithm()
+        ));
+        TotpKey existing = TOTP_KEYS.putIfAbsent(base32Secret, totpKey);
+        return existing == null ? totpKey : existing;
+    }
+
+    private record WindowCodes(long timeStep,
+                               String currentCode,
+                               String nextCode) {
+    }
+
+    private static final class TotpKey {
+        private final Mac mac;
+        private final ReentrantLock macLock = new ReentrantLock();
+        private final AtomicLong lastConsumedTimeStep = new AtomicLong(Long.MIN_VALUE);
+        private final byte[] counter = new byte[Long.BYTES];
+        private volatile WindowCodes windowCodes;
+
+        private TotpKey(SecretKeySpec key) throws InvalidKeyException {
+            try {
+                this.mac = Mac.getInstance(key.getAlgorithm());
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException("Totp algorithm '" + key.getAlgorithm() + "' is not available", ex);
+            }
+            this.mac.init(key);
+        }
+
+        private String codeFor(long timeStep) {
+            WindowCodes codes = windowCodes;
+            if (codes != null) {
+                if (codes.timeStep() == timeStep) {
+                    return codes.currentCode();
+                }
+                if (codes.timeStep() + 1 == timeStep) {
+                    windowCodes = new WindowCodes(timeStep, codes.nextCode(), hotp(timeStep + 1));
+                    return codes.nextCode();
+                }
+                if (codes.timeStep() > timeStep) {
+                    return hotp(timeStep);
+                }
+            }
+            codes = new WindowCodes(timeStep, hotp(timeStep), hotp(timeStep + 1));
+            windowCodes = codes;
+            return codes.currentCode();
+        }
+
+        private void markConsumed(long timeStep) {
+            lastConsumedTimeStep.accumulateAndGet(timeStep, Math::max);
+        }
+
+        private boolean tryConsume(long timeStep) {
+            long consumed;
+            do {
+                consumed = lastConsumedTimeStep.get();
+                if (consumed >= timeStep) {
+                    return false;
+                }
+            } while (!lastConsumedTimeStep.compareAndSet(consumed, timeStep));
+            return true;
+        }
+
+        private String hotp(long timeStep) {
+            byte[] hash;
+            macLock.lock();
+            try {
+                for (int i = Long.BYTES - 1; i >= 0; i--) {
+                    counter[i] = (byte) timeStep;
+                    timeStep >>>= 8;
+                }
+                hash = mac.doFinal(counter);
+            } finally {
+                macLock.unlock();
+            }
+            int offset = hash[hash.length - 1] & 0x0F;
+            int binary = ((hash[offset] & 0x7F) << 24) |
+                    ((hash[offset + 1] & 0xFF) << 16) |
+                    ((hash[offset + 2] & 0xFF) << 8) |
+                    (hash[offset + 3] & 0xFF);
+            int code = binary % PASSWORD_MODULUS;
+            char[] digits = new char[PASSWORD_LENGTH];
+            for (int i = PASSWORD_LENGTH - 1; i >= 0; i--) {
+                digits[i] = (char) ('0' + code % 10);
+                code /= 10;
+            }
+            return new String(digits);
+        }
     }
 }
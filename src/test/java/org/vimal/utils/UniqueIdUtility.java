@@ -0,0 +1,78 @@
+package org.vimal.utils;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.vimal.utils.SeedUtility.isSeeded;
+
+public final class UniqueIdUtility {
+    private UniqueIdUtility() {
+    }
+
+    private static final int STRIPE_BITS = Integer.SIZE - Integer.numberOfLeadingZeros(Math.max(1, 2 * Runtime.getRuntime().availableProcessors() - 1));
+    private static final int STRIPES = 1 << STRIPE_BITS;
+    private static final int STRIPE_MASK = STRIPES - 1;
+    private static final int CACHE_LINE_LONGS = 16;
+    private static final AtomicLongArray STRIPE_COUNTERS = new AtomicLongArray(STRIPES * CACHE_LINE_LONGS);
+    private static final boolean SEEDED = isSeeded();
+    private static final String RUN_PREFIX = System.getProperty("fixture.run.prefix", Long.toString(System.currentTimeMillis(), 36) + Long.toString(36 * 36 * 36 + ThreadLocalRandom.current()
+            .nextLong(36 * 36 * 36 * 35), 36));
+
+    public static String getRunPrefix() {
+        return RUN_PREFIX;
+    }
+
+    public static long nextId() {
+        int stripe = stripe();
+        return STRIPE_COUNTERS.getAndIncrement(stripe * CACHE_LINE_LONGS) << STRIPE_BITS | stripe;
+    }
+
+    public static String nextUniqueId() {
+        return format(nextId());
+    }
+
+    public static String[] nextUniqueIds(int count) {
+        int stripe = stripe();
+        long first = STRIPE_COUNTERS.getAndAdd(stripe * CACHE_LINE_LONGS, count);
+        String[] ids = new String[count];
+        StringBuilder id = new StringBuilder(RUN_PREFIX.length() + 14).append(RUN_PREFIX)
+                .append('_');
+        int prefixLength = id.length();
+        for (int i = 0; i < count; i++) {
+            id.setLength(prefixLength);
+            ids[i] = appendBase36(id, (first + i) << STRIPE_BITS | stripe).toString();
+        }
+        return ids;
+    }
+
+    private static int stripe() {
+        if (SEEDED) {
+            return 0;
+        }
+        return (int) Thread.currentThread()
+                .threadId() & STRIPE_MASK;
+    }
+
+    private static String format(long id) {
+        return appendBase36(new StringBuilder(RUN_PREFIX.length() + 14).append(RUN_PREFIX)
+                .append('_'), id)
+                .toString();
+    }
+
+    private static StringBuilder appendBase36(StringBuilder builder,
+                                              long value) {
+        int start = builder.length();
+        do {
+            builder.append(Character.forDigit((int) (value % 36), 36));
+            value /= 36;
+        } while (value > 0);
+        int end = builder.length() - 1;
+        char swap;
+        for (int i = start; i < end; i++, end--) {
+            swap = builder.charAt(i);
+            builder.setCharAt(i, builder.charAt(end));
+            builder.setCharAt(end, swap);
+        }
+        return builder;
+    }
+}